@@ -12,7 +12,7 @@ import logging
 import json
 import random
 import time
-from typing import Optional, Dict, List, Tuple
+from typing import Optional, Dict, List, Set, Tuple
 from dataclasses import dataclass, field
 
 import uvicorn
@@ -81,6 +81,7 @@ class GameContext:
     last_mentioned_character: Optional[str] = None
     last_mentioned_object: Optional[str] = None  # 사물 대명사 처리용
     total_turns: int = 0
+    accepted_turns: Set[int] = field(default_factory=set)  # 컨텍스트에 반영한 찬성 투표의 턴 (중복 전달 무시용)
 
 # 전역 게임 컨텍스트 저장소
 game_contexts: Dict[str, GameContext] = {}
@@ -202,7 +203,8 @@ class ImageGenerationService:
         self, 
         prompt: str, 
         reference_images: Optional[Dict[str, bytes]] = None,
-        retry_count: int = 3
+        retry_count: int = 3,
+        game_id: Optional[str] = None
     ) -> bytes:
         """
         Gemini API 호출 (Text-to-Image 또는 Multi-Image-to-Image)
@@ -211,6 +213,7 @@ class ImageGenerationService:
             prompt: 생성할 이미지의 텍스트 프롬프트
             reference_images: 캐릭터별 참조 이미지 딕셔너리 {캐릭터명: 이미지}
             retry_count: 재시도 횟수
+            game_id: 재시도 알림을 받을 게임 id
         """
         api_url = f"https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash-image-preview:generateContent?key={GEMINI_API_KEY}"
         
@@ -322,7 +325,8 @@ class ImageGenerationService:
                         await self._send_retry_notification(
                             "그림이 조금 이상하네요!\n다시 그려볼게요!",
                             attempt + 1,
-                            retry_count
+                            retry_count,
+                            game_id
                         )
 
                     if attempt == retry_count - 1:
@@ -336,7 +340,8 @@ class ImageGenerationService:
                         await self._send_retry_notification(
                             "그림이 조금 이상하네요!\n다시 그려볼게요!",
                             attempt + 1,
-                            retry_count
+                            retry_count,
+                            game_id
                         )
 
                     if attempt == retry_count - 1:
@@ -545,7 +550,8 @@ class ImageGenerationService:
         # 이미지 생성 (모든 기존 캐릭터의 레퍼런스 이미지 전달)
         image_data = await self._call_gemini_api(
             full_prompt, 
-            reference_images if reference_images else None
+            reference_images if reference_images else None,
+            game_id=gameId
         )
         
         # 새 캐릭터들의 레퍼런스 저장
@@ -726,7 +732,8 @@ class ImageGenerationService:
         return await self._call_gemini_api(
             full_prompt, 
             reference_images if reference_images else None, 
-            retry_count=5
+            retry_count=5,
+            game_id=gameId
         )
     
     async def generate_book_cover(
@@ -744,7 +751,8 @@ class ImageGenerationService:
         self,
         message: str,
         attempt: int,
-        max_attempts: int
+        max_attempts: int,
+        game_id: Optional[str] = None
     ):
         """
         재시도 알림을 백엔드를 통해 프론트엔드에 전송
@@ -753,6 +761,7 @@ class ImageGenerationService:
             message: 사용자에게 표시할 메시지
             attempt: 현재 재시도 번호
             max_attempts: 최대 재시도 횟수
+            game_id: 알림을 받을 게임 id (백엔드가 해당 게임 구독자에게 전달)
         """
         try:
             logger.info(f"🔄 재시도 알림 전송: {message}")
@@ -763,6 +772,7 @@ class ImageGenerationService:
             notification_url = f"{backend_url}/api/retry-notification"
 
             payload = {
+                "gameId": game_id,
                 "message": message,
                 "attempt": attempt,
                 "maxAttempts": max_attempts,
@@ -894,10 +904,21 @@ async def handle_vote_result(request: VoteResultRequest):
 
         context = game_contexts[request.gameId]
 
+        if request.accepted and request.turn in context.accepted_turns:
+            # 백엔드가 같은 투표 결과를 다시 보낸 경우 (재시도, 전달 담당 인스턴스 교체): 이미 반영했으므로 무시
+            logger.info(f"이미 반영된 투표 결과, 무시: 게임 {request.gameId}, 턴 {request.turn}")
+            return {
+                "message": "Vote result already processed",
+                "success": True,
+                "context_updated": False,
+                "current_story_length": len(context.story_history)
+            }
+
         if request.accepted:
             # 투표 찬성 시: 컨텍스트에 정식 추가
             resolved_prompt = image_service._resolve_references(request.userPrompt, context)
             context.story_history.append(resolved_prompt)
+            context.accepted_turns.add(request.turn)
 
             # 엔티티 추출 및 마지막 언급 정보 업데이트
             entities = image_service.entity_extractor.extract_entities(resolved_prompt, request.selectedKeywords)
@@ -0,0 +1,61 @@
+package com.example.b101.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 게임 종료 후 책 만들기 진행 상태
+ *
+ * 게임 종료 요청은 bookId만 바로 돌려주고, (표지 생성 + S3 업로드) → DB 저장 → Redis 정리를 백그라운드로 진행함.
+ * 단계가 끝날 때마다 저장하므로 서버가 재시작되어도 끝난 단계(특히 표지 생성)는 다시 하지 않고 이어서 진행.
+ * 진행 상태는 GET /book/builds/{bookId} 또는 게임별 SSE(book-build 이벤트)로 확인.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBuild {
+
+    public enum State {
+        BUILDING, // 진행 중
+        READY,    // 책 생성 완료 (bookCover 있음)
+        FAILED    // 실패 (error 있음)
+    }
+
+    public enum Stage {
+        ASSETS,  // 제목/표지 생성 + 표지 업로드와 scene 이미지 업로드를 동시에 진행
+        SAVE,    // Book, Scene 저장
+        CLEANUP, // Redis scene/게임 데이터 삭제
+        DONE
+    }
+
+    private String bookId;
+
+    private String gameId;
+
+    private State state;
+
+    private Stage stage;
+
+    private int drawingStyle;
+
+    private String baseUrl; //이미지 조회 url 앞부분 (요청 시점의 host)
+
+    private String title; //표지 생성이 끝나면 채워짐
+
+    private boolean scenesUploaded; //scene 이미지 S3 업로드 완료
+
+    private boolean coverUploaded; //표지 S3 업로드 완료
+
+    private String bookCover; //완료되면 책 표지 url
+
+    private String error;
+
+    private int attempts; //진행 시도 횟수 (재시작/오류로 이어서 진행한 횟수 포함)
+
+    private long createdAt; //epoch millis
+
+    private long updatedAt; //epoch millis
+}
@@ -0,0 +1,30 @@
+package com.example.b101.cache;
+
+import lombok.Getter;
+
+//이야기 카드 속성 (DB에는 한글 이름으로 저장됨)
+@Getter
+public enum CardAttribute {
+
+    CHARACTER("인물"),
+    OBJECT("사물"),
+    PLACE("장소"),
+    EVENT("사건"),
+    STATE("상태");
+
+    private final String label;
+
+    CardAttribute(String label) {
+        this.label = label;
+    }
+
+    //한글 속성명으로 조회, 없으면 null
+    public static CardAttribute fromLabel(String label) {
+        for (CardAttribute attribute : values()) {
+            if (attribute.label.equals(label)) {
+                return attribute;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.b101.cache;
+
+import com.example.b101.common.AhoCorasick;
+import com.example.b101.domain.EndingCard;
+import com.example.b101.domain.StoryCard;
+import com.example.b101.domain.StoryCardVariants;
+import com.example.b101.repository.EndingCardRepository;
+import com.example.b101.repository.StoryCardRepository;
+import com.example.b101.repository.StoryCardVariantsRepository;
+import com.example.b101.service.KomoranService;
+import com.example.b101.service.KomoranUnavailableException;
+import com.vane.badwordfiltering.BadWordFiltering;
+import jakarta.annotation.PostConstruct;
+import kr.co.shineware.nlp.komoran.model.Token;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * 이야기 카드/결말 카드 전체를 서버 메모리에 들고 있는 카드 카탈로그
+ *
+ * 시작할 때 DB에서 한 번 읽어서 불변 스냅샷으로 만들고, 조회는 모두 메모리에서 처리함.
+ *  - id -> 카드 : 배열 인덱스로 바로 조회
+ *  - 속성별 카드 : 속성(enum) 순서대로 int[] id 배열
+ *  - 카드 변형어 : 변형어와 욕설 단어를 함께 넣은 Aho–Corasick 오토마톤 + 키워드/변형어를 형태소 분석해 둔 LemmaIndex
+ * 카드 테이블이 바뀌면 주기적인 reload에서 새 스냅샷을 만들어 한 번에 교체함.
+ * 형태소 분석 결과는 스냅샷에 남겨 두고 다음 reload에서 같은 텍스트면 다시 분석하지 않음.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CardCatalog {
+
+    // 욕설 사이에 끼워 넣어 필터를 피하는 문자 (입력을 매칭할 때만 건너뜀)
+    // 숫자는 "18년", "십8"처럼 욕설 자체에 들어가므로 넣지 않음 (넣으면 "소년", "오십"까지 걸림)
+    private static final String SEPARATORS = "*.,-_+=~!@#$%^&()[]{}|/:;'<>?";
+    private static final AhoCorasick.CharSkip SKIP_SEPARATORS = c -> SEPARATORS.indexOf(c) >= 0;
+    private static final int BAD_WORD = -1; // 오토마톤에서 욕설 패턴의 값 (카드 id는 0 이상)
+    private static final int ANALYZE_ATTEMPTS = 3; // 분석기가 밀렸을 때 키워드/변형어 하나당 분석 시도 횟수
+
+    private final StoryCardRepository storyCardRepository;
+    private final EndingCardRepository endingCardRepository;
+    private final StoryCardVariantsRepository storyCardVariantsRepository;
+    private final KomoranService komoranService;
+    private final Set<String> badWords = Set.copyOf(new BadWordFiltering());
+
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    //DB의 카드 테이블을 다시 읽어서 내용이 바뀌었을 때만 스냅샷 교체
+    @Scheduled(fixedDelayString = "${card.catalog.reload-interval-ms:600000}",
+            initialDelayString = "${card.catalog.reload-interval-ms:600000}")
+    public void reload() {
+        long startTime = System.currentTimeMillis();
+        Snapshot current = snapshot;
+        Map<String, List<Token>> analyzed = current == null ? Map.of() : current.analyzed;
+
+        // 분석하지 못한 키워드/변형어가 있으면 원형 인덱스가 비게 되므로 교체하지 않고 이전 스냅샷을 유지
+        Snapshot loaded;
+        try {
+            loaded = new Snapshot(storyCardRepository.findAll(), endingCardRepository.findAll(), storyCardVariantsRepository.findAll(),
+                    badWords, text -> {
+                        List<Token> tokens = analyzed.get(text);
+                        return tokens != null ? tokens : analyzeWithRetry(text);
+                    });
+        } catch (KomoranUnavailableException e) {
+            if (current == null) {
+                throw e;
+            }
+            log.error("[CardCatalog] 형태소 분석 실패로 카드 카탈로그 교체 취소 - 이전 카탈로그 유지: {}", e.getMessage());
+            return;
+        }
+
+        if (current != null && current.storyCards.equals(loaded.storyCards) && current.endingCards.equals(loaded.endingCards)
+                && current.variantKeys.equals(loaded.variantKeys)) {
+            return;
+        }
+
+        snapshot = loaded;
+        log.info("[CardCatalog] 카드 카탈로그 로드 완료 - 이야기 카드: {}개, 결말 카드: {}개, 변형어: {}개, 원형 인덱스: {}개, 소요시간: {}ms",
+                loaded.storyCards.size(), loaded.endingCards.size(), loaded.variantKeys.size(), loaded.lemmaIndex.size(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    //분석기 풀이 잠깐 밀린 경우를 위해 몇 번 더 시도하고, 그래도 안 되면 예외를 그대로 던짐
+    private List<Token> analyzeWithRetry(String text) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return komoranService.analyze(text, false);
+            } catch (KomoranUnavailableException e) {
+                if (attempt >= ANALYZE_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("[CardCatalog] 형태소 분석 재시도 ({}/{}) - text: {}, {}", attempt, ANALYZE_ATTEMPTS, text, e.getMessage());
+            }
+        }
+    }
+
+    public StoryCard getStoryCard(int cardId) {
+        StoryCard[] storyById = snapshot.storyById;
+        return cardId >= 0 && cardId < storyById.length ? storyById[cardId] : null;
+    }
+
+    public EndingCard getEndingCard(int cardId) {
+        EndingCard[] endingById = snapshot.endingById;
+        return cardId >= 0 && cardId < endingById.length ? endingById[cardId] : null;
+    }
+
+    //카드 id의 속성, 없는 카드면 null
+    public CardAttribute getAttribute(int storyCardId) {
+        CardAttribute[] attributeById = snapshot.attributeById;
+        return storyCardId >= 0 && storyCardId < attributeById.length ? attributeById[storyCardId] : null;
+    }
+
+    //읽기 전용 리스트
+    public List<StoryCard> getStoryCards() {
+        return snapshot.storyCards;
+    }
+
+    //읽기 전용 리스트
+    public List<EndingCard> getEndingCards() {
+        return snapshot.endingCards;
+    }
+
+    //해당 속성의 카드 중 count장을 중복 없이 무작위로 뽑음
+    public int[] sampleStoryCardIds(CardAttribute attribute, int count) {
+        return sample(snapshot.idsByAttribute[attribute.ordinal()], count);
+    }
+
+    //해당 속성의 모든 카드 id를 섞어서 반환
+    public int[] shuffledStoryCardIds(CardAttribute attribute) {
+        int[] ids = snapshot.idsByAttribute[attribute.ordinal()];
+        return sample(ids, ids.length);
+    }
+
+    //새 게임용 결말카드 덱 (지금 카탈로그의 결말카드 전체를 섞음)
+    public List<Integer> newEndingDeck() {
+        return EndingDeck.shuffle(snapshot.endingIds);
+    }
+
+    //덱을 저장하기 전에 시드만 저장된 게임의 덱
+    public List<Integer> endingDeckFromSeed(long seed) {
+        return EndingDeck.fromSeed(seed, snapshot.endingIds);
+    }
+
+    /**
+     * 프롬프트의 욕설과 사용된 카드를 한 번에 찾음
+     *  - 오토마톤으로 원문을 한 번 훑으면서 욕설 범위와 원문에 그대로 들어 있는 변형어를 같이 찾음 (구분자는 건너뜀)
+     *  - 키워드/변형어의 원형 키가 문장의 형태소에 모두 들어 있는 경우 (형태소마다 해시 조회 한 번)
+     */
+    public PromptScan scanPrompt(String text, List<Token> tokens) {
+        Snapshot current = snapshot;
+        PromptScan scan = new PromptScan(current.storyById.length);
+        matchPrompt(current.promptMatcher, text, scan);
+        current.lemmaIndex.match(tokens, scan.getCardIds());
+        return scan;
+    }
+
+    /**
+     * 변형어와 욕설을 하나의 오토마톤으로 만듦
+     * 사전 항목은 그대로 넣음 (구분자는 입력에서만 건너뜀, 구분자가 들어간 항목은 매칭되지 않음), 한 글자 욕설도 포함
+     */
+    static AhoCorasick buildPromptMatcher(List<StoryCardVariants> variants, Set<String> badWords) {
+        AhoCorasick.Builder builder = AhoCorasick.builder();
+        for (StoryCardVariants variant : variants) {
+            builder.add(variant.getVariant(), variant.getStoryCard().getId());
+        }
+        for (String badWord : badWords) {
+            builder.add(badWord, BAD_WORD);
+        }
+        return builder.build();
+    }
+
+    //원문을 한 번 훑어서 욕설 범위와 변형어가 그대로 들어 있는 카드를 scan에 기록
+    static void matchPrompt(AhoCorasick promptMatcher, String text, PromptScan scan) {
+        BitSet cardIds = scan.getCardIds();
+        promptMatcher.match(text, SKIP_SEPARATORS, (value, start, end) -> {
+            if (value == BAD_WORD) {
+                scan.addBadWord(start, end);
+            } else {
+                cardIds.set(value);
+            }
+        });
+    }
+
+    private static int[] sample(int[] ids, int count) {
+        if (count > ids.length) {
+            throw new IllegalStateException("카드가 부족합니다. 필요: " + count + ", 보유: " + ids.length);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] picked = new int[count];
+
+        // Floyd 알고리즘: 뽑을 장수만큼만 난수를 사용해서 중복 없는 인덱스를 고름 (count가 작아서 중복 확인은 선형 탐색)
+        int size = 0;
+        for (int j = ids.length - count; j < ids.length; j++) {
+            int index = random.nextInt(j + 1);
+            picked[size] = contains(picked, size, index) ? j : index;
+            size++;
+        }
+
+        // Floyd 알고리즘은 뽑힌 순서가 고르지 않으므로 결과를 한 번 더 섞음
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = picked[i];
+            picked[i] = picked[j];
+            picked[j] = tmp;
+        }
+
+        for (int i = 0; i < count; i++) {
+            picked[i] = ids[picked[i]];
+        }
+        return picked;
+    }
+
+    private static boolean contains(int[] values, int size, int target) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //한 번 만들면 바뀌지 않는 카드 데이터 묶음
+    private static final class Snapshot {
+
+        private final List<StoryCard> storyCards;
+        private final List<EndingCard> endingCards;
+        private final StoryCard[] storyById;
+        private final CardAttribute[] attributeById;
+        private final EndingCard[] endingById;
+        private final int[][] idsByAttribute;
+        private final int[] endingIds;
+        private final List<String> variantKeys; // 변경 확인용 "cardId:variant"
+        private final AhoCorasick promptMatcher; // 변형어 + 욕설
+        private final LemmaIndex lemmaIndex;
+        private final Map<String, List<Token>> analyzed; // 키워드/변형어 -> 형태소 분석 결과
+
+        private Snapshot(List<StoryCard> storyCardList, List<EndingCard> endingCardList, List<StoryCardVariants> variantList,
+                         Set<String> badWords, Function<String, List<Token>> analyzer) {
+            List<StoryCard> sortedStoryCards = new ArrayList<>(storyCardList);
+            sortedStoryCards.sort(Comparator.comparingInt(StoryCard::getId));
+            List<EndingCard> sortedEndingCards = new ArrayList<>(endingCardList);
+            sortedEndingCards.sort(Comparator.comparingInt(EndingCard::getId));
+
+            this.storyCards = List.copyOf(sortedStoryCards);
+            this.endingCards = List.copyOf(sortedEndingCards);
+
+            int maxStoryId = storyCards.isEmpty() ? 0 : storyCards.get(storyCards.size() - 1).getId();
+            this.storyById = new StoryCard[maxStoryId + 1];
+            this.attributeById = new CardAttribute[maxStoryId + 1];
+
+            int[] countByAttribute = new int[CardAttribute.values().length];
+            for (StoryCard storyCard : storyCards) {
+                // 속성을 모르는 카드도 id 조회/변형어 매칭은 되도록 남기고 속성별 뽑기에서만 뺌
+                storyById[storyCard.getId()] = storyCard;
+                CardAttribute attribute = CardAttribute.fromLabel(storyCard.getAttribute());
+                if (attribute == null) {
+                    log.warn("[CardCatalog] 알 수 없는 카드 속성 - 속성별 인덱스에서 제외 - id: {}, attribute: {}",
+                            storyCard.getId(), storyCard.getAttribute());
+                    continue;
+                }
+                attributeById[storyCard.getId()] = attribute;
+                countByAttribute[attribute.ordinal()]++;
+            }
+
+            this.idsByAttribute = new int[countByAttribute.length][];
+            for (int i = 0; i < countByAttribute.length; i++) {
+                idsByAttribute[i] = new int[countByAttribute[i]];
+            }
+
+            int[] filled = new int[countByAttribute.length];
+            for (int id = 0; id < attributeById.length; id++) {
+                CardAttribute attribute = attributeById[id];
+                if (attribute != null) {
+                    idsByAttribute[attribute.ordinal()][filled[attribute.ordinal()]++] = id;
+                }
+            }
+
+            int maxEndingId = endingCards.isEmpty() ? 0 : endingCards.get(endingCards.size() - 1).getId();
+            this.endingById = new EndingCard[maxEndingId + 1];
+            this.endingIds = new int[endingCards.size()];
+            for (int i = 0; i < endingCards.size(); i++) {
+                EndingCard endingCard = endingCards.get(i);
+                endingById[endingCard.getId()] = endingCard;
+                endingIds[i] = endingCard.getId();
+            }
+
+            List<StoryCardVariants> variants = variantList.stream()
+                    .filter(variant -> variant.getVariant() != null && !variant.getVariant().isBlank())
+                    .sorted(Comparator.comparingInt((StoryCardVariants variant) -> variant.getStoryCard().getId())
+                            .thenComparing(StoryCardVariants::getVariant))
+                    .toList();
+
+            this.variantKeys = variants.stream()
+                    .map(variant -> variant.getStoryCard().getId() + ":" + variant.getVariant())
+                    .toList();
+
+            this.promptMatcher = buildPromptMatcher(variants, badWords);
+
+            // 키워드와 변형어를 한 번씩만 형태소 분석해서 원형 키로 인덱싱 (활용형은 변형어로 따로 적지 않아도 됨)
+            Map<String, List<Token>> analyzed = new HashMap<>();
+            LemmaIndex.Builder lemmaBuilder = LemmaIndex.builder();
+            for (StoryCard storyCard : storyCards) {
+                if (storyById[storyCard.getId()] != null && storyCard.getKeyword() != null) {
+                    lemmaBuilder.add(analyzed.computeIfAbsent(storyCard.getKeyword(), analyzer), storyCard.getId());
+                }
+            }
+            for (StoryCardVariants variant : variants) {
+                lemmaBuilder.add(analyzed.computeIfAbsent(variant.getVariant(), analyzer), variant.getStoryCard().getId());
+            }
+            this.lemmaIndex = lemmaBuilder.build();
+            this.analyzed = Map.copyOf(analyzed);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.b101.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 결말카드 덱 순서 계산
+ *
+ * 게임을 시작할 때 한 번만 섞어서 게임 hash에 덱(endingDeck)으로 저장하고, 리롤은 저장된 덱에서 커서만 증가시킴.
+ * 게임 도중 카드 카탈로그가 다시 로드되어도 진행 중인 게임의 덱 순서는 바뀌지 않음.
+ *
+ * 섞는 방법은 시드로 MINSTD 난수(48271 * x mod 2^31-1)를 만들어 Fisher-Yates로 순서를 정하는 방식.
+ * 덱을 저장하기 전(시드만 저장하던 때)에 시작된 게임은 같은 시드로 덱을 한 번 만들어서 저장함.
+ */
+public final class EndingDeck {
+
+    private static final long MODULUS = 2147483647L;
+    private static final long MULTIPLIER = 48271L;
+
+    private EndingDeck() {
+    }
+
+    //새 게임용 덱 (cardIds는 id 오름차순)
+    public static List<Integer> shuffle(int[] cardIds) {
+        return fromSeed(ThreadLocalRandom.current().nextLong(1, MODULUS), cardIds);
+    }
+
+    //시드로 정해지는 덱 (cardIds는 id 오름차순)
+    public static List<Integer> fromSeed(long seed, int[] cardIds) {
+        int[] order = order(seed, cardIds.length);
+        List<Integer> deck = new ArrayList<>(order.length);
+        for (int index : order) {
+            deck.add(cardIds[index]);
+        }
+        return deck;
+    }
+
+    //덱 순서: order[position] = cardIds 인덱스
+    static int[] order(long seed, int size) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+
+        long state = seed;
+        for (int i = size - 1; i > 0; i--) {
+            state = state * MULTIPLIER % MODULUS;
+            int j = (int) (state % (i + 1));
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.b101.cache;
 
-import com.example.b101.domain.EndingCard;
 import com.example.b101.domain.PlayerStatus;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.redis.core.RedisHash;
@@ -13,14 +13,18 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true) // 이전 구조의 endingCardlist, endingSeed 무시
 @RedisHash(value = "Game")
 public class Game implements Serializable {
 
     @Id  // redis에서 Key 역할을 할 필드
     private String gameId;
 
-    //게임에서 쓰이는 게임 개별 endingCardList
-    private List<EndingCard> endingCardlist;
+    //게임 시작 때 한 번 섞어 둔 결말카드 id 덱 (EndingDeck 참고)
+    private List<Integer> endingDeck;
+
+    //다음에 뽑을 결말카드 덱 위치
+    private int endingCursor;
 
     //플에이어들의 게임데이터 정보
     private List<PlayerStatus> playerStatuses;
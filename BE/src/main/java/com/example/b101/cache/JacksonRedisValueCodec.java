@@ -0,0 +1,51 @@
+package com.example.b101.cache;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import java.io.IOException;
+
+/**
+ * Jackson 기반 코덱
+ * 템플릿마다 타입이 고정되어 있으므로 GenericJackson2JsonRedisSerializer처럼 @class 타입 정보를 넣지 않음.
+ */
+public class JacksonRedisValueCodec implements RedisValueCodec {
+
+    private final byte id;
+    private final ObjectMapper objectMapper;
+
+    private JacksonRedisValueCodec(byte id, ObjectMapper objectMapper) {
+        this.id = id;
+        this.objectMapper = objectMapper
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                // 배포 사이에 필드가 추가/삭제되어도 살아있는 게임 데이터를 읽을 수 있도록
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    // 타입 정보 없는 JSON
+    public static JacksonRedisValueCodec json() {
+        return new JacksonRedisValueCodec(RedisCodecType.JSON.getId(), new ObjectMapper());
+    }
+
+    // Smile (JSON과 같은 데이터 모델의 바이너리 포맷)
+    public static JacksonRedisValueCodec smile() {
+        return new JacksonRedisValueCodec(RedisCodecType.SMILE.getId(), SmileMapper.builder().build());
+    }
+
+    @Override
+    public byte id() {
+        return id;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, int offset, int length, Class<T> type) throws IOException {
+        return objectMapper.readValue(bytes, offset, length, type);
+    }
+}
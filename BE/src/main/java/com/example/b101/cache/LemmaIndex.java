@@ -0,0 +1,128 @@
+package com.example.b101.cache;
+
+import kr.co.shineware.nlp.komoran.model.Token;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 변형어를 미리 형태소 분석해 둔 원형(lemma)/품사 인덱스
+ *
+ * 변형어마다 의미 있는 형태소(명사, 동사, 형용사, 어근, 부사)를 "형태소/품사" 키로 바꿔 두고,
+ * 입력 문장의 키 집합에 변형어의 키가 모두 들어 있으면 그 카드가 사용된 것으로 봄.
+ * 활용형("달렸다", "달리는")도 원형 키("달리/V")로 모이므로 변형어 테이블에 활용형을 따로 적지 않아도 됨.
+ */
+public final class LemmaIndex {
+
+    private final Map<String, int[]> postings; // 키 -> 변형어 번호
+    private final int[] requiredCounts;        // 변형어별 키 개수
+    private final int[] cardIds;               // 변형어별 카드 id
+
+    private LemmaIndex(Map<String, int[]> postings, int[] requiredCounts, int[] cardIds) {
+        this.postings = postings;
+        this.requiredCounts = requiredCounts;
+        this.cardIds = cardIds;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return cardIds.length;
+    }
+
+    //의미 있는 형태소만 "형태소/품사그룹" 키로 변환, 나머지(조사, 어미, 기호 등)는 null
+    static String keyOf(Token token) {
+        String pos = token.getPos();
+        String group;
+        if (pos.startsWith("NN")) {
+            group = "N";
+        } else if (pos.equals("VV")) {
+            group = "V";
+        } else if (pos.equals("VA")) {
+            group = "A";
+        } else if (pos.equals("XR")) {
+            group = "R";
+        } else if (pos.equals("MAG")) {
+            group = "M";
+        } else {
+            return null;
+        }
+        return token.getMorph() + "/" + group;
+    }
+
+    //입력 문장의 키 집합에 키가 모두 들어 있는 변형어의 카드 id를 into에 표시
+    public void match(List<Token> tokens, BitSet into) {
+        Set<String> keys = new HashSet<>();
+        for (Token token : tokens) {
+            String key = keyOf(token);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+
+        int[] hits = null;
+        for (String key : keys) {
+            int[] variants = postings.get(key);
+            if (variants == null) {
+                continue;
+            }
+            if (hits == null) {
+                hits = new int[cardIds.length];
+            }
+            for (int variant : variants) {
+                if (++hits[variant] == requiredCounts[variant]) {
+                    into.set(cardIds[variant]);
+                }
+            }
+        }
+    }
+
+    public static final class Builder {
+
+        private final Map<String, List<Integer>> postings = new HashMap<>();
+        private final List<Integer> requiredCounts = new ArrayList<>();
+        private final List<Integer> cardIds = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        //변형어의 형태소 분석 결과를 카드 id와 함께 등록 (의미 있는 형태소가 없으면 등록하지 않음)
+        public Builder add(List<Token> tokens, int cardId) {
+            Set<String> keys = new LinkedHashSet<>();
+            for (Token token : tokens) {
+                String key = keyOf(token);
+                if (key != null) {
+                    keys.add(key);
+                }
+            }
+            if (keys.isEmpty()) {
+                return this;
+            }
+
+            int variant = cardIds.size();
+            cardIds.add(cardId);
+            requiredCounts.add(keys.size());
+            for (String key : keys) {
+                postings.computeIfAbsent(key, k -> new ArrayList<>()).add(variant);
+            }
+            return this;
+        }
+
+        public LemmaIndex build() {
+            Map<String, int[]> frozen = new HashMap<>();
+            postings.forEach((key, variants) -> frozen.put(key, variants.stream().mapToInt(Integer::intValue).toArray()));
+
+            return new LemmaIndex(Map.copyOf(frozen),
+                    requiredCounts.stream().mapToInt(Integer::intValue).toArray(),
+                    cardIds.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.b101.cache;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * 프롬프트를 한 번 훑은 결과
+ *  - badWordSpans : 욕설이 나온 원문 범위 {start, end} (end 미포함)
+ *  - cardIds      : 변형어/원형이 사용된 카드 id
+ */
+@Getter
+public class PromptScan {
+
+    private final List<int[]> badWordSpans = new ArrayList<>();
+    private final BitSet cardIds;
+
+    PromptScan(int cardCapacity) {
+        this.cardIds = new BitSet(cardCapacity);
+    }
+
+    void addBadWord(int start, int end) {
+        badWordSpans.add(new int[] {start, end});
+    }
+
+    public boolean hasBadWord() {
+        return !badWordSpans.isEmpty();
+    }
+
+    //욕설 범위를 *로 가린 문자열 (로그용)
+    public String mask(String text) {
+        StringBuilder masked = new StringBuilder(text);
+        for (int[] span : badWordSpans) {
+            for (int i = span[0]; i < span[1]; i++) {
+                masked.setCharAt(i, '*');
+            }
+        }
+        return masked.toString();
+    }
+}
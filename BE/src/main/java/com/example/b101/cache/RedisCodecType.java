@@ -0,0 +1,30 @@
+package com.example.b101.cache;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+// application.properties의 redis.codec.* 값과 매핑되는 코덱 종류
+@Getter
+public enum RedisCodecType {
+
+    JSON((byte) 1),
+    SMILE((byte) 2);
+
+    private final byte id;
+
+    RedisCodecType(byte id) {
+        this.id = id;
+    }
+
+    public RedisValueCodec create() {
+        return this == SMILE ? JacksonRedisValueCodec.smile() : JacksonRedisValueCodec.json();
+    }
+
+    public static RedisCodecType from(String name) {
+        return Arrays.stream(values())
+                .filter(type -> type.name().equalsIgnoreCase(name.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("지원하지 않는 redis codec: " + name));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.b101.cache;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,8 +9,10 @@ import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
@@ -18,6 +21,10 @@ import java.time.Duration;
 @Configuration
 public class RedisConfig {
 
+    private static final int GAME_SCHEMA_VERSION = 1;
+    private static final int ROOM_SCHEMA_VERSION = 1;
+    private static final int SCENE_SCHEMA_VERSION = 1;
+
     //spring boot 기본 redis 라이브러리가 Lettuce
 
     //데이터 캐싱을 위한 캐시 매니저
@@ -61,4 +68,60 @@ public class RedisConfig {
     }
 
 
+    //Game, Room, SceneRedis는 템플릿별로 코덱을 지정 (redis.codec.*, 기본값 smile)
+    //스키마 버전은 payload 헤더에 기록되며 필드 구조가 바뀌면 올려줌
+    @Bean
+    public RedisTemplate<String, Game> gameRedisTemplate(LettuceConnectionFactory redisConnectionFactory,
+                                                         @Value("${redis.codec.game:smile}") String codec) {
+        // 게임은 game:{gameId} hash에 필드별로 저장되고, 이 템플릿은 이전 "game" hash의 헤더 없는 JSON을 옮길 때만 읽음
+        // (버전 헤더가 붙은 Game 값을 쓰는 곳이 없으므로 legacy 버전 등록도 없음)
+        return typedRedisTemplate(redisConnectionFactory, new VersionedRedisSerializer<>(Game.class, GAME_SCHEMA_VERSION, RedisCodecType.from(codec)));
+    }
+
+    @Bean
+    public RedisTemplate<String, Room> roomRedisTemplate(LettuceConnectionFactory redisConnectionFactory,
+                                                         @Value("${redis.codec.room:smile}") String codec) {
+        return typedRedisTemplate(redisConnectionFactory, new VersionedRedisSerializer<>(Room.class, ROOM_SCHEMA_VERSION, RedisCodecType.from(codec)));
+    }
+
+    @Bean
+    public RedisTemplate<String, SceneRedis> sceneRedisTemplate(LettuceConnectionFactory redisConnectionFactory,
+                                                                @Value("${redis.codec.scene:smile}") String codec) {
+        return typedRedisTemplate(redisConnectionFactory, new VersionedRedisSerializer<>(SceneRedis.class, SCENE_SCHEMA_VERSION, RedisCodecType.from(codec)));
+    }
+
+    private <T> RedisTemplate<String, T> typedRedisTemplate(LettuceConnectionFactory redisConnectionFactory, VersionedRedisSerializer<T> serializer) {
+        RedisTemplate<String, T> template = new RedisTemplate<>();
+        template.setConnectionFactory(redisConnectionFactory);
+
+        StringRedisSerializer stringSerializer = new StringRedisSerializer();
+
+        template.setKeySerializer(stringSerializer);
+        template.setValueSerializer(serializer);
+        template.setHashKeySerializer(stringSerializer);
+        template.setHashValueSerializer(serializer);
+
+        return template;
+    }
+
+
+    //scene 이미지처럼 큰 바이너리는 JSON(base64)을 거치지 않고 raw bytes 그대로 저장
+    @Bean
+    public RedisTemplate<String, byte[]> binaryRedisTemplate(LettuceConnectionFactory redisConnectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(redisConnectionFactory);
+
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+
+        return template;
+    }
+
+    //게임 이벤트(SSE) 같은 pub/sub 메시지 구독용, 인스턴스마다 하나
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
 }
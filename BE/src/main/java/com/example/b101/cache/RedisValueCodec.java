@@ -0,0 +1,17 @@
+package com.example.b101.cache;
+
+import java.io.IOException;
+
+/**
+ * Redis value를 bytes로 바꾸는 코덱
+ * VersionedRedisSerializer가 payload 앞에 코덱 id를 기록하므로
+ * 코덱을 바꿔서 배포해도 이전 코덱으로 저장된 값은 그대로 읽을 수 있음.
+ */
+public interface RedisValueCodec {
+
+    byte id(); //payload 헤더에 기록되는 코덱 식별자
+
+    byte[] encode(Object value) throws IOException;
+
+    <T> T decode(byte[] bytes, int offset, int length, Class<T> type) throws IOException;
+}
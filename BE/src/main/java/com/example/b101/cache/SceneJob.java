@@ -0,0 +1,63 @@
+package com.example.b101.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 이미지 생성 작업 (Prefer: respond-async 로 요청한 경우)
+ *
+ * 요청하면 바로 작업 id를 돌려주고, 진행 상태는 GET /scene/jobs/{id} 또는 게임별 SSE로 확인함.
+ * 완료되면 이미지 bytes 대신 이미지 조회 경로(imageUrl)를 담음.
+ * 재시작 후 이어서 진행할 수 있도록 요청 내용(userPrompt, isEnding)도 같이 저장함 (응답에는 넣지 않음).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SceneJob {
+
+    public enum State {
+        QUEUED,    // 등록됨
+        RUNNING,   // 이미지 생성 중
+        SUCCEEDED, // 생성 완료 (sceneId, imageUrl 있음)
+        FAILED     // 재시도까지 실패 (error 있음)
+    }
+
+    private String id;
+
+    private String gameId;
+
+    private String userId;
+
+    private int turn;
+
+    @JsonIgnore
+    private String userPrompt;
+
+    @JsonIgnore
+    private Boolean isEnding;
+
+    private State state;
+
+    private int attempts; //이미지 생성 시도 횟수
+
+    private long createdAt; //epoch millis
+
+    private long updatedAt; //epoch millis
+
+    private String sceneId;
+
+    private String imageUrl;
+
+    private String error;
+
+    private long retryAfterSeconds; //백엔드가 바빠서 실패한 경우 다시 시도하기까지 예상 대기 시간 (초), 아니면 0
+
+    @JsonIgnore
+    public boolean isDone() {
+        return state == State.SUCCEEDED || state == State.FAILED;
+    }
+}
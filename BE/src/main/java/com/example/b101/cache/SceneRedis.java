@@ -1,5 +1,6 @@
 package com.example.b101.cache;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import java.io.Serializable;
 
@@ -25,6 +26,8 @@ public class SceneRedis implements Serializable {
 
     private String prompt; //사용자가 생성한 프롬포트
 
-    private byte[] image; //바이너리 형태로 저장된 이미지
+    //이미지는 메타데이터와 분리해서 별도 key에 raw binary로 저장됨. (RedisSceneRepository.findImage로 필요할 때만 조회)
+    @JsonIgnore
+    private byte[] image;
 
 }
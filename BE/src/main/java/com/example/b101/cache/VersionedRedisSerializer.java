@@ -0,0 +1,117 @@
+package com.example.b101.cache;
+
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 버전 헤더가 붙은 Redis value 직렬화
+ *
+ *  [MAGIC(0xB1)][스키마 버전][코덱 id][본문...]
+ *
+ * 헤더가 없는 값은 이전 배포에서 GenericJackson2JsonRedisSerializer로 저장된 JSON이므로
+ * 그대로 읽어서 진행 중인 게임이 배포 후에도 유지되도록 함.
+ *
+ * 스키마 버전이 현재 버전과 다르면 withLegacyVersion으로 등록한 방법으로만 읽고,
+ * 등록되지 않은 버전(이후 버전 포함)은 현재 구조로 잘못 읽지 않도록 SerializationException을 던짐.
+ */
+public class VersionedRedisSerializer<T> implements RedisSerializer<T> {
+
+    static final byte MAGIC = (byte) 0xB1;
+    static final int HEADER_SIZE = 3;
+
+    private final Class<T> type;
+    private final byte schemaVersion;
+    private final RedisValueCodec writer;
+    private final RedisValueCodec[] readers = new RedisValueCodec[RedisCodecType.values().length + 1];
+    private final GenericJackson2JsonRedisSerializer legacySerializer = new GenericJackson2JsonRedisSerializer();
+    private final Map<Byte, LegacyReader<T>> legacyReaders = new HashMap<>();
+
+    //이전 스키마 버전 payload는 그 버전의 타입으로 읽은 뒤 현재 타입으로 변환
+    private record LegacyReader<T>(Class<?> payloadType, Function<Object, T> upgrade) {
+    }
+
+    public VersionedRedisSerializer(Class<T> type, int schemaVersion, RedisCodecType codecType) {
+        this.type = type;
+        this.schemaVersion = (byte) schemaVersion;
+        this.writer = codecType.create();
+
+        // 쓰기 코덱과 상관없이 모든 코덱의 payload를 읽을 수 있어야 함
+        Arrays.stream(RedisCodecType.values()).forEach(codec -> readers[codec.getId()] = codec.create());
+    }
+
+    //이전 스키마 버전 payload를 읽는 방법 등록 (설정할 때만 호출)
+    public <P> VersionedRedisSerializer<T> withLegacyVersion(int version, Class<P> payloadType, Function<P, T> upgrade) {
+        if (version == schemaVersion) {
+            throw new IllegalArgumentException("현재 스키마 버전은 legacy로 등록할 수 없음: v" + version);
+        }
+        legacyReaders.put((byte) version, new LegacyReader<>(payloadType, value -> upgrade.apply(payloadType.cast(value))));
+        return this;
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+
+        try {
+            byte[] body = writer.encode(value);
+            byte[] payload = new byte[HEADER_SIZE + body.length];
+            payload[0] = MAGIC;
+            payload[1] = schemaVersion;
+            payload[2] = writer.id();
+            System.arraycopy(body, 0, payload, HEADER_SIZE, body.length);
+            return payload;
+        } catch (Exception e) {
+            throw new SerializationException(type.getSimpleName() + " 직렬화 실패: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        // 헤더 없는 이전 JSON 포맷
+        if (bytes[0] != MAGIC || bytes.length < HEADER_SIZE) {
+            return type.cast(legacySerializer.deserialize(bytes));
+        }
+
+        byte codecId = bytes[2];
+        if (codecId <= 0 || codecId >= readers.length || readers[codecId] == null) {
+            throw new SerializationException("알 수 없는 redis codec id: " + codecId);
+        }
+
+        byte version = bytes[1];
+        LegacyReader<T> legacyReader = null;
+        if (version != schemaVersion) {
+            legacyReader = legacyReaders.get(version);
+            if (legacyReader == null) {
+                throw new SerializationException(type.getSimpleName() + " 스키마 버전 불일치 - 저장된 값: v" + version
+                        + ", 현재: v" + schemaVersion + " (읽는 방법이 등록되지 않은 버전)");
+            }
+        }
+
+        try {
+            if (legacyReader == null) {
+                return readers[codecId].decode(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE, type);
+            }
+            Object legacy = readers[codecId].decode(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE, legacyReader.payloadType());
+            return legacyReader.upgrade().apply(legacy);
+        } catch (Exception e) {
+            throw new SerializationException(type.getSimpleName() + " 역직렬화 실패 (schema v" + version + "): " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return type;
+    }
+}
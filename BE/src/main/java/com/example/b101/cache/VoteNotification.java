@@ -0,0 +1,31 @@
+package com.example.b101.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * AI 서비스(/vote-result)에 전달할 투표 결과
+ *
+ * 투표 요청에서는 outbox(Redis Stream)에 쌓기만 하고 VoteOutbox가 백그라운드로 전달함.
+ * id는 Stream에 쌓인 뒤의 레코드 id.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VoteNotification {
+
+    private String id;
+
+    private String gameId;
+
+    private String userId;
+
+    private String userPrompt;
+
+    private int turn;
+
+    private boolean accepted;
+}
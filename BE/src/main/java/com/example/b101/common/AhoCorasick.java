@@ -0,0 +1,207 @@
+package com.example.b101.common;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 여러 패턴을 텍스트를 한 번만 훑어서 모두 찾는 Aho–Corasick 오토마톤
+ *
+ * 패턴마다 int 값(예: 카드 id)을 붙여서 만들고, 찾으면 (값, 시작 위치, 끝 위치)로 알려줌.
+ * skip 조건을 주면 해당 문자는 건너뛰고 이어서 매칭함 ("바.보", "바_보"도 "바보"로 찾음).
+ * 한 번 만들면 바뀌지 않으므로 여러 스레드에서 같이 써도 됨.
+ */
+public final class AhoCorasick {
+
+    private static final int[] EMPTY = new int[0];
+
+    @FunctionalInterface
+    public interface MatchHandler {
+        // start 포함, end 미포함
+        void onMatch(int value, int start, int end);
+    }
+
+    @FunctionalInterface
+    public interface CharSkip {
+        boolean test(char c);
+    }
+
+    private final char[][] keys;         // 노드별 자식 문자 (오름차순)
+    private final int[][] children;      // 노드별 자식 노드 번호 (keys와 같은 순서)
+    private final int[] fail;            // 실패 링크
+    private final int[][] outputs;       // 노드에서 끝나는 패턴들의 값 (실패 링크 쪽 출력까지 합쳐 둠)
+    private final int[][] outputLengths; // outputs와 같은 순서의 패턴 길이
+
+    private AhoCorasick(char[][] keys, int[][] children, int[] fail, int[][] outputs, int[][] outputLengths) {
+        this.keys = keys;
+        this.children = children;
+        this.fail = fail;
+        this.outputs = outputs;
+        this.outputLengths = outputLengths;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    //텍스트를 한 번 훑으면서 찾은 패턴을 모두 handler로 전달
+    public void match(CharSequence text, MatchHandler handler) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+
+            int[] values = outputs[state];
+            for (int k = 0; k < values.length; k++) {
+                handler.onMatch(values[k], i + 1 - outputLengths[state][k], i + 1);
+            }
+        }
+    }
+
+    /**
+     * skip에 해당하는 문자는 상태를 바꾸지 않고 건너뛰면서 매칭
+     * 시작/끝 위치는 원문 기준 (건너뛴 문자가 패턴 사이에 있으면 범위에 포함됨)
+     * skip 문자가 들어간 패턴은 찾을 수 없음
+     */
+    public void match(CharSequence text, CharSkip skip, MatchHandler handler) {
+        int[] positions = new int[text.length()]; // 건너뛰지 않은 문자들의 원문 위치
+        int consumed = 0;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (skip.test(c)) {
+                continue;
+            }
+            positions[consumed++] = i;
+            state = next(state, c);
+
+            int[] values = outputs[state];
+            for (int k = 0; k < values.length; k++) {
+                handler.onMatch(values[k], positions[consumed - outputLengths[state][k]], i + 1);
+            }
+        }
+    }
+
+    private int next(int state, char c) {
+        while (true) {
+            int child = child(state, c);
+            if (child >= 0) {
+                return child;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+
+    private int child(int state, char c) {
+        int index = Arrays.binarySearch(keys[state], c);
+        return index >= 0 ? children[state][index] : -1;
+    }
+
+    public static final class Builder {
+
+        private final List<TreeMap<Character, Integer>> nodes = new ArrayList<>();
+        private final List<List<int[]>> nodeOutputs = new ArrayList<>(); // {값, 패턴 길이}
+
+        private Builder() {
+            newNode();
+        }
+
+        public Builder add(String pattern, int value) {
+            if (pattern == null || pattern.isEmpty()) {
+                return this;
+            }
+
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                Integer child = nodes.get(state).get(c);
+                if (child == null) {
+                    child = newNode();
+                    nodes.get(state).put(c, child);
+                }
+                state = child;
+            }
+            nodeOutputs.get(state).add(new int[] {value, pattern.length()});
+            return this;
+        }
+
+        public AhoCorasick build() {
+            int size = nodes.size();
+            char[][] keys = new char[size][];
+            int[][] children = new int[size][];
+            for (int node = 0; node < size; node++) {
+                TreeMap<Character, Integer> edges = nodes.get(node);
+                keys[node] = new char[edges.size()];
+                children[node] = new int[edges.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                    keys[node][i] = edge.getKey();
+                    children[node][i] = edge.getValue();
+                    i++;
+                }
+            }
+
+            int[] fail = new int[size];
+            List<List<int[]>> merged = new ArrayList<>(nodeOutputs);
+
+            // BFS로 얕은 노드부터 실패 링크를 정하고, 실패 링크 쪽 출력도 합쳐 둠
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int child : children[0]) {
+                queue.add(child);
+            }
+
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (int i = 0; i < keys[node].length; i++) {
+                    char c = keys[node][i];
+                    int child = children[node][i];
+
+                    int f = fail[node];
+                    while (f != 0 && Arrays.binarySearch(keys[f], c) < 0) {
+                        f = fail[f];
+                    }
+                    int index = Arrays.binarySearch(keys[f], c);
+                    fail[child] = index >= 0 ? children[f][index] : 0;
+
+                    if (!merged.get(fail[child]).isEmpty()) {
+                        List<int[]> outputs = new ArrayList<>(merged.get(child));
+                        outputs.addAll(merged.get(fail[child]));
+                        merged.set(child, outputs);
+                    }
+                    queue.add(child);
+                }
+            }
+
+            int[][] outputs = new int[size][];
+            int[][] outputLengths = new int[size][];
+            for (int node = 0; node < size; node++) {
+                List<int[]> nodeOutput = merged.get(node);
+                if (nodeOutput.isEmpty()) {
+                    outputs[node] = EMPTY;
+                    outputLengths[node] = EMPTY;
+                    continue;
+                }
+                outputs[node] = new int[nodeOutput.size()];
+                outputLengths[node] = new int[nodeOutput.size()];
+                for (int i = 0; i < nodeOutput.size(); i++) {
+                    outputs[node][i] = nodeOutput.get(i)[0];
+                    outputLengths[node][i] = nodeOutput.get(i)[1];
+                }
+            }
+
+            return new AhoCorasick(keys, children, fail, outputs, outputLengths);
+        }
+
+        private int newNode() {
+            nodes.add(new TreeMap<>());
+            nodeOutputs.add(new ArrayList<>());
+            return nodes.size() - 1;
+        }
+    }
+}
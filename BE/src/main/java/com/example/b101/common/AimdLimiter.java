@@ -0,0 +1,75 @@
+package com.example.b101.common;
+
+/**
+ * AIMD 방식 동시 요청 제한
+ *
+ * 제한 시간 안에 응답이 오면 limit을 1/limit씩 늘리고 (요청 limit개가 성공하면 1 증가),
+ * 실패하거나 latencyThresholdMs를 넘기면 limit에 decreaseRatio를 곱해서 줄임.
+ * 처리 중 요청 수가 limit 이상이면 tryAcquire가 false를 돌려줌 → 호출하는 쪽에서 바로 실패 처리.
+ */
+public final class AimdLimiter {
+
+    private static final double DECREASE_RATIO = 0.75;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdMs;
+    private double limit;
+    private int inFlight;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMs) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdMs = latencyThresholdMs;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    //응답을 받은 경우 (응답 시간으로 과부하 여부 판단)
+    public synchronized void onSuccess(long latencyMs) {
+        inFlight--;
+        if (latencyMs > latencyThresholdMs) {
+            decrease();
+        } else {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    //실패(에러, 타임아웃)한 경우
+    public synchronized void onDropped() {
+        inFlight--;
+        decrease();
+    }
+
+    //결과와 상관없이 취소된 경우 (헤지에서 진 요청 등) → limit은 그대로
+    public synchronized void onIgnored() {
+        inFlight--;
+    }
+
+    public synchronized boolean hasCapacity() {
+        return inFlight < (int) limit;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public long getLatencyThresholdMs() {
+        return latencyThresholdMs;
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * DECREASE_RATIO);
+    }
+}
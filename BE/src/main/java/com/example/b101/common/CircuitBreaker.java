@@ -0,0 +1,78 @@
+package com.example.b101.common;
+
+/**
+ * 연속 실패 기반 서킷 브레이커
+ *  - CLOSED    : 정상, 연속 실패가 failureThreshold번이 되면 OPEN
+ *  - OPEN      : openMs 동안 모든 요청을 바로 거절
+ *  - HALF_OPEN : openMs가 지나면 시험 요청 하나만 보내고, 성공하면 CLOSED / 실패하면 다시 OPEN
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMs;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, long openMs) {
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMs) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        trialInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    //결과를 모르고 끝난 경우 (취소) → 시험 요청이었다면 다음 요청이 다시 시험하도록 풀어 줌
+    public synchronized void onIgnored() {
+        trialInFlight = false;
+    }
+
+    //OPEN이 풀릴 때까지 남은 시간 (OPEN이 아니면 0)
+    public synchronized long remainingOpenMs() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, openMs - (System.currentTimeMillis() - openedAt));
+    }
+
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && System.currentTimeMillis() - openedAt < openMs;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
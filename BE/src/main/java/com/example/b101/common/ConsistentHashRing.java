@@ -0,0 +1,71 @@
+package com.example.b101.common;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * 일관된 해싱(consistent hashing) 링
+ *
+ * 노드마다 가상 노드를 여러 개 링에 올려 두고, 키의 해시 위치에서 시계 방향으로 만나는 노드 순서를 선호 순서로 씀.
+ * 노드가 추가/제거되어도 대부분의 키는 같은 노드로 계속 배정됨.
+ * 한 번 만들면 바뀌지 않으므로 여러 스레드에서 같이 써도 됨.
+ */
+public final class ConsistentHashRing<T> {
+
+    private final TreeMap<Long, T> ring = new TreeMap<>();
+    private final int nodeCount;
+
+    public ConsistentHashRing(List<T> nodes, Function<T, String> nodeKey, int virtualNodes) {
+        for (T node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(nodeKey.apply(node) + "#" + i), node);
+            }
+        }
+        this.nodeCount = nodes.size();
+    }
+
+    //키에 대한 노드 선호 순서 (첫 번째가 기본 배정 노드, 나머지는 넘칠 때 순서대로 사용)
+    public List<T> preferenceList(String key) {
+        Set<T> ordered = new LinkedHashSet<>();
+        if (ring.isEmpty()) {
+            return List.of();
+        }
+
+        long position = hash(key);
+        for (Map.Entry<Long, T> entry : ring.tailMap(position, true).entrySet()) {
+            ordered.add(entry.getValue());
+            if (ordered.size() == nodeCount) {
+                return new ArrayList<>(ordered);
+            }
+        }
+        for (Map.Entry<Long, T> entry : ring.headMap(position, false).entrySet()) {
+            ordered.add(entry.getValue());
+            if (ordered.size() == nodeCount) {
+                break;
+            }
+        }
+        return new ArrayList<>(ordered);
+    }
+
+    //MD5 앞 8바이트를 링 위치로 사용 (String.hashCode는 비슷한 키가 몰려서 쓰지 않음)
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (digest[i] & 0xFF);
+            }
+            return value;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
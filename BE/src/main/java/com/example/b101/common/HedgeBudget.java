@@ -0,0 +1,31 @@
+package com.example.b101.common;
+
+/**
+ * 헤지(중복) 요청 예산
+ *
+ * 요청 하나마다 ratio만큼 적립하고 헤지 요청 하나에 1을 씀 → 헤지 요청은 전체 요청의 ratio 비율을 넘지 않음.
+ * 한가할 때 너무 많이 쌓이지 않도록 적립 상한(maxCredits)을 둠.
+ */
+public final class HedgeBudget {
+
+    private final double ratio;
+    private final double maxCredits;
+    private double credits;
+
+    public HedgeBudget(double ratio, double maxCredits) {
+        this.ratio = ratio;
+        this.maxCredits = maxCredits;
+    }
+
+    public synchronized void onRequest() {
+        credits = Math.min(maxCredits, credits + ratio);
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (credits < 1) {
+            return false;
+        }
+        credits -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.b101.common;
+
+import java.util.Arrays;
+
+/**
+ * 최근 N개 값으로 백분위수를 구하는 슬라이딩 윈도우
+ *
+ * 이미지 생성처럼 초당 호출 수가 적은 곳에서 쓰는 용도라 조회할 때마다 복사 후 정렬함.
+ */
+public final class SlidingPercentile {
+
+    private final long[] samples;
+    private final int minSamples;
+    private int next;
+    private int count;
+
+    public SlidingPercentile(int windowSize, int minSamples) {
+        this.samples = new long[windowSize];
+        this.minSamples = minSamples;
+    }
+
+    public synchronized void record(long value) {
+        samples[next] = value;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    //q(0~1) 백분위수, 값이 minSamples개보다 적으면 -1
+    public long percentile(double q) {
+        long[] sorted;
+        synchronized (this) {
+            if (count < minSamples) {
+                return -1;
+            }
+            sorted = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
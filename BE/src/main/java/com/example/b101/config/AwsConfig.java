@@ -7,6 +7,7 @@ import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
@@ -56,5 +57,13 @@ public class AwsConfig {
                 .credentialsProvider(staticCredentialsProvider)
                 .build();
     }
-}
 
+    //책 이미지 업로드용 비동기 클라이언트 (업로드 동안 스레드를 잡지 않음)
+    @Bean(destroyMethod = "close")
+    public S3AsyncClient s3AsyncClient(StaticCredentialsProvider staticCredentialsProvider) {
+        return S3AsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(staticCredentialsProvider)
+                .build();
+    }
+}
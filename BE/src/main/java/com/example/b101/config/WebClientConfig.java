@@ -9,6 +9,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
 import java.util.ArrayList;
@@ -29,6 +30,9 @@ public class WebClientConfig {
     @Value("${python.image.service.url:http://localhost:8190}")
     private String pythonImageServiceUrl;
 
+    @Value("${python.image.service.max-connections:200}")
+    private int pythonImageServiceMaxConnections;
+
     @Value("${WEBCLIENT.BASE.URL_0}")
     private String baseUrl0;
 
@@ -124,14 +128,32 @@ public class WebClientConfig {
         return geminiApiKey;
     }
     
-    @Bean
-    public WebClient pythonImageServiceClient(WebClient.Builder builder) {
-        // Python 이미지 생성 서비스 전용 WebClient
+    // Python 이미지 생성 서비스 전용 WebClient (ImageBackendBalancer가 이미지 백엔드마다 하나씩 만듦)
+    public WebClient imageServiceClient(WebClient.Builder builder, String baseUrl) {
+        // 이미지 생성은 수십 초씩 걸리므로 연결 풀이 모자라 대기하더라도 응답 제한 시간만큼은 기다림
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("python-image-service")
+                .maxConnections(pythonImageServiceMaxConnections)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(Duration.ofMinutes(5))
+                .build();
+
         return builder
-                .baseUrl(pythonImageServiceUrl)
+                .baseUrl(baseUrl)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024)) // 10MB for cover images
-                .clientConnector(new ReactorClientHttpConnector(HttpClient.create().responseTimeout(Duration.ofMinutes(5))))
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider).responseTimeout(Duration.ofMinutes(5))))
                 .build();
     }
+
+    // 이미지 백엔드 주소 목록: Python 이미지 서비스 + 설정된 WEBCLIENT.BASE.URL_0~8 (미설정 값 "0"은 제외)
+    public List<String> getImageBackendUrls() {
+        List<String> urls = new ArrayList<>();
+        urls.add(pythonImageServiceUrl);
+        for (String url : List.of(baseUrl0, baseUrl1, baseUrl2, baseUrl3, baseUrl4, baseUrl5, baseUrl6, baseUrl7, baseUrl8)) {
+            if (url != null && !url.isBlank() && !url.equals("0") && !urls.contains(url)) {
+                urls.add(url);
+            }
+        }
+        return urls;
+    }
 }
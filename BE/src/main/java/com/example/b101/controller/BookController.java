@@ -24,6 +24,12 @@ public class BookController {
     }
 
 
+    @GetMapping("/builds/{bookId}")
+    public ResponseEntity<?> findBuild(@PathVariable String bookId, HttpServletRequest request) {
+        return bookService.getBookBuild(bookId, request);
+    }
+
+
     @GetMapping("/top3")
     public ResponseEntity<?> findBook1to3(HttpServletRequest request) {
         return bookService.findBook1to3(request);
@@ -9,6 +9,7 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 @Slf4j
 @RestController
@@ -30,10 +31,14 @@ public class GameController{
         return gameService.createGame(gameRequest, request);
     }
 
-    //게임 삭제
+    //게임 삭제 (정상 종료면 책이 만들어질 때까지 기다렸다가 응답, 기다리는 동안 요청 스레드를 잡지 않음)
+    //Prefer: respond-async 헤더가 있으면 책 만들기만 시작하고 bookId를 바로 반환 (202)
     @DeleteMapping
-    public ResponseEntity<?> deleteGame(@RequestBody DeleteGameRequest deleteGameRequest, HttpServletRequest request) {
-        return gameService.finishGame(deleteGameRequest,request);
+    public Mono<ResponseEntity<?>> deleteGame(@RequestBody DeleteGameRequest deleteGameRequest,
+                                        @RequestHeader(value = "Prefer", required = false) String prefer,
+                                        HttpServletRequest request) {
+        boolean respondAsync = prefer != null && prefer.contains("respond-async");
+        return gameService.finishGame(deleteGameRequest, respondAsync, request);
     }
 
     //엔딩 카드 리롤
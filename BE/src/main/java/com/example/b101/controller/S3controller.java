@@ -2,6 +2,7 @@ package com.example.b101.controller;
 
 import com.example.b101.service.S3service;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -27,10 +28,11 @@ public class S3controller {
 
     // 3) download
     // imageUrl 세부 조정은 나중에...
+    // 본문은 response로 바로 스트리밍 (ETag/Range/304 지원)
     @GetMapping("/downloadFromS3")
-    public  ResponseEntity<?> downloadFromS3(@RequestParam String objectKey, HttpServletRequest request) {
+    public  ResponseEntity<?> downloadFromS3(@RequestParam String objectKey, HttpServletRequest request, HttpServletResponse response) {
 
-        return s3service.downloadFromS3(objectKey, request);
+        return s3service.downloadFromS3(objectKey, request, response);
     }
 }
 
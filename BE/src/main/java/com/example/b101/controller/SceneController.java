@@ -4,12 +4,17 @@ import com.example.b101.dto.DeleteSceneRequest;
 import com.example.b101.dto.FilteringRequest;
 import com.example.b101.dto.SceneRequest;
 import com.example.b101.service.FilteringService;
+import com.example.b101.service.GameEventPublisher;
 import com.example.b101.service.SceneService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Mono;
 
 @Slf4j
 @RestController
@@ -19,14 +24,41 @@ public class SceneController {
 
     private final SceneService sceneService;
     private final FilteringService filteringService;
+    private final GameEventPublisher gameEventPublisher;
 
     
-    //카드로 이미지 생성
+    //카드로 이미지 생성 (이미지가 생성될 때까지 요청 스레드를 잡지 않음)
+    //Prefer: respond-async 헤더가 있으면 작업만 등록하고 작업 id를 바로 반환 (202)
     @PostMapping
-    public ResponseEntity<?> addSceneByCard(@RequestBody SceneRequest sceneRequest, HttpServletRequest request) {
+    public Mono<ResponseEntity<?>> addSceneByCard(@RequestBody SceneRequest sceneRequest,
+                                                  @RequestHeader(value = "Prefer", required = false) String prefer,
+                                                  HttpServletRequest request) {
+        if (prefer != null && prefer.contains("respond-async")) {
+            return Mono.just(sceneService.enqueueScene(sceneRequest, request));
+        }
         return sceneService.createScene(sceneRequest, request);
     }
 
+    //이미지 생성 작업 상태 조회
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getSceneJob(@PathVariable String jobId, HttpServletRequest request) {
+        return sceneService.getSceneJob(jobId, request);
+    }
+
+    //게임의 이미지 생성 작업 진행/완료 이벤트 구독 (SSE, 이벤트 이름: scene-job)
+    @GetMapping(value = "/events/{gameId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeSceneEvents(@PathVariable String gameId, HttpServletResponse response) {
+        // nginx가 이벤트를 모아서 보내지 않도록 버퍼링 끔
+        response.setHeader("X-Accel-Buffering", "no");
+        return gameEventPublisher.subscribe(gameId);
+    }
+
+    //생성된 scene 이미지 조회 (작업 완료 이벤트의 imageUrl)
+    @GetMapping("/{sceneId}/image")
+    public ResponseEntity<?> getSceneImage(@PathVariable String sceneId, HttpServletRequest request) {
+        return sceneService.getSceneImage(sceneId, request);
+    }
+
     //프롬포트 필터링
     @PostMapping("/filtering")
     public ResponseEntity<?> filterPrompt(@RequestBody FilteringRequest filteringRequest, HttpServletRequest request) {
@@ -0,0 +1,42 @@
+package com.example.b101.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+//Redis 스크립트로 처리한 카드 연산(교환, 새로고침, 결말카드 리롤, 카드 사용) 결과
+@Getter
+@AllArgsConstructor
+public class CardOperationResult {
+
+    //순서가 스크립트의 반환 코드와 일치해야 함 (resources/scripts/game/*.lua)
+    public enum Status {
+        OK,
+        GAME_NOT_FOUND,
+        PLAYER_NOT_FOUND,
+        NO_REMAINING_COUNT,
+        CARD_NOT_OWNED,
+        NO_AVAILABLE_CARD,
+        DECK_NOT_FOUND     // 결말카드 덱이 저장되지 않은 게임 (GameRepoImpl에서 덱을 저장하고 다시 실행)
+    }
+
+    private Status status;
+
+    private int cardId;         // 새로 받은 카드 id (교환, 새로고침, 결말카드 리롤)
+
+    private int remainingCount; // 남은 교환/새로고침 횟수
+
+    public boolean isSuccess() {
+        return status == Status.OK;
+    }
+
+    //스크립트 반환값 {상태코드, cardId, remainingCount}
+    public static CardOperationResult from(List<?> reply) {
+        Status status = Status.values()[((Number) reply.get(0)).intValue()];
+        int cardId = reply.size() > 1 ? ((Number) reply.get(1)).intValue() : 0;
+        int remainingCount = reply.size() > 2 ? ((Number) reply.get(2)).intValue() : 0;
+
+        return new CardOperationResult(status, cardId, remainingCount);
+    }
+}
@@ -12,4 +12,6 @@ public class FinishGameResponse {
     String title;
 
     String bookCover;
+
+    String state; //책 만들기 진행 상태 (BUILDING → READY | FAILED), 완료 전에는 title/bookCover가 비어 있음
 }
@@ -11,6 +11,11 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class RetryNotificationRequest {
 
+    /**
+     * 알림을 받을 게임 id (이 게임의 SSE 구독자에게 전달)
+     */
+    private String gameId;
+
     /**
      * 사용자에게 표시할 메시지
      * 예: "부적절한 이미지가 나왔어요!\n다시 그려볼게요!"
@@ -0,0 +1,59 @@
+package com.example.b101.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 책 이미지 업로드 결과 (페이지별)
+ *  - STORED  : 저장됨
+ *  - FAILED  : 재시도까지 실패 (다시 시도하면 복구될 수 있음)
+ *  - MISSING : 올릴 원본 이미지가 없음 (Redis TTL 만료 등, 다시 시도해도 복구 불가)
+ */
+@Data
+@AllArgsConstructor
+public class UploadManifest {
+
+    public enum Status {
+        STORED, FAILED, MISSING
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Page {
+        private int page;
+        private String key;
+        private Status status;
+        private int attempts;
+        private String error;
+    }
+
+    private List<Page> pages;
+
+    //모든 페이지가 저장됨
+    public boolean isComplete() {
+        return pages.stream().allMatch(page -> page.getStatus() == Status.STORED);
+    }
+
+    public boolean hasMissing() {
+        return pages.stream().anyMatch(page -> page.getStatus() == Status.MISSING);
+    }
+
+    public Set<Integer> storedPages() {
+        return pages.stream()
+                .filter(page -> page.getStatus() == Status.STORED)
+                .map(Page::getPage)
+                .collect(Collectors.toSet());
+    }
+
+    public List<Integer> pagesWith(Status status) {
+        return pages.stream()
+                .filter(page -> page.getStatus() == status)
+                .map(Page::getPage)
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.b101.repository;
+
+import com.example.b101.cache.BookBuild;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 책 만들기 진행 상태 저장
+ *
+ *  book-build:{bookId}          (Hash)   state, stage, gameId, title, bookCover, error, attempts ...
+ *  book-build:game:{gameId}     (String) 게임에 배정된 bookId (종료 요청이 중복으로 와도 한 권만 만듦)
+ *  book-build:building          (Set)    진행 중인 bookId (재시작 후 이어서 진행할 대상)
+ *  book-build:lease:{bookId}    (String) 진행 중인 인스턴스 lease
+ *  book-build:pages:{bookId}    (Set)    S3에 저장이 끝난 scene 번호 (재시도 시 나머지 페이지만 업로드)
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookBuildRepoImpl implements BookBuildRepository {
+
+    private static final String KEY_PREFIX = "book-build:";
+    private static final String GAME_PREFIX = "book-build:game:";
+    private static final String LEASE_PREFIX = "book-build:lease:";
+    private static final String PAGES_PREFIX = "book-build:pages:";
+    private static final String BUILDING_KEY = "book-build:building";
+    private static final long TTL_HOURS = 24;
+
+    private static final RedisScript<Long> RENEW_SCRIPT = script("renew_lease");
+    private static final RedisScript<Long> RELEASE_SCRIPT = script("release_lease");
+    private static final RedisScript<Long> SAVE_IF_LEASE_SCRIPT = script("save_if_lease");
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private static RedisScript<Long> script(String name) {
+        return RedisScript.of(new ClassPathResource("scripts/book/" + name + ".lua"), Long.class);
+    }
+
+    @Override
+    public String claimGame(String gameId, String bookId) {
+        String key = GAME_PREFIX + gameId;
+        if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(key, bookId, TTL_HOURS, TimeUnit.HOURS))) {
+            return null;
+        }
+        return stringRedisTemplate.opsForValue().get(key);
+    }
+
+    @Override
+    public void save(BookBuild bookBuild) {
+        String key = KEY_PREFIX + bookBuild.getBookId();
+
+        stringRedisTemplate.opsForHash().putAll(key, toFields(bookBuild));
+        stringRedisTemplate.expire(key, TTL_HOURS, TimeUnit.HOURS);
+
+        if (bookBuild.getState() == BookBuild.State.BUILDING) {
+            stringRedisTemplate.opsForSet().add(BUILDING_KEY, bookBuild.getBookId());
+        } else {
+            stringRedisTemplate.opsForSet().remove(BUILDING_KEY, bookBuild.getBookId());
+        }
+    }
+
+    @Override
+    public boolean saveIfLeaseHeld(BookBuild bookBuild, String leaseValue) {
+        List<String> args = new ArrayList<>();
+        args.add(leaseValue);
+        args.add(String.valueOf(TimeUnit.HOURS.toSeconds(TTL_HOURS)));
+        args.add(bookBuild.getBookId());
+        args.add(bookBuild.getState() == BookBuild.State.BUILDING ? "1" : "0");
+        toFields(bookBuild).forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+
+        Long result = stringRedisTemplate.execute(SAVE_IF_LEASE_SCRIPT,
+                List.of(LEASE_PREFIX + bookBuild.getBookId(), KEY_PREFIX + bookBuild.getBookId(), BUILDING_KEY), args.toArray());
+        return result != null && result == 1L;
+    }
+
+    private static Map<String, String> toFields(BookBuild bookBuild) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("gameId", bookBuild.getGameId());
+        fields.put("state", bookBuild.getState().name());
+        fields.put("stage", bookBuild.getStage().name());
+        fields.put("drawingStyle", String.valueOf(bookBuild.getDrawingStyle()));
+        fields.put("baseUrl", nullToEmpty(bookBuild.getBaseUrl()));
+        fields.put("title", nullToEmpty(bookBuild.getTitle()));
+        fields.put("scenesUploaded", String.valueOf(bookBuild.isScenesUploaded()));
+        fields.put("coverUploaded", String.valueOf(bookBuild.isCoverUploaded()));
+        fields.put("bookCover", nullToEmpty(bookBuild.getBookCover()));
+        fields.put("error", nullToEmpty(bookBuild.getError()));
+        fields.put("attempts", String.valueOf(bookBuild.getAttempts()));
+        fields.put("createdAt", String.valueOf(bookBuild.getCreatedAt()));
+        fields.put("updatedAt", String.valueOf(bookBuild.getUpdatedAt()));
+        return fields;
+    }
+
+    @Override
+    public BookBuild findById(String bookId) {
+        Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(KEY_PREFIX + bookId);
+        if (fields.isEmpty()) {
+            return null;
+        }
+
+        return BookBuild.builder()
+                .bookId(bookId)
+                .gameId((String) fields.get("gameId"))
+                .state(BookBuild.State.valueOf((String) fields.get("state")))
+                .stage(BookBuild.Stage.valueOf((String) fields.get("stage")))
+                .drawingStyle(Integer.parseInt((String) fields.get("drawingStyle")))
+                .baseUrl(emptyToNull((String) fields.get("baseUrl")))
+                .title(emptyToNull((String) fields.get("title")))
+                .scenesUploaded(Boolean.parseBoolean((String) fields.get("scenesUploaded")))
+                .coverUploaded(Boolean.parseBoolean((String) fields.get("coverUploaded")))
+                .bookCover(emptyToNull((String) fields.get("bookCover")))
+                .error(emptyToNull((String) fields.get("error")))
+                .attempts(Integer.parseInt((String) fields.get("attempts")))
+                .createdAt(Long.parseLong((String) fields.get("createdAt")))
+                .updatedAt(Long.parseLong((String) fields.get("updatedAt")))
+                .build();
+    }
+
+    @Override
+    public Set<String> findBuildingIds() {
+        Set<String> ids = stringRedisTemplate.opsForSet().members(BUILDING_KEY);
+        return ids != null ? ids : Set.of();
+    }
+
+    @Override
+    public void removeBuilding(String bookId) {
+        stringRedisTemplate.opsForSet().remove(BUILDING_KEY, bookId);
+    }
+
+    @Override
+    public boolean acquireLease(String bookId, String value, Duration lease) {
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(LEASE_PREFIX + bookId, value, lease));
+    }
+
+    @Override
+    public boolean renewLease(String bookId, String value, Duration lease) {
+        Long result = stringRedisTemplate.execute(RENEW_SCRIPT, List.of(LEASE_PREFIX + bookId), value, String.valueOf(lease.toMillis()));
+        return result != null && result == 1L;
+    }
+
+    @Override
+    public boolean holdsLease(String bookId, String value) {
+        return value.equals(stringRedisTemplate.opsForValue().get(LEASE_PREFIX + bookId));
+    }
+
+    @Override
+    public void releaseLease(String bookId, String value) {
+        stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(LEASE_PREFIX + bookId), value);
+    }
+
+    @Override
+    public void addStoredPages(String bookId, Set<Integer> pages) {
+        if (pages.isEmpty()) {
+            return;
+        }
+        String key = PAGES_PREFIX + bookId;
+        stringRedisTemplate.opsForSet().add(key, pages.stream().map(String::valueOf).toArray(String[]::new));
+        stringRedisTemplate.expire(key, TTL_HOURS, TimeUnit.HOURS);
+    }
+
+    @Override
+    public Set<Integer> findStoredPages(String bookId) {
+        Set<String> pages = stringRedisTemplate.opsForSet().members(PAGES_PREFIX + bookId);
+        if (pages == null) {
+            return Set.of();
+        }
+        return pages.stream().map(Integer::parseInt).collect(Collectors.toSet());
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.b101.repository;
+
+import com.example.b101.cache.BookBuild;
+
+import java.time.Duration;
+import java.util.Set;
+
+public interface BookBuildRepository {
+
+    String claimGame(String gameId, String bookId); //게임에 bookId를 배정, 이미 배정된 게임이면 기존 bookId 반환 (처음이면 null)
+
+    void save(BookBuild bookBuild); //진행 중이면 재개 대상 목록에도 넣음
+
+    boolean saveIfLeaseHeld(BookBuild bookBuild, String leaseValue); //save와 같지만 lease가 아직 내 것일 때만 저장
+
+    BookBuild findById(String bookId);
+
+    Set<String> findBuildingIds(); //재개 대상 (진행 중인 bookId)
+
+    void removeBuilding(String bookId); //상태가 사라진 bookId를 재개 대상에서 뺌
+
+    void addStoredPages(String bookId, Set<Integer> pages); //S3에 저장된 scene 번호 기록
+
+    Set<Integer> findStoredPages(String bookId);
+
+    boolean acquireLease(String bookId, String value, Duration lease); //한 인스턴스만 진행하도록 lease 획득
+
+    boolean renewLease(String bookId, String value, Duration lease);
+
+    boolean holdsLease(String bookId, String value); //lease가 아직 내 것인지
+
+    void releaseLease(String bookId, String value);
+}
@@ -1,49 +1,264 @@
 package com.example.b101.repository;
 
+import com.example.b101.cache.CardCatalog;
 import com.example.b101.cache.Game;
 import com.example.b101.domain.PlayerStatus;
+import com.example.b101.domain.StoryCard;
+import com.example.b101.dto.CardOperationResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+/**
+ * 게임 상태를 플레이어별 필드로 나눠서 관리
+ *
+ *  game:{gameId}  (Hash) drawingStyle, players(userId 목록), endingDeck, endingCursor,
+ *                        p:{userId}:cards / ending / refresh / exchange
+ *
+ * 결말카드 덱은 게임 시작 때 섞은 id 목록(endingDeck)을 저장하고 리롤은 커서(endingCursor)만 증가시킴.
+ * (카드 카탈로그가 게임 도중 다시 로드되어도 덱 순서가 바뀌지 않음)
+ *
+ * 카드는 id만 저장하고 조회할 때 CardCatalog의 카드 정보로 채워줌.
+ * 교환/새로고침/리롤/카드 사용은 Lua 스크립트로 한 번에 처리되어 동시에 요청이 와도 서로 덮어쓰지 않음.
+ */
+@Slf4j
 @Repository
 public class GameRepoImpl implements GameRepository {
 
-    private static final String KEY = "game";
+    private static final String KEY_PREFIX = "game:";
+    private static final String LEGACY_KEY = "game"; // Game 객체를 통째로 저장하던 이전 hash
+    private static final long TTL_MINUTES = 30;
+    private static final String TTL_SECONDS = String.valueOf(TimeUnit.MINUTES.toSeconds(TTL_MINUTES));
 
-    private final RedisTemplate<String, Game> redisTemplate;
+    private static final RedisScript<List> EXCHANGE_SCRIPT = script("exchange_story_card");
+    private static final RedisScript<List> REFRESH_SCRIPT = script("refresh_story_card");
+    private static final RedisScript<List> DRAW_ENDING_SCRIPT = script("draw_ending_card");
+    private static final RedisScript<List> CONSUME_SCRIPT = script("consume_story_card");
+    private static final RedisScript<Long> MIGRATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/game/migrate_legacy.lua"), Long.class);
 
-    public GameRepoImpl(RedisTemplate<String, Game> redisTemplate) {
-        this.redisTemplate = redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisTemplate<String, Game> legacyRedisTemplate;
+    private final CardCatalog cardCatalog;
+
+    public GameRepoImpl(StringRedisTemplate stringRedisTemplate,
+                        @Qualifier("gameRedisTemplate") RedisTemplate<String, Game> legacyRedisTemplate,
+                        CardCatalog cardCatalog) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.legacyRedisTemplate = legacyRedisTemplate;
+        this.cardCatalog = cardCatalog;
+    }
+
+    private static RedisScript<List> script(String name) {
+        return RedisScript.of(new ClassPathResource("scripts/game/" + name + ".lua"), List.class);
+    }
+
+    private static String gameKey(String gameId) {
+        return KEY_PREFIX + gameId;
+    }
+
+    private static String playerField(String userId, String name) {
+        return "p:" + userId + ":" + name;
     }
 
     @Override
     public void save(Game game) {
-        redisTemplate.opsForHash().put(KEY, game.getGameId(), game);
+        stringRedisTemplate.opsForHash().putAll(gameKey(game.getGameId()), toFields(game));
 
         // Key에 TTL 설정
-        redisTemplate.expire(KEY, 30, TimeUnit.MINUTES );
+        stringRedisTemplate.expire(gameKey(game.getGameId()), TTL_MINUTES, TimeUnit.MINUTES);
     }
 
-    @Override
-    public void delete(Game game) {
-        redisTemplate.opsForHash().delete(KEY, game.getGameId());
+    private static Map<String, String> toFields(Game game) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("drawingStyle", String.valueOf(game.getDrawingStyle()));
+        fields.put("players", game.getPlayerStatuses().stream().map(PlayerStatus::getUserId).collect(Collectors.joining(",")));
+        if (game.getEndingDeck() != null && !game.getEndingDeck().isEmpty()) {
+            fields.put("endingDeck", joinIds(game.getEndingDeck()));
+        }
+        fields.put("endingCursor", String.valueOf(game.getEndingCursor()));
+
+        for (PlayerStatus playerStatus : game.getPlayerStatuses()) {
+            String userId = playerStatus.getUserId();
+            fields.put(playerField(userId, "cards"), joinIds(playerStatus.getStoryCards().stream().map(StoryCard::getId).toList()));
+            fields.put(playerField(userId, "ending"), String.valueOf(playerStatus.getEndingCard().getId()));
+            fields.put(playerField(userId, "refresh"), String.valueOf(playerStatus.getRefreshCount()));
+            fields.put(playerField(userId, "exchange"), String.valueOf(playerStatus.getExchangeCount()));
+        }
+        return fields;
     }
 
     @Override
-    public void update(Game game) {
-        redisTemplate.opsForHash().put(KEY, game.getGameId(), game);
+    public void delete(Game game) {
+        stringRedisTemplate.delete(gameKey(game.getGameId()));
     }
 
     @Override
     public Game findById(String id) {
-        return (Game) redisTemplate.opsForHash().get(KEY,id);
+        Map<String, String> fields = stringRedisTemplate.<String, String>opsForHash().entries(gameKey(id));
+
+        if (fields.isEmpty()) {
+            return migrateLegacy(id);
+        }
+
+        List<PlayerStatus> playerStatuses = new ArrayList<>();
+        for (String userId : splitIds(fields.get("players"))) {
+            playerStatuses.add(toPlayerStatus(userId,
+                    fields.get(playerField(userId, "cards")),
+                    fields.get(playerField(userId, "ending")),
+                    fields.get(playerField(userId, "refresh")),
+                    fields.get(playerField(userId, "exchange"))));
+        }
+
+        return Game.builder()
+                .gameId(id)
+                .endingDeck(splitIds(fields.get("endingDeck")).stream().map(Integer::parseInt).toList())
+                .endingCursor(Integer.parseInt(fields.get("endingCursor")))
+                .playerStatuses(playerStatuses)
+                .drawingStyle(Integer.parseInt(fields.get("drawingStyle")))
+                .build();
     }
 
+    @Override
     public PlayerStatus getPlayerStatus(String gameId, String playerId) {
-        Game game = findById(gameId);
+        List<Object> values = stringRedisTemplate.opsForHash().multiGet(gameKey(gameId), List.of(
+                playerField(playerId, "cards"),
+                playerField(playerId, "ending"),
+                playerField(playerId, "refresh"),
+                playerField(playerId, "exchange")));
+
+        if (values.get(0) == null) {
+            Game legacy = migrateLegacy(gameId);
+            return legacy == null ? null : legacy.getPlayerStatuses().stream()
+                    .filter(playerStatus -> playerStatus.getUserId().equals(playerId))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        return toPlayerStatus(playerId, (String) values.get(0), (String) values.get(1), (String) values.get(2), (String) values.get(3));
+    }
+
+    @Override
+    public CardOperationResult exchangeStoryCard(String gameId, String fromUserId, int fromCardId, String toUserId, int toCardId) {
+        return execute(EXCHANGE_SCRIPT, gameId, List.of(gameKey(gameId)),
+                fromUserId, String.valueOf(fromCardId), toUserId, String.valueOf(toCardId));
+    }
+
+    @Override
+    public CardOperationResult refreshStoryCard(String gameId, String userId, int cardId, List<Integer> candidateCardIds) {
+        List<String> args = new ArrayList<>();
+        args.add(userId);
+        args.add(String.valueOf(cardId));
+        candidateCardIds.forEach(candidate -> args.add(String.valueOf(candidate)));
+
+        return execute(REFRESH_SCRIPT, gameId, List.of(gameKey(gameId)), args.toArray(String[]::new));
+    }
+
+    @Override
+    public CardOperationResult drawEndingCard(String gameId, String userId) {
+        CardOperationResult result = execute(DRAW_ENDING_SCRIPT, gameId, List.of(gameKey(gameId)), userId);
+
+        // 덱을 저장하기 전에 시작된 게임이면 덱을 한 번 저장한 뒤 다시 실행
+        if (result.getStatus() == CardOperationResult.Status.DECK_NOT_FOUND) {
+            storeEndingDeck(gameId);
+            result = execute(DRAW_ENDING_SCRIPT, gameId, List.of(gameKey(gameId)), userId);
+        }
+        return result;
+    }
+
+    // 시드만 저장된 게임은 같은 시드로 덱을 만들고, 시드도 없으면 새로 섞음 (이미 저장된 덱은 덮어쓰지 않음)
+    private void storeEndingDeck(String gameId) {
+        String seed = stringRedisTemplate.<String, String>opsForHash().get(gameKey(gameId), "endingSeed");
+        List<Integer> deck = seed != null ? cardCatalog.endingDeckFromSeed(Long.parseLong(seed)) : cardCatalog.newEndingDeck();
+
+        stringRedisTemplate.opsForHash().putIfAbsent(gameKey(gameId), "endingDeck", joinIds(deck));
+        stringRedisTemplate.expire(gameKey(gameId), TTL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public CardOperationResult consumeStoryCard(String gameId, String userId, int cardId) {
+        return execute(CONSUME_SCRIPT, gameId, List.of(gameKey(gameId)), userId, String.valueOf(cardId));
+    }
+
+    private CardOperationResult execute(RedisScript<List> script, String gameId, List<String> keys, String... args) {
+        Object[] scriptArgs = new Object[args.length + 1];
+        scriptArgs[0] = TTL_SECONDS;
+        System.arraycopy(args, 0, scriptArgs, 1, args.length);
+
+        CardOperationResult result = CardOperationResult.from(stringRedisTemplate.execute(script, keys, scriptArgs));
+
+        // 배포 전에 만들어진 게임이면 새 구조로 옮긴 뒤 한 번만 다시 실행
+        if (result.getStatus() == CardOperationResult.Status.GAME_NOT_FOUND && migrateLegacy(gameId) != null) {
+            result = CardOperationResult.from(stringRedisTemplate.execute(script, keys, scriptArgs));
+        }
+
+        return result;
+    }
+
+    // 이전 "game" hash에 Game 객체로 저장된 게임을 새 구조로 옮김
+    // 새 key 쓰기와 이전 값 삭제를 스크립트 하나로 처리해서 그 사이에 들어온 요청이 게임을 못 찾는 일이 없게 함
+    private Game migrateLegacy(String gameId) {
+        Game legacy = (Game) legacyRedisTemplate.opsForHash().get(LEGACY_KEY, gameId);
+        if (legacy == null) {
+            return null;
+        }
+
+        // 이전 구조에는 결말카드 덱이 없으므로 새로 섞음 (플레이어가 들고 있는 카드는 리롤 때 건너뜀)
+        if (legacy.getEndingDeck() == null || legacy.getEndingDeck().isEmpty()) {
+            legacy.setEndingDeck(cardCatalog.newEndingDeck());
+        }
+
+        List<String> args = new ArrayList<>();
+        args.add(gameId);
+        args.add(TTL_SECONDS);
+        toFields(legacy).forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+
+        Long migrated = stringRedisTemplate.execute(MIGRATE_SCRIPT, List.of(LEGACY_KEY, gameKey(gameId)), args.toArray());
+        if (migrated != null && migrated == 1L) {
+            log.info("[migrateLegacy] 이전 구조의 게임을 옮김 - gameId: {}", gameId);
+            return legacy;
+        }
+
+        // 다른 요청이 먼저 옮긴 경우 새 구조에서 읽음
+        Map<String, String> fields = stringRedisTemplate.<String, String>opsForHash().entries(gameKey(gameId));
+        return fields.isEmpty() ? null : findById(gameId);
+    }
+
+    private PlayerStatus toPlayerStatus(String userId, String cards, String ending, String refresh, String exchange) {
+        return PlayerStatus.builder()
+                .userId(userId)
+                .storyCards(splitIds(cards).stream()
+                        .map(cardId -> cardCatalog.getStoryCard(Integer.parseInt(cardId)))
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .endingCard(cardCatalog.getEndingCard(Integer.parseInt(ending)))
+                .refreshCount(Integer.parseInt(refresh))
+                .exchangeCount(Integer.parseInt(exchange))
+                .build();
+    }
+
+    private static String joinIds(List<Integer> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
 
-        return game.getPlayerStatuses().stream().filter(playerStatus -> playerStatus.getUserId().equals(playerId)).findFirst().orElse(null);
+    private static List<String> splitIds(String value) {
+        if (value == null || value.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.asList(value.split(","));
     }
 }
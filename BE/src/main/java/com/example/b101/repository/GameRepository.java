@@ -2,6 +2,9 @@ package com.example.b101.repository;
 
 import com.example.b101.cache.Game;
 import com.example.b101.domain.PlayerStatus;
+import com.example.b101.dto.CardOperationResult;
+
+import java.util.List;
 
 public interface GameRepository {
 
@@ -9,10 +12,17 @@ public interface GameRepository {
 
     void delete(Game game);
 
-    void update(Game game);
-
     Game findById(String gameId);
 
     PlayerStatus getPlayerStatus(String gameId,String playerId);
 
+    //아래 카드 연산들은 Redis 스크립트로 한 번에 원자적으로 처리됨
+    CardOperationResult exchangeStoryCard(String gameId, String fromUserId, int fromCardId, String toUserId, int toCardId);
+
+    CardOperationResult refreshStoryCard(String gameId, String userId, int cardId, List<Integer> candidateCardIds);
+
+    CardOperationResult drawEndingCard(String gameId, String userId);
+
+    CardOperationResult consumeStoryCard(String gameId, String userId, int cardId);
+
 }
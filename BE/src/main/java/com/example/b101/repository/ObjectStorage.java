@@ -0,0 +1,24 @@
+package com.example.b101.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 책 이미지/staging 업로드 저장소 (ObjectUploader, S3service staging이 사용, 운영은 S3)
+ * 테스트에서는 파일시스템 구현으로 바꿔서 사용함
+ */
+public interface ObjectStorage {
+
+    CompletableFuture<Void> put(String key, byte[] data, String contentType); //같은 key가 있으면 덮어씀
+
+    CompletableFuture<Void> copy(String sourceKey, String targetKey); //저장소 안에서 복사 (staging → 책 경로)
+
+    CompletableFuture<Void> delete(Collection<String> keys); //없는 key는 무시
+
+    CompletableFuture<List<StoredObject>> list(String prefix); //prefix 아래 전체 객체 (staging 정리용)
+
+    record StoredObject(String key, Instant lastModified) {
+    }
+}
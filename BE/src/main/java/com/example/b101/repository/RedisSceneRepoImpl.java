@@ -1,87 +1,305 @@
 package com.example.b101.repository;
 
 import com.example.b101.cache.SceneRedis;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Repository;
 
-import java.util.Comparator;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * 게임별로 key를 분리해서 scene을 관리
+ *
+ *  scene:{gameId}                 (Hash)   sceneId -> SceneRedis (메타데이터만)
+ *  scene:{gameId}:order           (ZSet)   sceneId, score = sceneOrder
+ *  scene:{gameId}:image:{sceneId} (String) 이미지 raw bytes
+ *  scene:{gameId}:staged          (Set)    S3 staging 업로드가 끝난 sceneId
+ *  scene:owner:{sceneId}          (String) sceneId -> gameId (findById용 인덱스)
+ *
+ * scene을 저장할 때마다 게임의 모든 key TTL을 같이 연장하므로 마지막 턴 기준으로 만료됨.
+ *
+ * 하나의 global hash를 통째로 읽던 방식과 달리 조회/삭제 비용이 해당 게임의 scene 개수에만 비례함.
+ *
+ * 이전 배포의 "scene" hash("{gameId}:{sceneId}" -> 이미지 포함 JSON)에 남은 scene은 해당 게임을 처음 읽거나 쓸 때 새 구조로 옮김.
+ * 이전 hash가 만료되어 없어지면(마지막 이전 배포 저장 후 30분) EXISTS 한 번으로 끝남.
+ */
+@Slf4j
 @Repository
 public class RedisSceneRepoImpl implements RedisSceneRepository {
 
-    private static final String KEY = "scene"; // Redis Hash Key
+    private static final String KEY_PREFIX = "scene:";
+    private static final String OWNER_PREFIX = "scene:owner:";
+    private static final String LEGACY_KEY = "scene"; // 모든 게임의 scene을 field "{gameId}:{sceneId}"로 저장하던 이전 hash
+    private static final ObjectMapper LEGACY_MAPPER = new ObjectMapper();
+    private static final long TTL_MINUTES = 30;
 
     private final RedisTemplate<String, SceneRedis> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
 
-    public RedisSceneRepoImpl(RedisTemplate<String, SceneRedis> redisTemplate) {
+    public RedisSceneRepoImpl(@Qualifier("sceneRedisTemplate") RedisTemplate<String, SceneRedis> redisTemplate,
+                              StringRedisTemplate stringRedisTemplate,
+                              @Qualifier("binaryRedisTemplate") RedisTemplate<String, byte[]> binaryRedisTemplate) {
         this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.binaryRedisTemplate = binaryRedisTemplate;
+    }
+
+    private static String sceneKey(String gameId) {
+        return KEY_PREFIX + gameId;
+    }
+
+    private static String orderKey(String gameId) {
+        return KEY_PREFIX + gameId + ":order";
+    }
+
+    private static String imageKey(String gameId, String sceneId) {
+        return KEY_PREFIX + gameId + ":image:" + sceneId;
+    }
+
+    private static String stagedKey(String gameId) {
+        return KEY_PREFIX + gameId + ":staged";
+    }
+
+    private static String ownerKey(String sceneId) {
+        return OWNER_PREFIX + sceneId;
     }
 
     @Override
     public void save(SceneRedis sceneRedis) {
-        String hashKey = String.format("%s:%s", sceneRedis.getGameId(), sceneRedis.getId());
-        redisTemplate.opsForHash().put(KEY, hashKey, sceneRedis);
+        String gameId = sceneRedis.getGameId();
+        migrateLegacy(gameId);
 
-        redisTemplate.expire(KEY,30, TimeUnit.MINUTES);
+        write(sceneRedis);
+        touch(gameId);
+    }
+
+    private void write(SceneRedis sceneRedis) {
+        String gameId = sceneRedis.getGameId();
+
+        //이미지는 @JsonIgnore라 메타데이터 JSON에는 포함되지 않고 별도 key에 저장됨
+        if (sceneRedis.getImage() != null) {
+            binaryRedisTemplate.opsForValue().set(imageKey(gameId, sceneRedis.getId()), sceneRedis.getImage(), TTL_MINUTES, TimeUnit.MINUTES);
+        }
+
+        redisTemplate.opsForHash().put(sceneKey(gameId), sceneRedis.getId(), sceneRedis);
+        stringRedisTemplate.opsForZSet().add(orderKey(gameId), sceneRedis.getId(), sceneRedis.getSceneOrder());
+        stringRedisTemplate.opsForValue().set(ownerKey(sceneRedis.getId()), gameId, TTL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    //턴마다 게임의 scene key TTL을 함께 연장 (게임이 30분을 넘겨도 초반 scene의 owner 인덱스/이미지가 먼저 만료되지 않게)
+    private void touch(String gameId) {
+        Set<String> sceneIds = stringRedisTemplate.opsForZSet().range(orderKey(gameId), 0, -1);
+
+        List<String> keys = new ArrayList<>(List.of(sceneKey(gameId), orderKey(gameId), stagedKey(gameId)));
+        if (sceneIds != null) {
+            sceneIds.forEach(sceneId -> {
+                keys.add(ownerKey(sceneId));
+                keys.add(imageKey(gameId, sceneId)); //책을 만들 때 초반 scene 이미지도 남아 있어야 함
+            });
+        }
+
+        long seconds = TimeUnit.MINUTES.toSeconds(TTL_MINUTES);
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.keyCommands().expire(key.getBytes(StandardCharsets.UTF_8), seconds);
+            }
+            return null;
+        });
     }
 
     //redis에 저장된 scene 정보 삭제
     @Override
     public void delete(SceneRedis sceneRedis) {
-        String hashKey = String.format("%s:%s", sceneRedis.getGameId(), sceneRedis.getId());
-        redisTemplate.opsForHash().delete(KEY, hashKey);
+        String gameId = sceneRedis.getGameId();
+
+        redisTemplate.opsForHash().delete(sceneKey(gameId), sceneRedis.getId());
+        stringRedisTemplate.opsForZSet().remove(orderKey(gameId), sceneRedis.getId());
+        stringRedisTemplate.delete(ownerKey(sceneRedis.getId()));
+        binaryRedisTemplate.delete(imageKey(gameId, sceneRedis.getId()));
+        stringRedisTemplate.opsForHash().delete(LEGACY_KEY, gameId + ":" + sceneRedis.getId());
     }
 
 
     @Override
     public void deleteAllByGameId(String gameId) {
-        // Redis Hash에서 모든 엔트리를 가져옴
-        Map<Object, Object> entries = redisTemplate.opsForHash().entries(KEY);
+        migrateLegacy(gameId); // 이전 hash에 남은 scene도 같이 지워지도록 먼저 옮김
 
-        // 특정 gameId에 해당하는 모든 HashKey를 필터링합니다.
-        List<Object> keysToDelete = entries.keySet().stream()
-                .filter(hashKey -> hashKey.toString().startsWith(gameId + ":")) //startWith는 hashKey가 gameId: 로 시작하는 애들을 찾는다
-                .toList();
+        // 해당 게임의 sceneId들로 인덱스 key를 지우고, 게임 단위 key는 통째로 삭제
+        Set<String> sceneIds = stringRedisTemplate.opsForZSet().range(orderKey(gameId), 0, -1);
 
-        // 필터링된 HashKey들을 Redis에서 삭제합니다.
-        for (Object hashKey : keysToDelete) {
-            redisTemplate.opsForHash().delete(KEY, hashKey);
+        if (sceneIds != null && !sceneIds.isEmpty()) {
+            stringRedisTemplate.delete(sceneIds.stream().map(RedisSceneRepoImpl::ownerKey).toList());
+            binaryRedisTemplate.delete(sceneIds.stream().map(sceneId -> imageKey(gameId, sceneId)).toList());
         }
+
+        redisTemplate.delete(sceneKey(gameId));
+        stringRedisTemplate.delete(List.of(orderKey(gameId), stagedKey(gameId)));
     }
 
 
 
     @Override
     public SceneRedis findById(String id) {
-        // Redis Hash에서 모든 엔트리를 가져옴
-        Map<Object, Object> entries = redisTemplate.opsForHash().entries(KEY);
-
-        // HashKey를 순회하여 ID가 일치하는 데이터 찾기
-        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
-            String hashKey = entry.getKey().toString();
-            if (hashKey.endsWith(":" + id)) {
-                return (SceneRedis) entry.getValue();
+        // sceneId -> gameId 인덱스로 해당 게임의 hash에서 바로 조회
+        String gameId = stringRedisTemplate.opsForValue().get(ownerKey(id));
+        if (gameId == null) {
+            gameId = findLegacyGameId(id);
+            if (gameId == null) {
+                return null;
             }
+            migrateLegacy(gameId);
         }
 
-        // 해당 ID가 없으면 null 반환
-        return null;
+        return (SceneRedis) redisTemplate.opsForHash().get(sceneKey(gameId), id);
     }
 
     @Override
     public List<SceneRedis> findAllByGameId(String gameId) {
-        // Redis Hash에서 gameId가 같은 모든 데이터를 가져옴.
-        // Redis Hash는 .entries에 반환값이 Map<Object, Object> 직렬화 과정에서 Object로 저장됨
-        Map<Object, Object> entries = redisTemplate.opsForHash().entries(KEY);
-
-        // 특정 gameId로 시작하는 모든 데이터를 sceneOrder순으로 정렬하여 반환
-        return entries.entrySet().stream()
-                .filter(entry -> entry.getKey().toString().startsWith(gameId + ":"))
-                .map(entry -> (SceneRedis) entry.getValue())
-                .sorted(Comparator.comparing(SceneRedis::getSceneOrder)) //sceneOrder 순으로 정렬
+        migrateLegacy(gameId);
+
+        // ZSet이 sceneOrder 순으로 정렬된 sceneId를 돌려주므로 그 순서대로 hash에서 가져옴
+        Set<String> sceneIds = stringRedisTemplate.opsForZSet().range(orderKey(gameId), 0, -1);
+
+        return multiGet(gameId, sceneIds);
+    }
+
+    @Override
+    public SceneRedis findLastByGameId(String gameId) {
+        migrateLegacy(gameId);
+
+        // sceneOrder가 가장 큰 scene 1개만 조회
+        Set<String> sceneIds = stringRedisTemplate.opsForZSet().reverseRange(orderKey(gameId), 0, 0);
+
+        List<SceneRedis> scenes = multiGet(gameId, sceneIds);
+        return scenes.isEmpty() ? null : scenes.get(0);
+    }
+
+    @Override
+    public long countByGameId(String gameId) {
+        migrateLegacy(gameId);
+
+        Long count = stringRedisTemplate.opsForZSet().zCard(orderKey(gameId));
+        return count != null ? count : 0L;
+    }
+
+    @Override
+    public byte[] findImage(SceneRedis sceneRedis) {
+        return binaryRedisTemplate.opsForValue().get(imageKey(sceneRedis.getGameId(), sceneRedis.getId()));
+    }
+
+    @Override
+    public void markStaged(String gameId, String sceneId) {
+        stringRedisTemplate.opsForSet().add(stagedKey(gameId), sceneId);
+        stringRedisTemplate.expire(stagedKey(gameId), TTL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public Set<String> findStagedIds(String gameId) {
+        Set<String> sceneIds = stringRedisTemplate.opsForSet().members(stagedKey(gameId));
+        return sceneIds != null ? sceneIds : Set.of();
+    }
+
+    private List<SceneRedis> multiGet(String gameId, Set<String> sceneIds) {
+        if (sceneIds == null || sceneIds.isEmpty()) {
+            return List.of();
+        }
+
+        Collection<Object> hashKeys = new ArrayList<>(sceneIds);
+        return redisTemplate.opsForHash().multiGet(sceneKey(gameId), hashKeys)
+                .stream()
+                .filter(Objects::nonNull) // hash TTL이 먼저 만료된 경우 방어
+                .map(value -> (SceneRedis) value)
                 .toList();
     }
+
+    // 이전 "scene" hash에 남은 이 게임의 scene을 새 구조로 옮김
+    // 배포가 순차적으로 진행되는 동안 이전 인스턴스가 계속 이전 hash에 쓸 수 있으므로, 새 key가 있어도 이전 hash가 남아 있으면 매번 확인함
+    // 새 구조에 먼저 쓰고 이전 field를 지우므로 동시에 옮겨도 같은 값을 두 번 쓸 뿐 scene이 사라지지 않음
+    private void migrateLegacy(String gameId) {
+        if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(LEGACY_KEY))) {
+            return;
+        }
+
+        Map<String, String> legacy = scanLegacy(gameId + ":*");
+        if (legacy.isEmpty()) {
+            return;
+        }
+
+        legacy.forEach((field, json) -> {
+            SceneRedis sceneRedis = fromLegacyJson(json);
+            if (sceneRedis != null) {
+                write(sceneRedis);
+            }
+            stringRedisTemplate.opsForHash().delete(LEGACY_KEY, field);
+        });
+        touch(gameId);
+
+        log.info("[migrateLegacy] 이전 구조의 scene을 옮김 - gameId: {}, count: {}", gameId, legacy.size());
+    }
+
+    // owner 인덱스가 없는 sceneId는 이전 hash에서 field 이름으로 gameId를 찾음
+    private String findLegacyGameId(String sceneId) {
+        if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(LEGACY_KEY))) {
+            return null;
+        }
+
+        return scanLegacy("*:" + sceneId).keySet().stream()
+                .map(field -> field.substring(0, field.length() - sceneId.length() - 1))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private Map<String, String> scanLegacy(String pattern) {
+        Map<String, String> entries = new HashMap<>();
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(500).build();
+        try (Cursor<Map.Entry<Object, Object>> cursor = stringRedisTemplate.opsForHash().scan(LEGACY_KEY, options)) {
+            cursor.forEachRemaining(entry -> entries.put((String) entry.getKey(), (String) entry.getValue()));
+        }
+        return entries;
+    }
+
+    // 이전 값은 GenericJackson2JsonRedisSerializer로 쓴 JSON이고 image가 base64로 들어 있음
+    // SceneRedis.image가 @JsonIgnore라 타입으로 읽으면 이미지가 빠지므로 필드를 직접 꺼냄
+    private static SceneRedis fromLegacyJson(String json) {
+        try {
+            JsonNode node = LEGACY_MAPPER.readTree(json);
+            if (!node.hasNonNull("id") || !node.hasNonNull("gameId")) {
+                log.error("[migrateLegacy] id/gameId가 없는 이전 scene - 건너뜀");
+                return null;
+            }
+
+            JsonNode image = node.path("image");
+            if (image.isArray() && image.size() == 2) {
+                image = image.get(1); // 타입 정보가 붙은 경우 ["[B", "base64"]
+            }
+
+            return SceneRedis.builder()
+                    .id(node.path("id").asText(null))
+                    .gameId(node.path("gameId").asText(null))
+                    .userId(node.path("userId").asText(null))
+                    .sceneOrder(node.path("sceneOrder").asInt())
+                    .prompt(node.path("prompt").asText(null))
+                    .image(image.isTextual() ? image.binaryValue() : null)
+                    .build();
+        } catch (Exception e) {
+            log.error("[migrateLegacy] 이전 구조의 scene을 읽지 못함 - 건너뜀: {}", e.getMessage());
+            return null;
+        }
+    }
 }
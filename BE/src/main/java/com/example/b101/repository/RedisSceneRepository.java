@@ -4,6 +4,7 @@ package com.example.b101.repository;
 import com.example.b101.cache.SceneRedis;
 
 import java.util.List;
+import java.util.Set;
 
 public interface RedisSceneRepository{
 
@@ -15,6 +16,16 @@ public interface RedisSceneRepository{
 
     List<SceneRedis> findAllByGameId(String gameId);
 
+    SceneRedis findLastByGameId(String gameId); //sceneOrder가 가장 큰 scene
+
+    long countByGameId(String gameId);
+
+    byte[] findImage(SceneRedis sceneRedis); //메타데이터와 분리 저장된 이미지 bytes (필요한 경로에서만 호출)
+
+    void markStaged(String gameId, String sceneId); //게임 중에 S3 staging 영역에 미리 올라간 scene 표시
+
+    Set<String> findStagedIds(String gameId);
+
     void deleteAllByGameId(String gameId);
 
 }
@@ -1,6 +1,7 @@
 package com.example.b101.repository;
 
 import com.example.b101.cache.Room;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Repository;
 
@@ -14,7 +15,7 @@ public class RoomRepoImpl implements RoomRepository {
 
     private final RedisTemplate<String, Room> redisTemplate;
 
-    public RoomRepoImpl(RedisTemplate<String, Room> redisTemplate) {
+    public RoomRepoImpl(@Qualifier("roomRedisTemplate") RedisTemplate<String, Room> redisTemplate) {
         this.redisTemplate = redisTemplate;
     }
 
@@ -0,0 +1,91 @@
+package com.example.b101.repository;
+
+import com.example.b101.config.AwsConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * S3AsyncClient 기반 저장소 - 요청 스레드를 잡지 않으므로 동시 업로드 수는 호출하는 쪽(ObjectUploader)에서 제한
+ */
+@Repository
+public class S3ObjectStorage implements ObjectStorage {
+
+    private static final int DELETE_BATCH_SIZE = 1000; // DeleteObjects 한 번에 지울 수 있는 최대 key 수
+
+    private final S3AsyncClient s3AsyncClient;
+    private final AwsConfig awsConfig;
+
+    //다운로드는 S3service가 S3를 직접 쓰므로 다른 저장소로는 시작하지 않음
+    public S3ObjectStorage(S3AsyncClient s3AsyncClient, AwsConfig awsConfig,
+                           @Value("${storage.type:s3}") String storageType) {
+        if (!"s3".equals(storageType)) {
+            throw new IllegalStateException("지원하지 않는 storage.type: " + storageType + " (s3만 지원, 파일시스템 저장소는 테스트 전용)");
+        }
+        this.s3AsyncClient = s3AsyncClient;
+        this.awsConfig = awsConfig;
+    }
+
+    @Override
+    public CompletableFuture<Void> put(String key, byte[] data, String contentType) {
+        return s3AsyncClient.putObject(PutObjectRequest.builder()
+                                .bucket(awsConfig.getBucketName())
+                                .key(key)
+                                .contentType(contentType)
+                                .build(),
+                        AsyncRequestBody.fromBytes(data))
+                .thenApply(response -> null);
+    }
+
+    @Override
+    public CompletableFuture<Void> copy(String sourceKey, String targetKey) {
+        return s3AsyncClient.copyObject(CopyObjectRequest.builder()
+                        .sourceBucket(awsConfig.getBucketName())
+                        .sourceKey(sourceKey)
+                        .destinationBucket(awsConfig.getBucketName())
+                        .destinationKey(targetKey)
+                        .build())
+                .thenApply(response -> null);
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(Collection<String> keys) {
+        List<String> remaining = new ArrayList<>(keys);
+        List<CompletableFuture<?>> batches = new ArrayList<>();
+        for (int from = 0; from < remaining.size(); from += DELETE_BATCH_SIZE) {
+            List<ObjectIdentifier> objects = remaining.subList(from, Math.min(from + DELETE_BATCH_SIZE, remaining.size())).stream()
+                    .map(key -> ObjectIdentifier.builder().key(key).build())
+                    .toList();
+
+            batches.add(s3AsyncClient.deleteObjects(DeleteObjectsRequest.builder()
+                    .bucket(awsConfig.getBucketName())
+                    .delete(Delete.builder().objects(objects).quiet(true).build())
+                    .build()));
+        }
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0]));
+    }
+
+    @Override
+    public CompletableFuture<List<StoredObject>> list(String prefix) {
+        List<StoredObject> objects = new ArrayList<>();
+        return s3AsyncClient.listObjectsV2Paginator(ListObjectsV2Request.builder()
+                        .bucket(awsConfig.getBucketName())
+                        .prefix(prefix)
+                        .build())
+                .contents()
+                .subscribe(object -> objects.add(new StoredObject(object.key(), object.lastModified())))
+                .thenApply(done -> objects);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.b101.repository;
+
+import com.example.b101.cache.SceneJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이미지 생성 작업 저장소
+ *
+ *  scene-job:{jobId}       (Hash)   state, attempts, userPrompt, isEnding, sceneId, imageUrl, error, retryAfterSeconds ...
+ *  scene-job:active         (Set)    끝나지 않은 jobId (재시작 후 이어서 진행할 대상)
+ *  scene-job:lease:{jobId}  (String) 진행 중인 인스턴스 lease
+ *
+ * 게임 데이터와 같이 30분 뒤 만료됨.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SceneJobRepoImpl implements SceneJobRepository {
+
+    private static final String KEY_PREFIX = "scene-job:";
+    private static final String LEASE_PREFIX = "scene-job:lease:";
+    private static final String ACTIVE_KEY = "scene-job:active";
+    private static final long TTL_MINUTES = 30;
+
+    private static final RedisScript<Long> RENEW_SCRIPT = script("renew_job_lease");
+    private static final RedisScript<Long> RELEASE_SCRIPT = script("release_job_lease");
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private static RedisScript<Long> script(String name) {
+        return RedisScript.of(new ClassPathResource("scripts/scene/" + name + ".lua"), Long.class);
+    }
+
+    private static String jobKey(String id) {
+        return KEY_PREFIX + id;
+    }
+
+    @Override
+    public void save(SceneJob sceneJob) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("gameId", sceneJob.getGameId());
+        fields.put("userId", sceneJob.getUserId());
+        fields.put("turn", String.valueOf(sceneJob.getTurn()));
+        fields.put("userPrompt", nullToEmpty(sceneJob.getUserPrompt()));
+        fields.put("isEnding", sceneJob.getIsEnding() != null ? String.valueOf(sceneJob.getIsEnding()) : "");
+        fields.put("state", sceneJob.getState().name());
+        fields.put("attempts", String.valueOf(sceneJob.getAttempts()));
+        fields.put("createdAt", String.valueOf(sceneJob.getCreatedAt()));
+        fields.put("updatedAt", String.valueOf(sceneJob.getUpdatedAt()));
+        fields.put("sceneId", nullToEmpty(sceneJob.getSceneId()));
+        fields.put("imageUrl", nullToEmpty(sceneJob.getImageUrl()));
+        fields.put("error", nullToEmpty(sceneJob.getError()));
+        fields.put("retryAfterSeconds", String.valueOf(sceneJob.getRetryAfterSeconds()));
+
+        String key = jobKey(sceneJob.getId());
+        stringRedisTemplate.opsForHash().putAll(key, fields);
+        stringRedisTemplate.expire(key, TTL_MINUTES, TimeUnit.MINUTES);
+
+        if (sceneJob.isDone()) {
+            stringRedisTemplate.opsForSet().remove(ACTIVE_KEY, sceneJob.getId());
+        } else {
+            stringRedisTemplate.opsForSet().add(ACTIVE_KEY, sceneJob.getId());
+        }
+    }
+
+    @Override
+    public SceneJob findById(String id) {
+        Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(jobKey(id));
+        if (fields.isEmpty()) {
+            return null;
+        }
+
+        return SceneJob.builder()
+                .id(id)
+                .gameId((String) fields.get("gameId"))
+                .userId((String) fields.get("userId"))
+                .turn(Integer.parseInt((String) fields.get("turn")))
+                .userPrompt(emptyToNull((String) fields.get("userPrompt")))
+                .isEnding(parseBoolean((String) fields.get("isEnding")))
+                .state(SceneJob.State.valueOf((String) fields.get("state")))
+                .attempts(Integer.parseInt((String) fields.get("attempts")))
+                .createdAt(Long.parseLong((String) fields.get("createdAt")))
+                .updatedAt(Long.parseLong((String) fields.get("updatedAt")))
+                .sceneId(emptyToNull((String) fields.get("sceneId")))
+                .imageUrl(emptyToNull((String) fields.get("imageUrl")))
+                .error(emptyToNull((String) fields.get("error")))
+                .retryAfterSeconds(fields.containsKey("retryAfterSeconds") ? Long.parseLong((String) fields.get("retryAfterSeconds")) : 0)
+                .build();
+    }
+
+    @Override
+    public Set<String> findActiveIds() {
+        Set<String> ids = stringRedisTemplate.opsForSet().members(ACTIVE_KEY);
+        return ids != null ? ids : Set.of();
+    }
+
+    @Override
+    public void removeActive(String id) {
+        stringRedisTemplate.opsForSet().remove(ACTIVE_KEY, id);
+    }
+
+    @Override
+    public boolean acquireLease(String id, String value, Duration lease) {
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(LEASE_PREFIX + id, value, lease));
+    }
+
+    @Override
+    public boolean renewLease(String id, String value, Duration lease) {
+        Long result = stringRedisTemplate.execute(RENEW_SCRIPT, List.of(LEASE_PREFIX + id), value, String.valueOf(lease.toMillis()));
+        return result != null && result == 1L;
+    }
+
+    @Override
+    public void releaseLease(String id, String value) {
+        stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(LEASE_PREFIX + id), value);
+    }
+
+    //이전 버전에서 저장한 작업에는 isEnding이 없음
+    private static Boolean parseBoolean(String value) {
+        return value == null || value.isEmpty() ? null : Boolean.valueOf(value);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.b101.repository;
+
+import com.example.b101.cache.SceneJob;
+
+import java.time.Duration;
+import java.util.Set;
+
+public interface SceneJobRepository {
+
+    void save(SceneJob sceneJob); //작업 상태 저장 (전체 필드 덮어씀), 끝나지 않은 작업은 재개 대상 목록에도 넣음
+
+    SceneJob findById(String id);
+
+    Set<String> findActiveIds(); //재개 대상 (끝나지 않은 jobId)
+
+    void removeActive(String id); //상태가 사라진 jobId를 재개 대상에서 뺌
+
+    boolean acquireLease(String id, String value, Duration lease); //한 인스턴스만 진행하도록 lease 획득
+
+    boolean renewLease(String id, String value, Duration lease);
+
+    void releaseLease(String id, String value);
+}
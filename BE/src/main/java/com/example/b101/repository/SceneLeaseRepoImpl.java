@@ -0,0 +1,76 @@
+package com.example.b101.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * scene 생성 중복 방지용 lease
+ *
+ *  scene-lease:{gameId}:{turn}:{userId} (String) 생성 중이면 lease 값, 끝나면 결과 값
+ *
+ * 생성 중 lease는 짧게 잡고 생성하는 동안 주기적으로 연장해서, 인스턴스가 죽으면 곧 만료되어 다른 요청이 이어받음.
+ * 결과 값은 scene과 같이 30분 뒤 만료됨.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SceneLeaseRepoImpl implements SceneLeaseRepository {
+
+    private static final String KEY_PREFIX = "scene-lease:";
+    private static final long DONE_TTL_MINUTES = 30;
+
+    private static final RedisScript<Long> RENEW_SCRIPT = script("renew_lease");
+    private static final RedisScript<Long> COMPLETE_SCRIPT = script("complete_lease");
+    private static final RedisScript<Long> RELEASE_SCRIPT = script("release_lease");
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private static RedisScript<Long> script(String name) {
+        return RedisScript.of(new ClassPathResource("scripts/scene/" + name + ".lua"), Long.class);
+    }
+
+    private static String leaseKey(String gameId, int turn, String userId) {
+        return KEY_PREFIX + gameId + ":" + turn + ":" + userId;
+    }
+
+    @Override
+    public String find(String gameId, int turn, String userId) {
+        return stringRedisTemplate.opsForValue().get(leaseKey(gameId, turn, userId));
+    }
+
+    @Override
+    public boolean acquire(String gameId, int turn, String userId, String value, Duration lease) {
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(leaseKey(gameId, turn, userId), value, lease));
+    }
+
+    @Override
+    public boolean renew(String gameId, int turn, String userId, String value, Duration lease) {
+        Long result = stringRedisTemplate.execute(RENEW_SCRIPT, List.of(leaseKey(gameId, turn, userId)),
+                value, String.valueOf(lease.toMillis()));
+        return result != null && result == 1L;
+    }
+
+    @Override
+    public boolean complete(String gameId, int turn, String userId, String leaseValue, String doneValue) {
+        Long result = stringRedisTemplate.execute(COMPLETE_SCRIPT, List.of(leaseKey(gameId, turn, userId)),
+                leaseValue, doneValue, String.valueOf(TimeUnit.MINUTES.toMillis(DONE_TTL_MINUTES)));
+        return result != null && result == 1L;
+    }
+
+    @Override
+    public boolean release(String gameId, int turn, String userId, String value) {
+        Long result = stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey(gameId, turn, userId)), value);
+        return result != null && result == 1L;
+    }
+
+    @Override
+    public void delete(String gameId, int turn, String userId) {
+        stringRedisTemplate.delete(leaseKey(gameId, turn, userId));
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.b101.repository;
+
+import java.time.Duration;
+
+public interface SceneLeaseRepository {
+
+    String find(String gameId, int turn, String userId); //현재 값 (진행 중 lease 또는 완료 결과), 없으면 null
+
+    boolean acquire(String gameId, int turn, String userId, String value, Duration lease); //비어 있을 때만 lease 설정
+
+    boolean renew(String gameId, int turn, String userId, String value, Duration lease); //내 lease일 때만 만료 시간 연장
+
+    boolean complete(String gameId, int turn, String userId, String leaseValue, String doneValue); //내 lease일 때만 완료 값으로 교체
+
+    boolean release(String gameId, int turn, String userId, String value); //값이 그대로일 때만 삭제
+
+    void delete(String gameId, int turn, String userId); //투표 반대 등으로 해당 턴을 다시 생성할 수 있게 함
+}
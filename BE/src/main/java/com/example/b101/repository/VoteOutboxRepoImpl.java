@@ -0,0 +1,149 @@
+package com.example.b101.repository;
+
+import com.example.b101.cache.VoteNotification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 투표 결과 outbox
+ *
+ *  vote-outbox                    (Stream)  gameId, userId, userPrompt, turn, accepted
+ *  vote-outbox:pending:{gameId}   (String)  게임별 미전달 개수 (다음 장면 생성 전에 0이 될 때까지 기다리는 용도)
+ *  vote-outbox:sender             (String)  전달 담당 인스턴스 id
+ *
+ * consumer 이름을 하나로 고정해 두고 담당 인스턴스만 읽으므로,
+ * 담당이 바뀌어도 이전 인스턴스가 가져간 미전달 레코드(PEL)를 그대로 이어서 보냄.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class VoteOutboxRepoImpl implements VoteOutboxRepository {
+
+    private static final String STREAM_KEY = "vote-outbox";
+    private static final String PENDING_PREFIX = "vote-outbox:pending:";
+    private static final String SENDER_KEY = "vote-outbox:sender";
+    private static final String GROUP = "vote-sender";
+    private static final String CONSUMER = "sender";
+    private static final long PENDING_TTL_MINUTES = 30;
+
+    private static final RedisScript<String> APPEND_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/vote/append_outbox.lua"), String.class);
+    private static final RedisScript<Long> ACK_SCRIPT = script("ack_outbox");
+    private static final RedisScript<Long> ACQUIRE_SENDER_SCRIPT = script("acquire_sender");
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private volatile boolean groupReady;
+
+    private static RedisScript<Long> script(String name) {
+        return RedisScript.of(new ClassPathResource("scripts/vote/" + name + ".lua"), Long.class);
+    }
+
+    @Override
+    public String append(VoteNotification notification) {
+        return stringRedisTemplate.execute(APPEND_SCRIPT,
+                List.of(STREAM_KEY, PENDING_PREFIX + notification.getGameId()),
+                notification.getGameId(),
+                notification.getUserId(),
+                notification.getUserPrompt() != null ? notification.getUserPrompt() : "",
+                String.valueOf(notification.getTurn()),
+                String.valueOf(notification.isAccepted()),
+                String.valueOf(TimeUnit.MINUTES.toMillis(PENDING_TTL_MINUTES)));
+    }
+
+    @Override
+    public boolean acquireSender(String instanceId, Duration lease) {
+        Long result = stringRedisTemplate.execute(ACQUIRE_SENDER_SCRIPT, List.of(SENDER_KEY),
+                instanceId, String.valueOf(lease.toMillis()));
+        return result != null && result == 1L;
+    }
+
+    @Override
+    public void claimNew(int count) {
+        ensureGroup();
+        try {
+            stringRedisTemplate.opsForStream().read(Consumer.from(GROUP, CONSUMER),
+                    StreamReadOptions.empty().count(count),
+                    StreamOffset.create(STREAM_KEY, ReadOffset.lastConsumed()));
+        } catch (DataAccessException e) {
+            // Stream이 지워져서 group도 없어진 경우 다음에 다시 만듦
+            groupReady = false;
+            throw e;
+        }
+    }
+
+    @Override
+    public List<VoteNotification> findPending(String afterId, int count) {
+        ensureGroup();
+        List<MapRecord<String, Object, Object>> records = stringRedisTemplate.opsForStream().read(
+                Consumer.from(GROUP, CONSUMER),
+                StreamReadOptions.empty().count(count),
+                StreamOffset.create(STREAM_KEY, ReadOffset.from(afterId)));
+
+        List<VoteNotification> notifications = new ArrayList<>();
+        if (records == null) {
+            return notifications;
+        }
+        for (MapRecord<String, Object, Object> record : records) {
+            Map<Object, Object> fields = record.getValue();
+            notifications.add(VoteNotification.builder()
+                    .id(record.getId().getValue())
+                    .gameId((String) fields.get("gameId"))
+                    .userId((String) fields.get("userId"))
+                    .userPrompt((String) fields.get("userPrompt"))
+                    .turn(Integer.parseInt((String) fields.get("turn")))
+                    .accepted(Boolean.parseBoolean((String) fields.get("accepted")))
+                    .build());
+        }
+        return notifications;
+    }
+
+    @Override
+    public void ack(String gameId, List<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<String> args = new ArrayList<>();
+        args.add(GROUP);
+        args.addAll(ids);
+        stringRedisTemplate.execute(ACK_SCRIPT, List.of(STREAM_KEY, PENDING_PREFIX + gameId), args.toArray());
+    }
+
+    @Override
+    public long countPending(String gameId) {
+        String count = stringRedisTemplate.opsForValue().get(PENDING_PREFIX + gameId);
+        return count != null ? Long.parseLong(count) : 0;
+    }
+
+    //consumer group이 없으면 Stream과 함께 만듦 (이미 있으면 BUSYGROUP 에러 → 무시)
+    private void ensureGroup() {
+        if (groupReady) {
+            return;
+        }
+        try {
+            stringRedisTemplate.execute((RedisCallback<String>) connection -> connection.streamCommands()
+                    .xGroupCreate(STREAM_KEY.getBytes(StandardCharsets.UTF_8), GROUP, ReadOffset.from("0"), true));
+        } catch (DataAccessException e) {
+            log.debug("[VoteOutbox] consumer group 이미 있음: {}", e.getMessage());
+        }
+        groupReady = true;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.b101.repository;
+
+import com.example.b101.cache.VoteNotification;
+
+import java.time.Duration;
+import java.util.List;
+
+public interface VoteOutboxRepository {
+
+    String append(VoteNotification notification); //outbox에 쌓고 레코드 id 반환
+
+    boolean acquireSender(String instanceId, Duration lease); //전달 담당 lease 획득/연장
+
+    void claimNew(int count); //새로 쌓인 레코드를 전달 대기 목록(PEL)으로 가져옴
+
+    List<VoteNotification> findPending(String afterId, int count); //전달 대기 중인 레코드 중 afterId 다음부터 (쌓인 순서, 처음은 "0")
+
+    void ack(String gameId, List<String> ids); //전달 완료(또는 포기)한 레코드 삭제
+
+    long countPending(String gameId); //해당 게임의 미전달 개수
+}
@@ -1,10 +1,12 @@
 package com.example.b101.service;
 
+import com.example.b101.cache.BookBuild;
 import com.example.b101.common.ApiResponseUtil;
 import com.example.b101.domain.Book;
 import com.example.b101.dto.BookRequest;
 import com.example.b101.dto.BookResponse;
 import com.example.b101.dto.SceneResponse;
+import com.example.b101.repository.BookBuildRepository;
 import com.example.b101.repository.BookRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -29,6 +31,7 @@ import java.util.UUID;
 public class BookService {
 
     private final BookRepository bookRepository;
+    private final BookBuildRepository bookBuildRepository;
 
 
     // 1~3위 책 데이터 조회
@@ -118,6 +121,18 @@ public class BookService {
         return ApiResponseUtil.success(bookResponse, "book 데이터 반환 성공", HttpStatus.OK, request.getRequestURI());
     }
 
+    // 게임 종료 후 책 만들기 진행 상태 (READY가 되면 bookCover, title 사용 가능)
+    public ResponseEntity<?> getBookBuild(String bookId, HttpServletRequest request) {
+        BookBuild bookBuild = bookBuildRepository.findById(bookId);
+
+        if (bookBuild == null) {
+            return ApiResponseUtil.failure("해당 Id의 책 생성 기록이 없습니다.",
+                    HttpStatus.NOT_FOUND, request.getRequestURI());
+        }
+
+        return ApiResponseUtil.success(bookBuild, "책 생성 상태 조회 성공", HttpStatus.OK, request.getRequestURI());
+    }
+
 
     @Scheduled(cron = "0 0 12 * * *")  // 매일 정오에 실행
     public void autoDeleteBook() {
@@ -1,5 +1,7 @@
 package com.example.b101.service;
 
+import com.example.b101.cache.CardAttribute;
+import com.example.b101.cache.CardCatalog;
 import com.example.b101.domain.EndingCard;
 import com.example.b101.domain.StoryCard;
 import lombok.AllArgsConstructor;
@@ -8,19 +10,19 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class CardService {
 
-    private final CachingService cachingService;
+    private final CardCatalog cardCatalog;
 
     //시연용 결말 카드
     public List<EndingCard> getEndingCards() {
-        return cachingService.getEndingCardAll().getEndingCards();
+        return new ArrayList<>(cardCatalog.getEndingCards());
     }
 
 
@@ -41,7 +43,7 @@ public class CardService {
     //시연용 이야기 카드 속성별 분배
     public List<StoryCard> getStoryCardByAttribute(String attribute, int playerCnt) {
 
-        return cachingService.getStoryCardAll().getStoryCards()
+        return cardCatalog.getStoryCards()
                 .stream()
                 .filter(storyCard -> storyCard.getAttribute().equals(attribute))
                 .toList()
@@ -53,17 +55,14 @@ public class CardService {
 
 
 
-    // 결말 카드 셔플
-    public List<EndingCard> shuffleEndingCard() {
-        log.info("[shuffleEndingCard] 결말 카드 데이터를 가져오는 중...");
-
-        List<EndingCard> cardList = cachingService.getEndingCardAll().getEndingCards();
-        log.info("[shuffleEndingCard] {}개의 결말 카드 로드 완료", cardList.size());
-
-        Collections.shuffle(cardList);
-        log.info("[shuffleEndingCard] 결말 카드 셔플 완료");
+    // 결말 카드 덱 (게임 시작 때 한 번 섞어서 게임에 저장)
+    public List<Integer> newEndingDeck() {
+        return cardCatalog.newEndingDeck();
+    }
 
-        return cardList;
+    // 덱에서 position번째 카드
+    public EndingCard dealEndingCard(List<Integer> endingDeck, int position) {
+        return cardCatalog.getEndingCard(endingDeck.get(position));
     }
 
     // 이야기 카드 셔플
@@ -72,14 +71,8 @@ public class CardService {
 
         List<List<StoryCard>> shuffledCards = new ArrayList<>();
 
-        // "인물" 카테고리 카드 가져와서 셔플 후 사람 수 만큼 저장
-        shuffledCards.add(fetchAndShuffleCards("인물", playerCnt));
-
-        // 나머지 속성 리스트 섞기
-        List<String> attributes = Arrays.asList("사물", "장소", "사건", "상태");
-
-        // 나머지 속성 카테고리별 카드 가져와서 셔플 후 저장
-        for (String attribute : attributes) {
+        // 속성 순서(인물, 사물, 장소, 사건, 상태)대로 플레이어 수 만큼 뽑아서 저장
+        for (CardAttribute attribute : CardAttribute.values()) {
             shuffledCards.add(fetchAndShuffleCards(attribute, playerCnt));
         }
 
@@ -87,33 +80,45 @@ public class CardService {
         return shuffledCards;
     }
 
-    // 카테고리별 카드 리스트를 플레이어 수 만큼만 가져옴
-    private List<StoryCard> fetchAndShuffleCards(String attribute, int playerCnt) {
-        log.info("[fetchAndShuffleCards] '{}' 속성의 이야기 카드 가져오는 중...", attribute);
+    // 카테고리별 카드를 플레이어 수 만큼만 무작위로 가져옴
+    private List<StoryCard> fetchAndShuffleCards(CardAttribute attribute, int playerCnt) {
+        int[] cardIds = cardCatalog.sampleStoryCardIds(attribute, playerCnt);
 
-        List<StoryCard> cards = new ArrayList<>(cachingService.getStoryCardAll().getStoryCards()
-                .stream()
-                .filter(storyCard -> storyCard.getAttribute().equals(attribute))
-                .toList());
+        List<StoryCard> cards = new ArrayList<>(cardIds.length);
+        for (int cardId : cardIds) {
+            cards.add(cardCatalog.getStoryCard(cardId));
+        }
 
-        log.info("[fetchAndShuffleCards] '{}' 속성의 이야기 카드 {}개 로드 완료", attribute, cards.size());
+        return cards;
+    }
 
-        Collections.shuffle(cards);
-        log.info("[fetchAndShuffleCards] '{}' 속성의 이야기 카드 셔플 완료", attribute);
+    // 새로고침 후보: 해당 카드와 같은 속성의 카드 id를 섞어서 제외 목록만 빼고 반환
+    public List<Integer> getRefreshCandidateIds(int cardId, Set<Integer> excludeIds) {
+        CardAttribute attribute = cardCatalog.getAttribute(cardId);
+        if (attribute == null) {
+            return List.of();
+        }
 
-        return cards.subList(0, playerCnt);
-    }
+        int[] cardIds = cardCatalog.shuffledStoryCardIds(attribute);
 
-    // 특정 속성의 모든 스토리 카드 가져오기 (새로고침용)
-    public List<StoryCard> getAllStoryCardsByAttribute(String attribute) {
-        log.info("[getAllStoryCardsByAttribute] '{}' 속성의 모든 스토리 카드 가져오는 중...", attribute);
+        List<Integer> candidateIds = new ArrayList<>(cardIds.length);
+        for (int candidateId : cardIds) {
+            if (!excludeIds.contains(candidateId)) {
+                candidateIds.add(candidateId);
+            }
+        }
 
-        List<StoryCard> cards = cachingService.getStoryCardAll().getStoryCards()
-                .stream()
-                .filter(storyCard -> storyCard.getAttribute().equals(attribute))
-                .collect(java.util.stream.Collectors.toList());
+        log.info("[getRefreshCandidateIds] '{}' 속성의 새로고침 후보 카드 {}개", attribute.getLabel(), candidateIds.size());
+        return candidateIds;
+    }
 
-        log.info("[getAllStoryCardsByAttribute] '{}' 속성의 스토리 카드 {}개 로드 완료", attribute, cards.size());
-        return cards;
+    // id로 이야기 카드 조회
+    public StoryCard findStoryCard(int cardId) {
+        return cardCatalog.getStoryCard(cardId);
+    }
+
+    // id로 결말 카드 조회
+    public EndingCard findEndingCard(int cardId) {
+        return cardCatalog.getEndingCard(cardId);
     }
 }
@@ -0,0 +1,149 @@
+package com.example.b101.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 게임별 SSE 구독 관리
+ *
+ * 클라이언트는 게임마다 연결 하나로 그 게임의 이벤트(이미지 생성 작업, AI 재시도 알림 등)를 받음.
+ * 이벤트는 Redis pub/sub(game-events 채널)으로 모든 백엔드 인스턴스에 뿌리고,
+ * 각 인스턴스는 자기에게 연결된 구독자에게만 전달함. (이벤트를 받은 인스턴스와 구독자가 다른 인스턴스여도 됨)
+ *
+ * 지표 (actuator /metrics)
+ *  - game.events.delivery    : publish부터 구독자 전송까지 걸린 시간
+ *  - game.events.fanout      : 이벤트 하나를 받은 게임의 구독자 수
+ *  - game.events.subscribers : 이 인스턴스의 전체 구독자 수
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GameEventPublisher {
+
+    private static final String CHANNEL = "game-events";
+
+    // 게임 데이터 TTL과 같게 맞춤 (그 뒤에는 클라이언트가 다시 연결)
+    private static final long EMITTER_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, List<SseEmitter>> emittersByGame = new ConcurrentHashMap<>();
+
+    private Timer deliveryTimer;
+    private DistributionSummary fanoutSummary;
+
+    @PostConstruct
+    public void init() {
+        this.deliveryTimer = Timer.builder("game.events.delivery").register(meterRegistry);
+        this.fanoutSummary = DistributionSummary.builder("game.events.fanout").register(meterRegistry);
+        Gauge.builder("game.events.subscribers", emittersByGame,
+                emitters -> emitters.values().stream().mapToInt(List::size).sum()).register(meterRegistry);
+
+        redisMessageListenerContainer.addMessageListener((message, pattern) -> onMessage(message), new ChannelTopic(CHANNEL));
+    }
+
+    public SseEmitter subscribe(String gameId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emittersByGame.compute(gameId, (key, emitters) -> {
+            List<SseEmitter> subscribed = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            subscribed.add(emitter);
+            return subscribed;
+        });
+
+        emitter.onCompletion(() -> remove(gameId, emitter));
+        emitter.onTimeout(() -> remove(gameId, emitter));
+        emitter.onError(e -> remove(gameId, emitter));
+
+        // 연결 직후 이벤트를 한 번 보내서 프록시가 응답 헤더를 바로 내려보내게 함
+        send(gameId, emitter, "connected", gameId);
+        return emitter;
+    }
+
+    //해당 게임을 구독 중인 모든 연결(모든 인스턴스)에 이벤트 전송
+    public void publish(String gameId, String eventName, Object data) {
+        ObjectNode envelope = objectMapper.createObjectNode();
+        envelope.put("gameId", gameId);
+        envelope.put("name", eventName);
+        envelope.put("publishedAt", System.currentTimeMillis());
+        envelope.set("data", objectMapper.valueToTree(data));
+
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(envelope));
+        } catch (JsonProcessingException e) {
+            log.error("[GameEventPublisher] 이벤트 직렬화 실패 - gameId: {}, event: {}", gameId, eventName, e);
+        } catch (Exception e) {
+            // Redis 장애로 이벤트를 못 보내도 게임 진행(작업 상태 저장 등)은 그대로 진행
+            log.error("[GameEventPublisher] 이벤트 발행 실패 - gameId: {}, event: {}, 사유: {}", gameId, eventName, e.getMessage());
+        }
+    }
+
+    //Redis에서 받은 이벤트를 이 인스턴스의 구독자에게 전달
+    private void onMessage(Message message) {
+        JsonNode envelope;
+        try {
+            envelope = objectMapper.readTree(new String(message.getBody(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.warn("[GameEventPublisher] 잘못된 이벤트 메시지 - {}", e.getMessage());
+            return;
+        }
+
+        String gameId = envelope.path("gameId").asText();
+        List<SseEmitter> emitters = emittersByGame.get(gameId);
+        if (emitters == null) {
+            return;
+        }
+
+        fanoutSummary.record(emitters.size());
+
+        String eventName = envelope.path("name").asText();
+        JsonNode data = envelope.path("data");
+        for (SseEmitter emitter : emitters) {
+            send(gameId, emitter, eventName, data);
+        }
+
+        long latency = System.currentTimeMillis() - envelope.path("publishedAt").asLong();
+        deliveryTimer.record(Math.max(latency, 0), TimeUnit.MILLISECONDS);
+    }
+
+    private void send(String gameId, SseEmitter emitter, String eventName, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("[GameEventPublisher] SSE 전송 실패, 구독 해제 - gameId: {}, 사유: {}", gameId, e.getMessage());
+            remove(gameId, emitter);
+        }
+    }
+
+    private void remove(String gameId, SseEmitter emitter) {
+        emittersByGame.computeIfPresent(gameId, (key, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
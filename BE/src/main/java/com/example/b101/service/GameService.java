@@ -1,16 +1,19 @@
 package com.example.b101.service;
 
+import com.example.b101.cache.BookBuild;
 import com.example.b101.cache.Game;
 import com.example.b101.cache.SceneRedis;
 import com.example.b101.common.ApiResponseUtil;
 import com.example.b101.config.WebClientConfig;
 import com.example.b101.domain.*;
 import com.example.b101.dto.*;
+import com.example.b101.repository.BookBuildRepository;
 import com.example.b101.repository.BookRepository;
 import com.example.b101.repository.GameRepository;
 import com.example.b101.repository.RedisSceneRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,16 +21,25 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientException;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatusCode;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -38,18 +50,27 @@ public class GameService {
     private final GameRepository gameRepository;
     private final CardService cardService;
     private final RedisSceneRepository sceneRepository;
-    private final WebClient webClient;
     @Qualifier("openaiWebClient")
     private final WebClient openaiWebClient;
-    @Qualifier("pythonImageServiceClient")
-    private final WebClient pythonImageServiceClient;
+    private final ImageBackendBalancer imageBackendBalancer;
     @Qualifier("geminiWebClient")
     private final WebClient geminiWebClient;
     private final S3service s3service;
     private final BookRepository bookRepository;
     private final WebClientConfig webClientConfig;
+    private final BookBuildRepository bookBuildRepository;
+    private final GameEventPublisher gameEventPublisher;
+    private final MeterRegistry meterRegistry;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private static final Duration BOOK_BUILD_LEASE = Duration.ofMinutes(1);
+    private static final Duration BOOK_BUILD_LEASE_RENEW_INTERVAL = Duration.ofSeconds(20);
+    private static final int BOOK_BUILD_MAX_ATTEMPTS = 3;
+    private static final Duration BOOK_BUILD_POLL_INTERVAL = Duration.ofMillis(500);
+    // 동기 종료 요청이 책 완성을 기다리는 최대 시간 (넘으면 202로 bookId만 반환)
+    private static final Duration BOOK_BUILD_SYNC_TIMEOUT = Duration.ofMinutes(3);
+    private final String instanceId = UUID.randomUUID().toString();
+
 
     //시연용
     public ResponseEntity<?> createGame(GameRequest gameRequest,HttpServletRequest request) {
@@ -69,7 +90,7 @@ public class GameService {
 
         Game game = Game.builder()
                 .gameId(UUID.randomUUID().toString())
-                .endingCardlist(endingCards)
+                .endingDeck(cardService.newEndingDeck())
                 .playerStatuses(playerStatuses)
                 .drawingStyle(gameRequest.getDrawingStyle())
                 .build();
@@ -122,18 +143,19 @@ public class GameService {
                     request.getRequestURI());
         }
 
-        // 카드 셔플
-        List<EndingCard> endingCards = cardService.shuffleEndingCard();
+        // 카드 셔플 (결말카드 덱은 여기서 한 번만 섞어서 게임과 같이 저장)
+        List<Integer> endingDeck = cardService.newEndingDeck();
         List<List<StoryCard>> storyCardList = cardService.shuffleStoryCard(playerCount);
 
         // 플레이어 상태 생성
-        List<PlayerStatus> playerStatuses = assignCardsToPlayers(gameRequest, endingCards, storyCardList);
+        List<PlayerStatus> playerStatuses = assignCardsToPlayers(gameRequest, endingDeck, storyCardList);
 
         // Game 객체 생성
         String gameId = UUID.randomUUID().toString();
         Game game = Game.builder()
                 .gameId(gameId)
-                .endingCardlist(endingCards)
+                .endingDeck(endingDeck)
+                .endingCursor(playerCount) // 플레이어 수만큼 나눠줬으므로 다음 위치부터 뽑음
                 .playerStatuses(playerStatuses)
                 .drawingStyle(gameRequest.getDrawingStyle())
                 .build();
@@ -155,7 +177,7 @@ public class GameService {
     /**
      * 각 플레이어에게 카드를 배정하여 PlayerStatus 생성
      */
-    private List<PlayerStatus> assignCardsToPlayers(GameRequest gameRequest, List<EndingCard> endingCards, List<List<StoryCard>> storyCardList) {
+    private List<PlayerStatus> assignCardsToPlayers(GameRequest gameRequest, List<Integer> endingDeck, List<List<StoryCard>> storyCardList) {
         //플레이어 상태를 저장할 list
         List<PlayerStatus> playerStatuses = new ArrayList<>();
 
@@ -207,7 +229,7 @@ public class GameService {
             playerStatuses.add(PlayerStatus.builder()
                     .userId(userId)
                     .storyCards(storyCards)
-                    .endingCard(endingCards.remove(0))
+                    .endingCard(cardService.dealEndingCard(endingDeck, i))
                     .build());
 
         }
@@ -217,7 +239,16 @@ public class GameService {
 
 
 
-    public ResponseEntity<?> finishGame(DeleteGameRequest deleteGameRequest, HttpServletRequest request) {
+    /**
+     * 게임 종료
+     * 정상 종료면 책 만들기를 시작하고, 기본은 완료될 때까지 기다렸다가 제목/표지와 함께 응답 (201)
+     * respondAsync(Prefer: respond-async)면 bookId만 바로 반환 (202)
+     * 책 만들기/GPU 서버 응답을 기다리는 동안 요청 스레드를 잡지 않음
+     */
+    public Mono<ResponseEntity<?>> finishGame(DeleteGameRequest deleteGameRequest, boolean respondAsync, HttpServletRequest request) {
+        // 비동기 완료 시점에는 request를 쓰지 않도록 URI를 미리 꺼내 둠
+        String requestUri = request.getRequestURI();
+
         log.info("🎮🎮🎮 === finishGame 시작 ===");
         log.info("🎮🎮🎮 gameId: {}", deleteGameRequest.getGameId());
         log.info("🎮🎮🎮 isForceStopped: {}", deleteGameRequest.isForceStopped());
@@ -227,8 +258,8 @@ public class GameService {
 
         if (game == null) {
             log.error("🎮🎮🎮 게임을 찾을 수 없음: {}", deleteGameRequest.getGameId());
-            return ApiResponseUtil.failure("해당 gameId는 존재하지 않습니다."
-                    , HttpStatus.BAD_REQUEST, request.getRequestURI());
+            return Mono.just(ApiResponseUtil.failure("해당 gameId는 존재하지 않습니다."
+                    , HttpStatus.BAD_REQUEST, requestUri));
         }
         
         log.info("🎮🎮🎮 게임 조회 성공. drawingStyle: {}", game.getDrawingStyle());
@@ -253,197 +284,533 @@ public class GameService {
                 .status(status)
                 .build();
 
-        //정상적인 게임 종료 시 책 표지를 반환
+        //정상적인 게임 종료 시 책 만들기를 시작
+        //비동기 요청이면 bookId를 바로 반환하고, 진행 상태는 GET /book/builds/{bookId} 또는 게임별 SSE(book-build 이벤트)로 확인
         if(!deleteGameRequest.isForceStopped()){
             log.info("🎮🎮🎮 정상 종료 처리 시작");
-            
-            // API 키 확인
-            log.info("🎮🎮🎮 OpenAI API 키 설정됨: {}", openaiWebClient != null);
-            log.info("🎮🎮🎮 Gemini API 키 설정됨: {}", geminiWebClient != null);
-            log.info("🎮🎮🎮 Gemini API 키 길이: {}", 
-                    webClientConfig.getGeminiApiKey() != null ? webClientConfig.getGeminiApiKey().length() : "null");
-
-            // 새로운 API 시스템: OpenAI GPT + Gemini로 표지 생성
-            String bookTitle = "아주 먼 옛날"; // 기본값
-            byte[] coverImageBytes = null; // 기본값
-            
-            try {
-                log.info("🎮🎮🎮 === Python 서비스로 제목 생성 및 표지 이미지 생성 시작 ===");
-                // Python 서비스로 제목 생성과 표지 이미지 생성을 통합 처리
-                Map<String, Object> coverData = generateCoverDataViaPython(sceneRedisList, deleteGameRequest.getGameId(), game.getDrawingStyle());
 
-                bookTitle = (String) coverData.get("title");
-                coverImageBytes = (byte[]) coverData.get("imageData");
+            String baseUrl = ServletUriComponentsBuilder.fromRequestUri(request)
+                    .replacePath(null)
+                    .scheme("https") // HTTPS 강제 적용
+                    .build()
+                    .toUriString();
 
-                log.info("🎮🎮🎮 Python 서비스로 생성된 제목: [{}]", bookTitle);
-                log.info("🎮🎮🎮 Python 서비스로 생성된 표지 이미지 크기: {} bytes", coverImageBytes.length);
-                
-                if (bookTitle == null || bookTitle.trim().isEmpty()) {
-                    log.error("🎮🎮🎮 제목이 null이거나 비어있음!");
-                    throw new RuntimeException("제목 생성 실패 - 빈 제목");
-                }
-                
-                if (coverImageBytes == null || coverImageBytes.length == 0) {
-                    log.error("🎮🎮🎮 이미지가 null이거나 크기가 0!");
-                    throw new RuntimeException("이미지 생성 실패 - 빈 이미지");
-                }
-                
-            } catch (Exception e) {
-                log.error("🎮🎮🎮 ❌❌❌ 표지 생성 중 오류 발생 ❌❌❌");
-                log.error("🎮🎮🎮 에러 타입: {}", e.getClass().getName());
-                log.error("🎮🎮🎮 에러 메시지: {}", e.getMessage());
-                log.error("🎮🎮🎮 스택 트레이스:", e);
-                
-                // 단계별로 어디서 실패했는지 확인
-                String errorLocation = "알 수 없는 위치";
-                if (e.getMessage() != null) {
-                    if (e.getMessage().contains("GPT") || e.getMessage().contains("제목")) {
-                        errorLocation = "제목 생성 단계";
-                    } else if (e.getMessage().contains("Gemini") || e.getMessage().contains("이미지") || e.getMessage().contains("표지")) {
-                        errorLocation = "이미지 생성 단계";
-                    }
-                }
-                
-                log.error("🎮🎮🎮 실패 위치: {}", errorLocation);
-                
-                // 실패 시에도 기본값으로 처리하여 게임이 완료되도록 함
-                log.warn("🎮🎮🎮 표지 생성 실패 - 기본값으로 게임 완료 진행");
-                log.info("🎮🎮🎮 기본값으로 책 생성 계속 진행: 제목=[{}], 이미지=null", bookTitle);
-                // bookTitle과 coverImageBytes는 이미 기본값으로 초기화됨
+            BookBuild bookBuild = startBookBuild(game, baseUrl);
+            if (respondAsync) {
+                return Mono.just(finishGameResponse(bookBuild, requestUri));
             }
+            return awaitBookBuild(bookBuild)
+                    .map(finished -> finishGameResponse(finished, requestUri));
+        }
 
-            //정상적인 게임 종료 시 책표지 생성
-            SceneRedis scene = SceneRedis.builder()
-                    .id(UUID.randomUUID().toString())
-                    .gameId(deleteGameRequest.getGameId())
-                    .image(coverImageBytes)  // 새 API로 생성된 바이너리 이미지 데이터 저장
-                    .sceneOrder(0) //책 표지는 순서가 0
-                    .build();
 
-            sceneRepository.save(scene); //책 표지를 0번으로 저장
+        return imageBackendBalancer.exchange(deleteGameRequest.getGameId(), null, client -> client.post()  //post형식으로 이미지 백엔드에 요청을 보냄.
+                        .uri("/generate").accept(MediaType.APPLICATION_JSON) //json으로 응답받음.
+                        .bodyValue(generateSceneRequest) //RequestBody로 보낼 객체
+                        .retrieve()
+                        .bodyToMono(String.class)) //응답의 본문(body)만 가져옴.
+                // GPU 서버 응답 후 정리 (블로킹 Redis/S3 호출이므로 별도 스레드에서 처리)
+                .then(Mono.fromRunnable(() -> {
+                    //책으로 남지 않으므로 게임 중에 staging 해둔 이미지도 정리
+                    s3service.discardStaged(deleteGameRequest.getGameId());
+
+                    //redis에 저장됐던 scene 데이터들 삭제
+                    sceneRepository.deleteAllByGameId(deleteGameRequest.getGameId());
+
+                    //게임 데이터 삭제
+                    gameRepository.delete(game);
+                }).subscribeOn(Schedulers.boundedElastic()))
+                .<ResponseEntity<?>>thenReturn(ApiResponseUtil.success(null,
+                        "게임 데이터 삭제 성공",
+                        HttpStatus.OK,
+                        requestUri))
+                //GPU 서버에서 에러 반환 시 (과부하로 바로 거절된 경우 포함)
+                .onErrorResume(e -> e instanceof WebClientException || e instanceof ImageBackendBusyException,
+                        e -> Mono.just(ApiResponseUtil.failure("GPU 서버 통신 중 오류 발생 : ",
+                                HttpStatus.INTERNAL_SERVER_ERROR,
+                                requestUri)));
+    }
 
-            Book book = Book.builder()
-                    .bookId(UUID.randomUUID().toString())
-                    .title(bookTitle)
-                    .build();
+    //책 만들기 진행 상태로 게임 종료 응답 생성 (완료 201, 실패 500, 진행 중 202)
+    private ResponseEntity<?> finishGameResponse(BookBuild bookBuild, String requestUri) {
+        FinishGameResponse finishGameResponse = FinishGameResponse.builder()
+                .bookId(bookBuild.getBookId())
+                .bookCover(bookBuild.getBookCover())
+                .title(bookBuild.getTitle())
+                .state(bookBuild.getState().name())
+                .build();
+
+        if (bookBuild.getState() == BookBuild.State.READY) {
+            return ApiResponseUtil.success(finishGameResponse,"책 생성 완료"
+                    ,HttpStatus.CREATED,requestUri);
+        }
+        if (bookBuild.getState() == BookBuild.State.FAILED) {
+            return ApiResponseUtil.failure(bookBuild.getError(),
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    requestUri);
+        }
+        // 비동기 요청이거나 기다리는 시간 안에 끝나지 않은 경우
+        return ApiResponseUtil.success(finishGameResponse,"책 생성 시작"
+                ,HttpStatus.ACCEPTED,requestUri);
+    }
 
-            //S3에 업로드
-            boolean result = s3service.uploadToS3(deleteGameRequest.getGameId(),book.getBookId()); //s3에 이미지들 저장
 
-            if (!result) {
-                log.error("s3 이미지 저장 실패");
-                sceneRepository.deleteAllByGameId(deleteGameRequest.getGameId());
-                return ApiResponseUtil.failure("s3에 이미지 저장 중 에러 발생",
-                        HttpStatus.INTERNAL_SERVER_ERROR,
-                        request.getRequestURI());
+    //게임에 책 만들기를 배정하고 백그라운드로 시작 (이미 시작된 게임이면 기존 진행 상태 반환)
+    private BookBuild startBookBuild(Game game, String baseUrl) {
+        String bookId = UUID.randomUUID().toString();
+        String existingId = bookBuildRepository.claimGame(game.getGameId(), bookId);
+        if (existingId != null) {
+            BookBuild existing = bookBuildRepository.findById(existingId);
+            if (existing != null) {
+                log.info("[BookBuild] 이미 책 만들기가 시작된 게임 - gameId: {}, bookId: {}, 상태: {}",
+                        game.getGameId(), existingId, existing.getState());
+                return existing;
             }
+            // 배정만 되고 상태 저장 전에 멈춘 경우 같은 bookId로 다시 시작
+            bookId = existingId;
+        }
 
-            String baseUrl = ServletUriComponentsBuilder.fromRequestUri(request)
-                    .replacePath(null)
-                    .scheme("https") // HTTPS 강제 적용
-                    .build()
-                    .toUriString();
+        long now = System.currentTimeMillis();
+        BookBuild bookBuild = BookBuild.builder()
+                .bookId(bookId)
+                .gameId(game.getGameId())
+                .state(BookBuild.State.BUILDING)
+                .stage(BookBuild.Stage.ASSETS)
+                .drawingStyle(game.getDrawingStyle())
+                .baseUrl(baseUrl)
+                .createdAt(now)
+                .build();
+        updateBookBuild(bookBuild);
+
+        log.info("[BookBuild] 책 만들기 시작 - gameId: {}, bookId: {}", game.getGameId(), bookId);
+        runBookBuild(bookId);
+        return bookBuild;
+    }
+
+    //책 만들기가 READY/FAILED가 되면 완료되는 Mono (최대 BOOK_BUILD_SYNC_TIMEOUT, 넘으면 시작 시점의 진행 상태)
+    //다른 인스턴스가 진행해도 Redis에 저장된 상태로 확인, 조회가 밀리면 그 주기는 건너뜀
+    private Mono<BookBuild> awaitBookBuild(BookBuild bookBuild) {
+        return Flux.interval(Duration.ZERO, BOOK_BUILD_POLL_INTERVAL)
+                .onBackpressureDrop()
+                .publishOn(Schedulers.boundedElastic(), 1)
+                .mapNotNull(tick -> bookBuildRepository.findById(bookBuild.getBookId()))
+                .filter(current -> current.getState() != BookBuild.State.BUILDING)
+                .next()
+                .timeout(BOOK_BUILD_SYNC_TIMEOUT, Mono.fromRunnable(() ->
+                        log.warn("[BookBuild] 책 만들기 대기 시간 초과 - bookId: {}", bookBuild.getBookId())))
+                .defaultIfEmpty(bookBuild);
+    }
+
+    //재시작 등으로 멈춘 책 만들기를 이어서 진행 (진행 중인 인스턴스의 lease가 만료된 것만 잡힘)
+    @Scheduled(fixedDelayString = "${book.build.resume-interval-ms:30000}")
+    public void resumeBookBuilds() {
+        for (String bookId : bookBuildRepository.findBuildingIds()) {
+            runBookBuild(bookId);
+        }
+    }
+
+    //lease를 잡은 인스턴스만 진행하고, 진행하는 동안 lease를 주기적으로 연장
+    //연장에 실패하면(다른 인스턴스가 가져감) 진행을 취소하고 이후 단계/상태 저장도 하지 않음
+    private void runBookBuild(String bookId) {
+        // 같은 인스턴스가 lease를 잃었다가 다시 잡아도 이전 진행과 구분되도록 진행마다 다른 값 사용
+        String lease = instanceId + ":" + UUID.randomUUID();
+        if (!bookBuildRepository.acquireLease(bookId, lease, BOOK_BUILD_LEASE)) {
+            return;
+        }
+
+        AtomicBoolean leaseLost = new AtomicBoolean();
+        Sinks.Empty<Void> leaseLostSignal = Sinks.empty();
+        Disposable renewal = Flux.interval(BOOK_BUILD_LEASE_RENEW_INTERVAL)
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(tick -> {
+                    if (!bookBuildRepository.renewLease(bookId, lease, BOOK_BUILD_LEASE)) {
+                        log.warn("[BookBuild] lease 만료 - 진행 중단 - bookId: {}", bookId);
+                        leaseLost.set(true);
+                        leaseLostSignal.tryEmitEmpty();
+                    }
+                }, e -> log.warn("[BookBuild] lease 연장 실패 - bookId: {}, {}", bookId, e.getMessage()));
+
+        // 표지 생성, S3 업로드, JPA 저장 모두 블로킹 호출이므로 별도 스레드에서 진행
+        Mono.fromRunnable(() -> runBookBuildStages(bookId, lease, leaseLost))
+                .subscribeOn(Schedulers.boundedElastic())
+                .takeUntilOther(leaseLostSignal.asMono())
+                .doFinally(signal -> {
+                    renewal.dispose();
+                    bookBuildRepository.releaseLease(bookId, lease);
+                })
+                .subscribe(null, e -> log.error("[BookBuild] 책 만들기 중 오류 - bookId: {}", bookId, e));
+    }
 
+    //저장된 단계부터 이어서 진행 (단계가 끝날 때마다 저장)
+    //상태 저장은 lease가 아직 내 것일 때만 되고, lease를 잃으면 BookBuildLeaseLostException으로 중단
+    private void runBookBuildStages(String bookId, String lease, AtomicBoolean leaseLost) {
+        BookBuild bookBuild = bookBuildRepository.findById(bookId);
+        if (bookBuild == null) {
+            bookBuildRepository.removeBuilding(bookId);
+            return;
+        }
+        if (bookBuild.getState() != BookBuild.State.BUILDING) {
+            return;
+        }
 
-            List<Scene> sceneList = sceneRedisList.stream()
-                    .filter(sceneRedis -> sceneRedis.getSceneOrder() != 0)
-                    .map(sceneRedis -> {
-                        Scene scene1 = new Scene(
-                                sceneRedis.getSceneOrder(),
-                                sceneRedis.getPrompt(),
-                                baseUrl + "/images/s3/downloadFromS3?objectKey=" + book.getBookId() + "/" + sceneRedis.getSceneOrder() + ".png"
-                        );
-                        scene1.setBook(book);
-                        return scene1;
-                    })
-                    .toList();
+        bookBuild.setAttempts(bookBuild.getAttempts() + 1);
+        log.info("[BookBuild] 책 만들기 진행 - bookId: {}, gameId: {}, 단계: {}, 시도: {}",
+                bookId, bookBuild.getGameId(), bookBuild.getStage(), bookBuild.getAttempts());
 
-            book.setImageUrl(baseUrl+"/images/s3/downloadFromS3?objectKey="+book.getBookId()+"/0.png"); //책 표지 url
-            book.setScenes(sceneList);
+        try {
+            if (bookBuild.getStage() == BookBuild.Stage.ASSETS) {
+                // scene 이미지는 표지와 무관하므로 표지 생성을 기다리지 않고 바로 업로드 → 전체 시간은 max(표지, 업로드)
+                Mono<Boolean> scenes = Mono.fromCallable(() -> uploadBookScenes(bookBuild, lease))
+                        .subscribeOn(Schedulers.boundedElastic());
+                Mono<Boolean> cover = Mono.fromCallable(() -> buildAndUploadBookCover(bookBuild, lease, leaseLost))
+                        .subscribeOn(Schedulers.boundedElastic());
+                // 한쪽이 실패해도 다른 쪽은 끝까지 진행 (저장된 페이지는 재시도 때 건너뜀)
+                Mono.zipDelayError(scenes, cover).block();
+                checkBookBuildLease(bookId, lease, leaseLost);
+                advanceBookBuild(bookBuild, lease, BookBuild.Stage.SAVE);
+            }
 
+            if (bookBuild.getStage() == BookBuild.Stage.SAVE) {
+                checkBookBuildLease(bookId, lease, leaseLost);
+                timeBookBuildStage("save", () -> saveBook(bookBuild));
+                advanceBookBuild(bookBuild, lease, BookBuild.Stage.CLEANUP);
+            }
 
-            bookRepository.save(book);
+            if (bookBuild.getStage() == BookBuild.Stage.CLEANUP) {
+                checkBookBuildLease(bookId, lease, leaseLost);
+                timeBookBuildStage("cleanup", () -> {
+                    //redis에 저장됐던 scene 데이터들 삭제
+                    sceneRepository.deleteAllByGameId(bookBuild.getGameId());
 
-            //redis에 저장됐던 scene 데이터들 삭제
-            sceneRepository.deleteAllByGameId(deleteGameRequest.getGameId());
+                    //게임 데이터 삭제
+                    Game game = gameRepository.findById(bookBuild.getGameId());
+                    if (game != null) {
+                        gameRepository.delete(game);
+                    }
+                });
+
+                bookBuild.setBookCover(bookCoverUrl(bookBuild));
+                bookBuild.setState(BookBuild.State.READY);
+                bookBuild.setStage(BookBuild.Stage.DONE);
+                updateBookBuild(bookBuild, lease);
+                meterRegistry.timer("book.build.total")
+                        .record(Duration.ofMillis(bookBuild.getUpdatedAt() - bookBuild.getCreatedAt()));
+                log.info("[BookBuild] 책 만들기 완료 - bookId: {}, 제목: [{}]", bookId, bookBuild.getTitle());
+            }
+        } catch (Exception e) {
+            if (leaseLost.get() || Exceptions.unwrapMultiple(e).stream().anyMatch(BookBuildLeaseLostException.class::isInstance)) {
+                // 다른 인스턴스가 이어서 진행하므로 상태를 덮어쓰지 않음
+                log.warn("[BookBuild] lease를 잃어 {} 단계에서 중단 - bookId: {}", bookBuild.getStage(), bookId);
+                return;
+            }
+            if (Exceptions.unwrapMultiple(e).stream().anyMatch(BookAssetsMissingException.class::isInstance)) {
+                //S3에 올릴 이미지가 없는 경우 (다시 시도해도 복구 불가)
+                log.error("[BookBuild] s3 이미지 저장 실패 - bookId: {}, {}", bookId, e.getMessage());
+                s3service.discardStaged(bookBuild.getGameId());
+                sceneRepository.deleteAllByGameId(bookBuild.getGameId());
+                failBookBuild(bookBuild, lease, "s3에 이미지 저장 중 에러 발생");
+                return;
+            }
+            // 일시적인 오류일 수 있으므로 재개 주기에 다시 시도, 여러 번 실패하면 포기
+            log.error("[BookBuild] {} 단계 실패 - bookId: {}, 시도: {}", bookBuild.getStage(), bookId, bookBuild.getAttempts(), e);
+            if (bookBuild.getAttempts() >= BOOK_BUILD_MAX_ATTEMPTS) {
+                failBookBuild(bookBuild, lease, "책 생성 중 오류가 발생했습니다.");
+            } else {
+                updateBookBuild(bookBuild, lease);
+            }
+        }
+    }
 
-            //게임 데이터 삭제
-            gameRepository.delete(game);
+    //scene 이미지 S3 업로드 (이미 끝났으면 건너뜀)
+    //이전 시도에서 저장된 페이지는 다시 올리지 않고, 모든 페이지가 저장돼야 완료로 기록
+    private boolean uploadBookScenes(BookBuild bookBuild, String lease) {
+        if (bookBuild.isScenesUploaded()) {
+            return true;
+        }
 
+        UploadManifest manifest = timeBookBuildStage("scene-upload", () -> s3service.uploadScenes(
+                bookBuild.getGameId(), bookBuild.getBookId(), bookBuildRepository.findStoredPages(bookBuild.getBookId())));
+        bookBuildRepository.addStoredPages(bookBuild.getBookId(), manifest.storedPages());
 
-            FinishGameResponse finishGameResponse = FinishGameResponse.builder()
-                    .bookId(book.getBookId())
-                    .bookCover(book.getImageUrl())
-                    .title(book.getTitle())
-                    .build();
+        if (manifest.getPages().isEmpty()) {
+            throw new BookAssetsMissingException("책으로 만들 scene이 없습니다.");
+        }
+        if (manifest.hasMissing()) {
+            // 원본 이미지가 사라진 페이지는 다시 시도해도 복구할 수 없음
+            throw new BookAssetsMissingException("이미지가 없는 scene: " + manifest.pagesWith(UploadManifest.Status.MISSING));
+        }
+        if (!manifest.isComplete()) {
+            // 실패한 페이지만 다음 재개 주기에 다시 업로드
+            throw new IllegalStateException("scene 업로드 실패: " + manifest.pagesWith(UploadManifest.Status.FAILED));
+        }
 
-            return ApiResponseUtil.success(finishGameResponse,"책 생성 완료"
-                    ,HttpStatus.CREATED,request.getRequestURI());
+        synchronized (bookBuild) {
+            bookBuild.setScenesUploaded(true);
+            updateBookBuild(bookBuild, lease);
         }
+        return true;
+    }
 
+    //제목/표지 생성(이미 생성됐으면 저장된 표지 사용) 후 표지 S3 업로드
+    private boolean buildAndUploadBookCover(BookBuild bookBuild, String lease, AtomicBoolean leaseLost) {
+        if (bookBuild.isCoverUploaded()) {
+            return true;
+        }
 
-        try {
-            webClient.post()  //post형식으로 webClient의 요청을 보냄.
-                    .uri("/generate").accept(MediaType.APPLICATION_JSON) //json으로 응답받음.
-                    .bodyValue(generateSceneRequest) //RequestBody로 보낼 객체
-                    .retrieve()
-                    .bodyToMono(String.class) //응답의 본문(body)만 가져옴.
-                    .block(); //이미지를 다 받고 프론트에 보내야 하므로 동기방식 채택
-        } catch (WebClientException e) { //GPU 서버에서 에러 반환 시
-            return ApiResponseUtil.failure("GPU 서버 통신 중 오류 발생 : ",
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    request.getRequestURI());
+        byte[] coverImage;
+        if (bookBuild.getTitle() == null) {
+            coverImage = timeBookBuildStage("cover", () -> buildBookCover(bookBuild, lease, leaseLost));
+            synchronized (bookBuild) {
+                updateBookBuild(bookBuild, lease);
+            }
+        } else {
+            coverImage = sceneRepository.findAllByGameId(bookBuild.getGameId()).stream()
+                    .filter(sceneRedis -> sceneRedis.getSceneOrder() == 0)
+                    .findFirst()
+                    .map(sceneRepository::findImage)
+                    .orElse(null);
         }
 
-        //redis에 저장됐던 scene 데이터들 삭제
-        sceneRepository.deleteAllByGameId(deleteGameRequest.getGameId());
+        if (coverImage == null) {
+            // 표지 생성에 실패한 경우는 표지 없이 책을 만듦
+            log.warn("[BookBuild] 표지 이미지 없음 - bookId: {}", bookBuild.getBookId());
+            return false;
+        }
 
-        //게임 데이터 삭제
-        gameRepository.delete(game);
+        boolean uploaded = timeBookBuildStage("cover-upload",
+                () -> s3service.uploadCover(bookBuild.getBookId(), coverImage));
+        if (!uploaded) {
+            throw new IllegalStateException("표지 업로드 실패");
+        }
 
-        return ApiResponseUtil.success(null,
-                "게임 데이터 삭제 성공",
-                HttpStatus.OK,
-                request.getRequestURI());
+        synchronized (bookBuild) {
+            bookBuild.setCoverUploaded(true);
+            updateBookBuild(bookBuild, lease);
+        }
+        return true;
+    }
 
+    //다시 시도해도 복구할 수 없는 책 이미지 누락 (scene이 없거나 원본 이미지가 사라짐)
+    private static class BookAssetsMissingException extends RuntimeException {
+        BookAssetsMissingException(String message) {
+            super(message);
+        }
     }
 
+    //lease를 잃은 뒤 저장된 상태로 보이는 작업을 하지 않도록 확인 (이어받은 인스턴스가 같은 작업을 함)
+    private static class BookBuildLeaseLostException extends RuntimeException {
+        BookBuildLeaseLostException(String bookId) {
+            super("책 만들기 lease 만료 - bookId: " + bookId);
+        }
+    }
 
-    //엔딩카드 리롤
-    public ResponseEntity<?> shuffleEndingCard(String gameId, String userId, HttpServletRequest request) {
-        //해당 gameId를 가진 게임을 찾는다.
-        Game game = gameRepository.findById(gameId);
+    //단계 사이, 표지 scene 변경 전마다 확인 (연장 실패 표시가 늦을 수 있으므로 Redis의 lease 값도 확인)
+    private void checkBookBuildLease(String bookId, String lease, AtomicBoolean leaseLost) {
+        if (leaseLost.get() || !bookBuildRepository.holdsLease(bookId, lease)) {
+            leaseLost.set(true);
+            throw new BookBuildLeaseLostException(bookId);
+        }
+    }
 
-        if (game == null) {
-            return ApiResponseUtil.failure("해당 gameId는 존재하지 않습니다."
-                    , HttpStatus.BAD_REQUEST, request.getRequestURI());
+    //단계별 소요 시간 기록 (book.build.stage, stage=cover|cover-upload|scene-upload|save|cleanup)
+    private <T> T timeBookBuildStage(String stage, Supplier<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            meterRegistry.timer("book.build.stage", "stage", stage).record(elapsedNanos, TimeUnit.NANOSECONDS);
+            log.info("[BookBuild] {} 단계 {}ms", stage, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
         }
+    }
 
-        List<PlayerStatus> playerStatuses = game.getPlayerStatuses();
+    private void timeBookBuildStage(String stage, Runnable task) {
+        timeBookBuildStage(stage, () -> {
+            task.run();
+            return null;
+        });
+    }
 
+    //제목/표지 생성 후 표지를 0번 scene으로 저장, 표지 이미지 반환 (생성 실패 시 null)
+    private byte[] buildBookCover(BookBuild bookBuild, String lease, AtomicBoolean leaseLost) {
+        List<SceneRedis> sceneRedisList = sceneRepository.findAllByGameId(bookBuild.getGameId());
+        log.info("🎮🎮🎮 sceneRedisList 크기: {}", sceneRedisList.size());
 
-        for (PlayerStatus playerStatus : playerStatuses) {
-            //게임 플레이어 중의 userId가 있다면
-            if (playerStatus.getUserId().equals(userId)) {
+        CoverResult cover = generateBookCoverOrDefault(sceneRedisList, bookBuild.getGameId(), bookBuild.getDrawingStyle());
 
-                //이 게임에서 사용되는 엔딩카드 리스트에서 한장을 뽑는다.
-                playerStatus.setEndingCard(game.getEndingCardlist().get(0));
+        // 표지 생성이 오래 걸리므로 그동안 lease를 잃었으면 이어받은 인스턴스의 표지를 건드리지 않음
+        checkBookBuildLease(bookBuild.getBookId(), lease, leaseLost);
 
-                //뽑은 카드는 엔딩카드 리스트에서 삭제한다.
-                game.getEndingCardlist().remove(0);
+        // 표지 저장 후 단계 저장 전에 멈췄다가 다시 진행하는 경우 이전 표지를 지움
+        sceneRedisList.stream()
+                .filter(sceneRedis -> sceneRedis.getSceneOrder() == 0)
+                .forEach(sceneRepository::delete);
 
-                //game data를 업데이트 한다.
-                gameRepository.update(game);
+        //정상적인 게임 종료 시 책표지 생성
+        SceneRedis scene = SceneRedis.builder()
+                .id(UUID.randomUUID().toString())
+                .gameId(bookBuild.getGameId())
+                .image(cover.getImageBytes())  // 새 API로 생성된 바이너리 이미지 데이터 저장
+                .sceneOrder(0) //책 표지는 순서가 0
+                .build();
 
-                return ApiResponseUtil.success(playerStatus.getEndingCard(),
-                        "EndingCard 리롤 성공",
-                        HttpStatus.OK,
-                        request.getRequestURI());
+        sceneRepository.save(scene); //책 표지를 0번으로 저장
+        bookBuild.setTitle(cover.getTitle());
+        return cover.getImageBytes();
+    }
+
+    //Book, Scene 저장 (이미 저장된 책이면 건너뜀)
+    private void saveBook(BookBuild bookBuild) {
+        if (!bookRepository.findBookByBookId(bookBuild.getBookId()).isEmpty()) {
+            return;
+        }
+
+        List<SceneRedis> sceneRedisList = sceneRepository.findAllByGameId(bookBuild.getGameId());
+        String baseUrl = bookBuild.getBaseUrl();
+
+        Book book = Book.builder()
+                .bookId(bookBuild.getBookId())
+                .title(bookBuild.getTitle())
+                .build();
+
+        List<Scene> sceneList = sceneRedisList.stream()
+                .filter(sceneRedis -> sceneRedis.getSceneOrder() != 0)
+                .map(sceneRedis -> {
+                    Scene scene1 = new Scene(
+                            sceneRedis.getSceneOrder(),
+                            sceneRedis.getPrompt(),
+                            baseUrl + "/images/s3/downloadFromS3?objectKey=" + book.getBookId() + "/" + sceneRedis.getSceneOrder() + ".png"
+                    );
+                    scene1.setBook(book);
+                    return scene1;
+                })
+                .toList();
+
+        book.setImageUrl(bookCoverUrl(bookBuild)); //책 표지 url
+        book.setScenes(sceneList);
+
+        bookRepository.save(book);
+    }
+
+    private String bookCoverUrl(BookBuild bookBuild) {
+        return bookBuild.getBaseUrl() + "/images/s3/downloadFromS3?objectKey=" + bookBuild.getBookId() + "/0.png";
+    }
+
+    private void advanceBookBuild(BookBuild bookBuild, String lease, BookBuild.Stage stage) {
+        bookBuild.setStage(stage);
+        updateBookBuild(bookBuild, lease);
+    }
+
+    private void failBookBuild(BookBuild bookBuild, String lease, String error) {
+        bookBuild.setState(BookBuild.State.FAILED);
+        bookBuild.setError(error);
+        updateBookBuild(bookBuild, lease);
+    }
+
+    //진행 상태 저장 후 같은 게임 구독자에게 알림 (lease를 잡기 전 처음 상태 저장용)
+    //표지/scene 업로드가 동시에 진행되므로 한쪽이 저장한 값을 다른 쪽이 이전 값으로 덮어쓰지 않게 잠금
+    private void updateBookBuild(BookBuild bookBuild) {
+        synchronized (bookBuild) {
+            bookBuild.setUpdatedAt(System.currentTimeMillis());
+            bookBuildRepository.save(bookBuild);
+            gameEventPublisher.publish(bookBuild.getGameId(), "book-build", bookBuild);
+        }
+    }
+
+    //진행 중 상태 저장, lease가 아직 내 것일 때만 저장 (확인과 저장을 스크립트 하나로 처리)
+    //lease를 잃은 인스턴스가 이어받은 인스턴스의 진행 상태를 이전 값으로 덮어쓰지 않음
+    private void updateBookBuild(BookBuild bookBuild, String lease) {
+        synchronized (bookBuild) {
+            bookBuild.setUpdatedAt(System.currentTimeMillis());
+            if (!bookBuildRepository.saveIfLeaseHeld(bookBuild, lease)) {
+                throw new BookBuildLeaseLostException(bookBuild.getBookId());
             }
+            gameEventPublisher.publish(bookBuild.getGameId(), "book-build", bookBuild);
         }
+    }
 
-        return ApiResponseUtil.failure("해당 userId는 존재하지 않습니다.",
-                HttpStatus.BAD_REQUEST, request.getRequestURI());
+    //Python 서비스로 제목/표지 생성, 실패하면 기본 제목과 빈 표지
+    private CoverResult generateBookCoverOrDefault(List<SceneRedis> sceneRedisList, String gameId, int drawingStyle) {
+        // 새로운 API 시스템: OpenAI GPT + Gemini로 표지 생성
+        String bookTitle = "아주 먼 옛날"; // 기본값
+        byte[] coverImageBytes = null; // 기본값
+        
+        try {
+            log.info("🎮🎮🎮 === Python 서비스로 제목 생성 및 표지 이미지 생성 시작 ===");
+            // Python 서비스로 제목 생성과 표지 이미지 생성을 통합 처리
+            Map<String, Object> coverData = generateCoverDataViaPython(sceneRedisList, gameId, drawingStyle);
+
+            bookTitle = (String) coverData.get("title");
+            coverImageBytes = (byte[]) coverData.get("imageData");
+
+            log.info("🎮🎮🎮 Python 서비스로 생성된 제목: [{}]", bookTitle);
+            log.info("🎮🎮🎮 Python 서비스로 생성된 표지 이미지 크기: {} bytes", coverImageBytes.length);
+            
+            if (bookTitle == null || bookTitle.trim().isEmpty()) {
+                log.error("🎮🎮🎮 제목이 null이거나 비어있음!");
+                throw new RuntimeException("제목 생성 실패 - 빈 제목");
+            }
+            
+            if (coverImageBytes == null || coverImageBytes.length == 0) {
+                log.error("🎮🎮🎮 이미지가 null이거나 크기가 0!");
+                throw new RuntimeException("이미지 생성 실패 - 빈 이미지");
+            }
+            
+        } catch (Exception e) {
+            log.error("🎮🎮🎮 ❌❌❌ 표지 생성 중 오류 발생 ❌❌❌");
+            log.error("🎮🎮🎮 에러 타입: {}", e.getClass().getName());
+            log.error("🎮🎮🎮 에러 메시지: {}", e.getMessage());
+            log.error("🎮🎮🎮 스택 트레이스:", e);
+            
+            // 단계별로 어디서 실패했는지 확인
+            String errorLocation = "알 수 없는 위치";
+            if (e.getMessage() != null) {
+                if (e.getMessage().contains("GPT") || e.getMessage().contains("제목")) {
+                    errorLocation = "제목 생성 단계";
+                } else if (e.getMessage().contains("Gemini") || e.getMessage().contains("이미지") || e.getMessage().contains("표지")) {
+                    errorLocation = "이미지 생성 단계";
+                }
+            }
+            
+            log.error("🎮🎮🎮 실패 위치: {}", errorLocation);
+            
+            // 실패 시에도 기본값으로 처리하여 게임이 완료되도록 함
+            log.warn("🎮🎮🎮 표지 생성 실패 - 기본값으로 게임 완료 진행");
+            log.info("🎮🎮🎮 기본값으로 책 생성 계속 진행: 제목=[{}], 이미지=null", bookTitle);
+            // bookTitle과 coverImageBytes는 이미 기본값으로 초기화됨
+        }
+
+        // 제목만 빈 채로 실패한 경우에도 기본 제목 사용
+        if (bookTitle == null || bookTitle.trim().isEmpty()) {
+            bookTitle = "아주 먼 옛날";
+        }
+        return new CoverResult(bookTitle, coverImageBytes);
+    }
+
+
+    //엔딩카드 리롤
+    public ResponseEntity<?> shuffleEndingCard(String gameId, String userId, HttpServletRequest request) {
+        //이 게임에서 사용되는 엔딩카드 덱에서 한장을 뽑아 플레이어의 엔딩카드로 지정한다. (Redis 스크립트로 한 번에 처리)
+        CardOperationResult result = gameRepository.drawEndingCard(gameId, userId);
+
+        switch (result.getStatus()) {
+            case GAME_NOT_FOUND:
+                return ApiResponseUtil.failure("해당 gameId는 존재하지 않습니다."
+                        , HttpStatus.BAD_REQUEST, request.getRequestURI());
+            case PLAYER_NOT_FOUND:
+                return ApiResponseUtil.failure("해당 userId는 존재하지 않습니다.",
+                        HttpStatus.BAD_REQUEST, request.getRequestURI());
+            case NO_AVAILABLE_CARD:
+                return ApiResponseUtil.failure("남은 EndingCard가 없습니다.",
+                        HttpStatus.BAD_REQUEST, request.getRequestURI());
+            default:
+                break;
+        }
+
+        return ApiResponseUtil.success(cardService.findEndingCard(result.getCardId()),
+                "EndingCard 리롤 성공",
+                HttpStatus.OK,
+                request.getRequestURI());
     }
 
 
@@ -476,50 +843,13 @@ public class GameService {
     public ResponseEntity<?> refreshStoryCard(String gameId, String userId, int cardId, java.util.List<Integer> excludeCardIds, HttpServletRequest request) {
         log.info("[refreshStoryCard] 이야기카드 새로고침 요청: gameId={}, userId={}, cardId={}, excludeCardIds={}", gameId, userId, cardId, excludeCardIds);
 
-        //해당 gameId를 가진 게임 조회
-        Game game = gameRepository.findById(gameId);
-        if (game == null) {
-            return ApiResponseUtil.failure("해당 gameId는 존재하지 않습니다.",
-                    HttpStatus.BAD_REQUEST, request.getRequestURI());
-        }
-
-        //해당 userId를 가진 플레이어 찾기
-        PlayerStatus playerStatus = null;
-        for (PlayerStatus status : game.getPlayerStatuses()) {
-            if (status.getUserId().equals(userId)) {
-                playerStatus = status;
-                break;
-            }
-        }
-
-        if (playerStatus == null) {
-            return ApiResponseUtil.failure("해당 userId는 게임에 존재하지 않습니다.",
-                    HttpStatus.BAD_REQUEST, request.getRequestURI());
-        }
-
-        //새로고침 횟수 체크
-        if (playerStatus.getRefreshCount() <= 0) {
-            return ApiResponseUtil.failure("이야기카드 새로고침 횟수를 모두 사용했습니다.",
-                    HttpStatus.BAD_REQUEST, request.getRequestURI());
-        }
-
-        //교체할 카드가 플레이어의 카드 목록에 있는지 확인
-        StoryCard targetCard = null;
-        for (StoryCard card : playerStatus.getStoryCards()) {
-            if (card.getId() == cardId) {
-                targetCard = card;
-                break;
-            }
-        }
-
+        //교체할 카드의 속성 확인 (소유 여부는 스크립트에서 확인)
+        StoryCard targetCard = cardService.findStoryCard(cardId);
         if (targetCard == null) {
             return ApiResponseUtil.failure("해당 카드는 플레이어가 소유하지 않습니다.",
                     HttpStatus.BAD_REQUEST, request.getRequestURI());
         }
 
-        //같은 속성의 새로운 카드 가져오기
-        String attribute = targetCard.getAttribute();
-
         // 제외할 카드 ID 목록 생성 (현재 카드 + 다른 플레이어 카드들)
         java.util.Set<Integer> excludeIds = new java.util.HashSet<>();
         excludeIds.add(cardId); // 현재 카드 제외
@@ -529,36 +859,40 @@ public class GameService {
             log.info("[refreshStoryCard] 제외할 카드 ID 목록: {}", excludeIds);
         }
 
-        // 같은 속성의 모든 카드를 가져와서 필터링
-        List<StoryCard> availableCards = cardService.getAllStoryCardsByAttribute(attribute).stream()
-                .filter(card -> !excludeIds.contains(card.getId())) // 제외 목록에 없는 카드만
-                .collect(java.util.stream.Collectors.toList());
+        // 같은 속성의 카드를 섞어서 제외 목록에 없는 카드만 후보로 사용 (스크립트가 이 게임에서 아무도 들고 있지 않은 첫 카드를 고름)
+        List<Integer> candidateIds = cardService.getRefreshCandidateIds(cardId, excludeIds);
 
-        // 리스트를 섞어서 랜덤하게 선택
-        java.util.Collections.shuffle(availableCards);
+        //카드 교체와 새로고침 횟수 차감을 한 번에 처리
+        CardOperationResult result = gameRepository.refreshStoryCard(gameId, userId, cardId, candidateIds);
 
-        if (availableCards.isEmpty()) {
-            return ApiResponseUtil.failure("새로고침할 카드가 없습니다.",
-                    HttpStatus.INTERNAL_SERVER_ERROR, request.getRequestURI());
+        switch (result.getStatus()) {
+            case GAME_NOT_FOUND:
+                return ApiResponseUtil.failure("해당 gameId는 존재하지 않습니다.",
+                        HttpStatus.BAD_REQUEST, request.getRequestURI());
+            case PLAYER_NOT_FOUND:
+                return ApiResponseUtil.failure("해당 userId는 게임에 존재하지 않습니다.",
+                        HttpStatus.BAD_REQUEST, request.getRequestURI());
+            case NO_REMAINING_COUNT:
+                return ApiResponseUtil.failure("이야기카드 새로고침 횟수를 모두 사용했습니다.",
+                        HttpStatus.BAD_REQUEST, request.getRequestURI());
+            case CARD_NOT_OWNED:
+                return ApiResponseUtil.failure("해당 카드는 플레이어가 소유하지 않습니다.",
+                        HttpStatus.BAD_REQUEST, request.getRequestURI());
+            case NO_AVAILABLE_CARD:
+                return ApiResponseUtil.failure("새로고침할 카드가 없습니다.",
+                        HttpStatus.INTERNAL_SERVER_ERROR, request.getRequestURI());
+            default:
+                break;
         }
 
-        //새로운 카드로 교체
-        StoryCard newCard = availableCards.get(0);
-        playerStatus.getStoryCards().removeIf(card -> card.getId() == cardId);
-        playerStatus.getStoryCards().add(newCard);
-
-        //새로고침 횟수 차감
-        playerStatus.setRefreshCount(playerStatus.getRefreshCount() - 1);
-
-        //게임 데이터 업데이트
-        gameRepository.update(game);
+        StoryCard newCard = cardService.findStoryCard(result.getCardId());
 
         log.info("[refreshStoryCard] 이야기카드 새로고침 완료: {} -> {}", targetCard.getKeyword(), newCard.getKeyword());
 
         // 응답 데이터에 업데이트된 refreshCount 포함
         java.util.Map<String, Object> responseData = new java.util.HashMap<>();
         responseData.put("newCard", newCard);
-        responseData.put("refreshCount", playerStatus.getRefreshCount());
+        responseData.put("refreshCount", result.getRemainingCount());
 
         return ApiResponseUtil.success(responseData,
                 "이야기카드 새로고침 성공",
@@ -570,75 +904,39 @@ public class GameService {
     public ResponseEntity<?> exchangeStoryCard(CardExchangeRequest exchangeRequest, HttpServletRequest request) {
         log.info("[exchangeStoryCard] 이야기카드 교환 요청: {}", exchangeRequest.toString());
 
-        //게임 조회
-        Game game = gameRepository.findById(exchangeRequest.getGameId());
-        if (game == null) {
-            return ApiResponseUtil.failure("해당 gameId는 존재하지 않습니다.",
-                    HttpStatus.BAD_REQUEST, request.getRequestURI());
-        }
-
-        //신청자와 대상자 찾기
-        PlayerStatus fromPlayer = null;
-        PlayerStatus toPlayer = null;
-
-        for (PlayerStatus status : game.getPlayerStatuses()) {
-            if (status.getUserId().equals(exchangeRequest.getFromUserId())) {
-                fromPlayer = status;
-            }
-            if (status.getUserId().equals(exchangeRequest.getToUserId())) {
-                toPlayer = status;
-            }
-        }
-
-        if (fromPlayer == null || toPlayer == null) {
-            return ApiResponseUtil.failure("플레이어를 찾을 수 없습니다.",
-                    HttpStatus.BAD_REQUEST, request.getRequestURI());
-        }
-
         //교환 처리 ("accepted" 상태인 경우)
         if ("accepted".equals(exchangeRequest.getStatus())) {
-            //교환 횟수 체크
-            if (fromPlayer.getExchangeCount() <= 0 || toPlayer.getExchangeCount() <= 0) {
-                return ApiResponseUtil.failure("교환 횟수를 모두 사용했습니다.",
-                        HttpStatus.BAD_REQUEST, request.getRequestURI());
-            }
-
-            //카드 찾기
-            StoryCard fromCard = fromPlayer.getStoryCards().stream()
-                    .filter(card -> card.getId() == exchangeRequest.getFromCardId())
-                    .findFirst()
-                    .orElse(null);
-
-            StoryCard toCard = toPlayer.getStoryCards().stream()
-                    .filter(card -> card.getId() == exchangeRequest.getToCardId())
-                    .findFirst()
-                    .orElse(null);
-
-            if (fromCard == null || toCard == null) {
-                return ApiResponseUtil.failure("교환할 카드를 찾을 수 없습니다.",
-                        HttpStatus.BAD_REQUEST, request.getRequestURI());
+            //두 플레이어의 카드 교환과 교환 횟수 차감을 한 번에 처리
+            CardOperationResult result = gameRepository.exchangeStoryCard(exchangeRequest.getGameId(),
+                    exchangeRequest.getFromUserId(), exchangeRequest.getFromCardId(),
+                    exchangeRequest.getToUserId(), exchangeRequest.getToCardId());
+
+            switch (result.getStatus()) {
+                case GAME_NOT_FOUND:
+                    return ApiResponseUtil.failure("해당 gameId는 존재하지 않습니다.",
+                            HttpStatus.BAD_REQUEST, request.getRequestURI());
+                case PLAYER_NOT_FOUND:
+                    return ApiResponseUtil.failure("플레이어를 찾을 수 없습니다.",
+                            HttpStatus.BAD_REQUEST, request.getRequestURI());
+                case NO_REMAINING_COUNT:
+                    return ApiResponseUtil.failure("교환 횟수를 모두 사용했습니다.",
+                            HttpStatus.BAD_REQUEST, request.getRequestURI());
+                case CARD_NOT_OWNED:
+                    return ApiResponseUtil.failure("교환할 카드를 찾을 수 없습니다.",
+                            HttpStatus.BAD_REQUEST, request.getRequestURI());
+                default:
+                    break;
             }
 
-            //카드 교환 수행
-            fromPlayer.getStoryCards().remove(fromCard);
-            fromPlayer.getStoryCards().add(toCard);
-            toPlayer.getStoryCards().remove(toCard);
-            toPlayer.getStoryCards().add(fromCard);
+            StoryCard toCard = cardService.findStoryCard(result.getCardId());
 
-            //교환 횟수 차감
-            fromPlayer.setExchangeCount(fromPlayer.getExchangeCount() - 1);
-            toPlayer.setExchangeCount(toPlayer.getExchangeCount() - 1);
-
-            //게임 데이터 업데이트
-            gameRepository.update(game);
-
-            log.info("[exchangeStoryCard] 카드 교환 완료: {} <-> {}", fromCard.getKeyword(), toCard.getKeyword());
+            log.info("[exchangeStoryCard] 카드 교환 완료: {} <-> {}", exchangeRequest.getFromCardId(), exchangeRequest.getToCardId());
 
             CardExchangeResponse response = CardExchangeResponse.builder()
                     .status("success")
                     .message("카드 교환이 완료되었습니다.")
                     .newCard(toCard)
-                    .remainingExchangeCount(fromPlayer.getExchangeCount())
+                    .remainingExchangeCount(result.getRemainingCount())
                     .build();
 
             return ApiResponseUtil.success(response,
@@ -647,7 +945,24 @@ public class GameService {
                     request.getRequestURI());
         }
 
-        //그 외의 경우 (신청 접수 등)는 단순히 성공 응답
+        //그 외의 경우 (신청 접수 등)는 게임과 플레이어만 확인하고 성공 응답
+        Game game = gameRepository.findById(exchangeRequest.getGameId());
+        if (game == null) {
+            return ApiResponseUtil.failure("해당 gameId는 존재하지 않습니다.",
+                    HttpStatus.BAD_REQUEST, request.getRequestURI());
+        }
+
+        boolean playersExist = game.getPlayerStatuses().stream()
+                .map(PlayerStatus::getUserId)
+                .filter(userId -> userId.equals(exchangeRequest.getFromUserId()) || userId.equals(exchangeRequest.getToUserId()))
+                .distinct()
+                .count() == 2;
+
+        if (!playersExist) {
+            return ApiResponseUtil.failure("플레이어를 찾을 수 없습니다.",
+                    HttpStatus.BAD_REQUEST, request.getRequestURI());
+        }
+
         return ApiResponseUtil.success(null,
                 "교환 요청 처리 완료",
                 HttpStatus.OK,
@@ -864,7 +1179,8 @@ public class GameService {
             log.info("Python 표지 생성 서비스 호출 요청: gameId={}, drawingStyle={}", gameId, drawingStyle);
 
             // Python 서비스 호출 (JSON 응답: title + base64 이미지)
-            Map<String, Object> responseData = pythonImageServiceClient
+            // 게임 컨텍스트(등장인물 레퍼런스)를 가진 백엔드로 전송
+            Map<String, Object> responseData = imageBackendBalancer.exchange(gameId, drawingStyle, client -> client
                 .post()
                 .uri("/generate-cover")
                 .bodyValue(requestBody)
@@ -876,7 +1192,7 @@ public class GameService {
                         return Mono.error(new RuntimeException("Python 표지 생성 서비스 에러: " + clientResponse.statusCode()));
                     }
                 )
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {}))
                 .block();
 
             if (responseData == null) {
@@ -1129,13 +1445,14 @@ public class GameService {
         
         try {
             // Python 서비스 /generate-cover 엔드포인트 호출
-            String response = pythonImageServiceClient
+            // 시연용 gameId는 게임 컨텍스트가 없으므로 그림체 선호 백엔드로 전송 (늦으면 다른 백엔드로 헤지)
+            String response = imageBackendBalancer.exchangeHedged(null, drawingStyle, client -> client
                 .post()
                 .uri("/generate-cover")
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(requestBody)
                 .retrieve()
-                .bodyToMono(String.class)
+                .bodyToMono(String.class))
                 .timeout(Duration.ofMinutes(5))
                 .block();
             
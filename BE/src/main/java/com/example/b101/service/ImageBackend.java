@@ -0,0 +1,71 @@
+package com.example.b101.service;
+
+import com.example.b101.common.AimdLimiter;
+import com.example.b101.common.CircuitBreaker;
+import lombok.Getter;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 이미지 생성 백엔드(GPU 노드) 하나의 상태
+ *  - outstanding : 지금 처리 중인 요청 수
+ *  - latencyMs   : 최근 응답 시간 EWMA (처음에는 이미지 생성 평균 정도로 시작)
+ *  - healthy     : 헬스 체크 결과 (실패한 백엔드는 다시 성공할 때까지 라우팅에서 빠짐)
+ *  - limiter     : 이미지 생성(장면/표지) 동시 요청 제한
+ *  - breaker     : 연속 실패 시 요청을 바로 거절하는 서킷 브레이커
+ *  - backgroundOutstanding : 투표 결과 전달 등 백그라운드 요청 수 (limiter와 별도로 제한)
+ */
+@Getter
+public class ImageBackend {
+
+    private static final double EWMA_WEIGHT = 0.3;
+    private static final double INITIAL_LATENCY_MS = 20_000;
+
+    private final int index;
+    private final String url;
+    private final WebClient client;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger backgroundOutstanding = new AtomicInteger();
+    private final AimdLimiter limiter;
+    private final CircuitBreaker breaker;
+
+    private volatile double latencyMs = INITIAL_LATENCY_MS;
+    private volatile boolean healthy = true;
+
+    ImageBackend(int index, String url, WebClient client, AimdLimiter limiter, CircuitBreaker breaker) {
+        this.index = index;
+        this.url = url;
+        this.client = client;
+        this.limiter = limiter;
+        this.breaker = breaker;
+    }
+
+    //지금 보내면 바로 처리될 수 있는지 (정상 + 서킷 닫힘 + 동시 요청 여유)
+    boolean hasCapacity() {
+        return healthy && !breaker.isOpen() && limiter.hasCapacity();
+    }
+
+    //거절된 요청이 다시 시도하기까지 예상 대기 시간
+    //서킷이 열려 있으면 남은 시간, 아니면 자리 하나가 비는 평균 시간 (응답 시간 / 동시 요청 제한)
+    long estimatedWaitMs() {
+        long openMs = breaker.remainingOpenMs();
+        if (openMs > 0) {
+            return openMs;
+        }
+        return (long) (latencyMs / Math.max(1, limiter.getLimit()));
+    }
+
+    //처리 중 요청 수와 최근 응답 시간을 함께 본 부하 점수 (낮을수록 여유 있음)
+    double score() {
+        return (outstanding.get() + 1) * latencyMs;
+    }
+
+    synchronized void recordLatency(long elapsedMs) {
+        latencyMs = latencyMs * (1 - EWMA_WEIGHT) + elapsedMs * EWMA_WEIGHT;
+    }
+
+    void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+}
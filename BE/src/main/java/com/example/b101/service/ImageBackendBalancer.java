@@ -0,0 +1,488 @@
+package com.example.b101.service;
+
+import com.example.b101.common.AimdLimiter;
+import com.example.b101.common.CircuitBreaker;
+import com.example.b101.common.ConsistentHashRing;
+import com.example.b101.common.HedgeBudget;
+import com.example.b101.common.SlidingPercentile;
+import com.example.b101.config.WebClientConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * 이미지 생성 백엔드 클라이언트 측 로드밸런서
+ *
+ * 백엔드 목록은 python.image.service.url + WEBCLIENT.BASE.URL_0~8 중 설정된 주소 (주소만 추가하면 GPU 노드가 늘어남)
+ *  - 그림체(drawingStyle)가 있으면 일관된 해싱으로 그림체마다 정해진 백엔드로 보내서 해당 그림체 모델이 올라가 있는 노드를 재사용함
+ *    선호 백엔드가 비정상이거나 처리 중 요청이 image.backend.spillover-outstanding 이상이면 링 순서대로 다음 백엔드로 넘김
+ *  - 그림체가 없으면 처리 중 요청 수 x 최근 응답 시간(EWMA)이 가장 낮은 백엔드를 고름
+ *  - 주기적으로 /health를 호출해서 실패한 백엔드는 라우팅에서 뺌 (연결 실패도 바로 뺌)
+ *  - Python 서비스가 게임 컨텍스트(등장인물 등)를 메모리에 들고 있으므로
+ *    gameId가 있는 요청은 처음 고른 백엔드를 Redis(image-backend:{gameId})에 고정해서 계속 같은 곳으로 보냄
+ *    (한 게임의 그림체는 바뀌지 않으므로 게임 시작 시 그림체 기준으로 고르면 이후에도 같은 그림체 노드를 씀)
+ *
+ * 과부하 보호 (백엔드별)
+ *  - 이미지 생성 요청은 AIMD 동시 요청 제한(image.limiter.*)을 넘으면 GPU 서비스에 쌓아 두지 않고 바로 ImageBackendBusyException
+ *    응답 시간이 latency-threshold-ms를 넘거나 실패하면 제한을 줄이고, 제때 응답하면 조금씩 늘림
+ *  - 연속 실패가 image.circuit.failure-threshold번이면 image.circuit.open-ms 동안 바로 거절 (서킷 브레이커)
+ *  - 투표 결과 전달 같은 백그라운드 요청(exchangeBackground)은 이미지 생성 제한을 쓰지 않고 별도 상한(image.limiter.background-max)만 씀
+ *    이미지 생성 자리가 꽉 찼거나 서킷이 열려 있으면 백그라운드 요청은 보내지 않음
+ *
+ * 헤지 요청 (image.hedge.enabled=true 일 때, exchangeHedged)
+ *  - 그림체별 최근 응답 시간 p90까지 응답이 없으면 다른 백엔드로 같은 요청을 한 번 더 보내고 먼저 온 응답을 씀 (늦은 쪽은 취소)
+ *  - 헤지 요청은 전체 요청의 image.hedge.budget-percent % 이내로 제한
+ *  - 게임의 첫 요청(고정 백엔드가 없던 요청)은 헤지 쪽이 이기면 게임 고정 백엔드를 헤지 백엔드로 옮김
+ *  - 이미 고정된 게임도 헤지하지만 고정 백엔드는 옮기지 않음 (게임 컨텍스트는 계속 고정 백엔드에 쌓이고, 헤지는 느린 한 번만 대신함)
+ *
+ * 지표: image.style.outstanding (그림체별 처리 중 요청 수), image.style.route (result=preferred|spillover),
+ *       image.hedge (result=sent|won|denied), image.style.latency.p90 (그림체별 헤지 기준 시간),
+ *       image.backend.limit, image.backend.circuit (0=closed, 1=open, 2=half-open), image.backend.rejected (reason=limit|circuit|background)
+ */
+@Slf4j
+@Component
+public class ImageBackendBalancer {
+
+    private static final String PIN_PREFIX = "image-backend:";
+    private static final long PIN_TTL_MINUTES = 30;
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(3);
+    private static final int VIRTUAL_NODES = 100;
+    private static final int LATENCY_WINDOW = 200;
+    private static final int LATENCY_MIN_SAMPLES = 20;
+    private static final double HEDGE_PERCENTILE = 0.9;
+    private static final double HEDGE_MAX_CREDITS = 10;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int spilloverOutstanding;
+    private final List<ImageBackend> backends;
+    private final ConsistentHashRing<ImageBackend> styleRing;
+    private final Map<Integer, AtomicInteger> outstandingByStyle = new ConcurrentHashMap<>();
+    private final Map<Integer, SlidingPercentile> latencyByStyle = new ConcurrentHashMap<>();
+    private final boolean hedgeEnabled;
+    private final long hedgeMinDelayMs;
+    private final HedgeBudget hedgeBudget;
+    private final int backgroundMax;
+
+    public ImageBackendBalancer(WebClientConfig webClientConfig,
+                                WebClient.Builder webClientBuilder,
+                                StringRedisTemplate stringRedisTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${image.backend.spillover-outstanding:4}") int spilloverOutstanding,
+                                @Value("${image.hedge.enabled:false}") boolean hedgeEnabled,
+                                @Value("${image.hedge.budget-percent:10}") double hedgeBudgetPercent,
+                                @Value("${image.hedge.min-delay-ms:3000}") long hedgeMinDelayMs,
+                                @Value("${image.limiter.initial-limit:8}") int initialLimit,
+                                @Value("${image.limiter.min-limit:1}") int minLimit,
+                                @Value("${image.limiter.max-limit:32}") int maxLimit,
+                                @Value("${image.limiter.latency-threshold-ms:60000}") long latencyThresholdMs,
+                                @Value("${image.limiter.background-max:2}") int backgroundMax,
+                                @Value("${image.circuit.failure-threshold:5}") int failureThreshold,
+                                @Value("${image.circuit.open-ms:30000}") long openMs) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.spilloverOutstanding = spilloverOutstanding;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeMinDelayMs = hedgeMinDelayMs;
+        this.hedgeBudget = new HedgeBudget(hedgeBudgetPercent / 100, HEDGE_MAX_CREDITS);
+        this.backgroundMax = backgroundMax;
+
+        List<ImageBackend> configured = new ArrayList<>();
+        for (String url : webClientConfig.getImageBackendUrls()) {
+            ImageBackend backend = new ImageBackend(configured.size(), url,
+                    webClientConfig.imageServiceClient(webClientBuilder.clone(), url),
+                    new AimdLimiter(initialLimit, minLimit, maxLimit, latencyThresholdMs),
+                    new CircuitBreaker(failureThreshold, openMs));
+            configured.add(backend);
+
+            Gauge.builder("image.backend.outstanding", backend, b -> b.getOutstanding().get())
+                    .tag("backend", url).register(meterRegistry);
+            Gauge.builder("image.backend.latency", backend, ImageBackend::getLatencyMs)
+                    .tag("backend", url).baseUnit("milliseconds").register(meterRegistry);
+            Gauge.builder("image.backend.healthy", backend, b -> b.isHealthy() ? 1 : 0)
+                    .tag("backend", url).register(meterRegistry);
+            Gauge.builder("image.backend.limit", backend, b -> b.getLimiter().getLimit())
+                    .tag("backend", url).register(meterRegistry);
+            Gauge.builder("image.backend.circuit", backend, b -> b.getBreaker().getState().ordinal())
+                    .tag("backend", url).register(meterRegistry);
+        }
+        this.backends = List.copyOf(configured);
+        this.styleRing = new ConsistentHashRing<>(backends, ImageBackend::getUrl, VIRTUAL_NODES);
+
+        log.info("[ImageBackendBalancer] 이미지 백엔드 {}개: {}, 헤지 요청: {}", backends.size(), webClientConfig.getImageBackendUrls(),
+                hedgeEnabled ? hedgeBudgetPercent + "%" : "사용 안 함");
+    }
+
+    public List<ImageBackend> getBackends() {
+        return backends;
+    }
+
+    /**
+     * 투표 결과 전달, 게임 정리처럼 이미지 생성이 아닌 백그라운드 요청 (게임에 고정된 백엔드로 보냄)
+     * 이미지 생성 자리를 쓰지 않으며, 그 백엔드가 바쁘면 보내지 않고 ImageBackendBusyException
+     */
+    public <T> Mono<T> exchangeBackground(String gameId, Function<WebClient, Mono<T>> call) {
+        return Mono.fromCallable(() -> select(gameId, null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(selection -> {
+                    ImageBackend backend = selection.backend();
+                    if (!backend.hasCapacity()) {
+                        return rejectBackground(backend);
+                    }
+                    if (backend.getBackgroundOutstanding().incrementAndGet() > backgroundMax) {
+                        backend.getBackgroundOutstanding().decrementAndGet();
+                        return rejectBackground(backend);
+                    }
+                    return call.apply(backend.getClient())
+                            .doOnError(WebClientRequestException.class, e -> markUnhealthy(backend, e.getMessage()))
+                            .doFinally(signal -> backend.getBackgroundOutstanding().decrementAndGet());
+                });
+    }
+
+    /**
+     * 백엔드를 골라서 요청 (gameId가 있으면 그 게임에 고정된 백엔드, 처음이면 그림체 기준으로 고름)
+     * call에는 고른 백엔드의 WebClient(baseUrl 설정됨)가 전달됨
+     */
+    public <T> Mono<T> exchange(String gameId, Integer drawingStyle, Function<WebClient, Mono<T>> call) {
+        // 고정 백엔드 조회는 블로킹 Redis 호출이므로 별도 스레드에서 처리
+        return Mono.fromCallable(() -> select(gameId, drawingStyle))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(selection -> execute(selection.backend(), drawingStyle, call));
+    }
+
+    /**
+     * exchange와 같지만, 그림체 p90까지 응답이 없으면 다른 백엔드로 같은 요청을 한 번 더 보냄 (헤지)
+     * 헤지가 꺼져 있거나 그림체 응답 시간 표본이 부족하면 exchange와 동일하게 동작
+     * call은 두 번 호출될 수 있으므로 요청 본문을 바꾸지 않아야 함
+     */
+    public <T> Mono<T> exchangeHedged(String gameId, Integer drawingStyle, Function<WebClient, Mono<T>> call) {
+        if (!hedgeEnabled || backends.size() < 2) {
+            return exchange(gameId, drawingStyle, call);
+        }
+
+        return Mono.fromCallable(() -> select(gameId, drawingStyle))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(selection -> {
+                    hedgeBudget.onRequest();
+                    long delayMs = hedgeDelayMs(drawingStyle);
+                    if (delayMs < 0) {
+                        return execute(selection.backend(), drawingStyle, call);
+                    }
+                    // 이미 고정된 게임은 헤지가 이겨도 고정 백엔드를 그대로 둠
+                    return hedged(selection.fresh() ? gameId : null, drawingStyle, selection.backend(), delayMs, call);
+                });
+    }
+
+    //repinGameId : 헤지 쪽이 이기면 고정 백엔드를 옮길 게임 (null이면 옮기지 않음)
+    private <T> Mono<T> hedged(String repinGameId, Integer drawingStyle, ImageBackend primaryBackend, long delayMs,
+                               Function<WebClient, Mono<T>> call) {
+        AtomicBoolean primaryDone = new AtomicBoolean();
+        AtomicReference<Throwable> primaryError = new AtomicReference<>();
+
+        Mono<T> primary = execute(primaryBackend, drawingStyle, call)
+                .doOnError(primaryError::set)
+                .doFinally(signal -> primaryDone.set(true));
+
+        // 기본 요청이 이미 끝났으면(실패 포함) 헤지하지 않음
+        Mono<T> hedge = Mono.delay(Duration.ofMillis(delayMs))
+                .filter(tick -> !primaryDone.get())
+                .flatMap(tick -> {
+                    ImageBackend alternative = alternativeTo(primaryBackend, drawingStyle);
+                    if (alternative == null || !hedgeBudget.tryAcquire()) {
+                        hedgeCounter("denied");
+                        return Mono.<T>empty();
+                    }
+                    hedgeCounter("sent");
+                    log.info("[ImageBackendBalancer] {}ms 동안 응답 없어 헤지 요청 - {} -> {}",
+                            delayMs, primaryBackend.getUrl(), alternative.getUrl());
+                    return execute(alternative, drawingStyle, call)
+                            .doOnNext(result -> {
+                                hedgeCounter("won");
+                                repin(repinGameId, alternative);
+                            });
+                });
+
+        // 먼저 값을 준 쪽을 쓰고 나머지는 취소됨, 둘 다 실패하면 기본 요청의 에러를 그대로 전달
+        return Mono.firstWithValue(primary, hedge)
+                .onErrorMap(NoSuchElementException.class, e -> primaryError.get() != null ? primaryError.get() : e);
+    }
+
+    //그림체 p90 (최소 hedgeMinDelayMs), 표본이 부족하면 -1 (헤지 안 함)
+    private long hedgeDelayMs(Integer drawingStyle) {
+        long p90 = latencyWindow(drawingStyle).percentile(HEDGE_PERCENTILE);
+        return p90 < 0 ? -1 : Math.max(p90, hedgeMinDelayMs);
+    }
+
+    //헤지 보낼 백엔드: 그림체 링 순서(없으면 부하 순)에서 기본 백엔드가 아닌 정상 백엔드
+    private ImageBackend alternativeTo(ImageBackend primary, Integer drawingStyle) {
+        if (drawingStyle != null) {
+            for (ImageBackend backend : styleRing.preferenceList("style-" + drawingStyle)) {
+                if (backend != primary && backend.hasCapacity()) {
+                    return backend;
+                }
+            }
+            return null;
+        }
+
+        ImageBackend best = null;
+        for (ImageBackend backend : backends) {
+            if (backend != primary && backend.hasCapacity() && (best == null || backend.score() < best.score())) {
+                best = backend;
+            }
+        }
+        return best;
+    }
+
+    //게임의 첫 요청에서 헤지 쪽이 이겼으면 게임 컨텍스트가 그쪽에 생겼으므로 고정 백엔드를 옮김
+    private void repin(String gameId, ImageBackend backend) {
+        if (gameId == null) {
+            return;
+        }
+        Mono.fromRunnable(() -> stringRedisTemplate.opsForValue()
+                        .set(PIN_PREFIX + gameId, backend.getUrl(), PIN_TTL_MINUTES, TimeUnit.MINUTES))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> log.warn("[ImageBackendBalancer] 고정 백엔드 변경 실패 - gameId: {}, {}", gameId, e.getMessage()));
+    }
+
+    private void rejectedCounter(ImageBackend backend, String reason) {
+        meterRegistry.counter("image.backend.rejected", "backend", backend.getUrl(), "reason", reason).increment();
+    }
+
+    private void hedgeCounter(String result) {
+        meterRegistry.counter("image.hedge", "result", result).increment();
+    }
+
+    private SlidingPercentile latencyWindow(Integer drawingStyle) {
+        int style = drawingStyle != null ? drawingStyle : -1;
+        return latencyByStyle.computeIfAbsent(style, key -> {
+            SlidingPercentile window = new SlidingPercentile(LATENCY_WINDOW, LATENCY_MIN_SAMPLES);
+            Gauge.builder("image.style.latency.p90", window, w -> w.percentile(HEDGE_PERCENTILE))
+                    .tag("style", String.valueOf(key)).baseUnit("milliseconds").register(meterRegistry);
+            return window;
+        });
+    }
+
+    private <T> Mono<T> rejectBackground(ImageBackend backend) {
+        rejectedCounter(backend, "background");
+        return Mono.error(new ImageBackendBusyException(
+                "이미지 백엔드가 바빠서 백그라운드 요청을 보내지 않음 - " + backend.getUrl(), backend.estimatedWaitMs()));
+    }
+
+    //동시 요청 제한/서킷을 통과하면 요청 수/응답 시간을 기록하면서 해당 백엔드로 요청
+    <T> Mono<T> execute(ImageBackend backend, Integer drawingStyle, Function<WebClient, Mono<T>> call) {
+        return Mono.defer(() -> {
+            AimdLimiter limiter = backend.getLimiter();
+            CircuitBreaker breaker = backend.getBreaker();
+            if (!limiter.tryAcquire()) {
+                rejectedCounter(backend, "limit");
+                return Mono.<T>error(new ImageBackendBusyException(
+                        "이미지 백엔드 동시 요청 제한 초과 (" + limiter.getLimit() + ") - " + backend.getUrl(), backend.estimatedWaitMs()));
+            }
+            if (!breaker.tryAcquire()) {
+                limiter.onIgnored();
+                rejectedCounter(backend, "circuit");
+                return Mono.<T>error(new ImageBackendBusyException(
+                        "이미지 백엔드 서킷 열림 - " + backend.getUrl(), backend.estimatedWaitMs()));
+            }
+
+            AtomicInteger styleOutstanding = drawingStyle != null ? styleOutstanding(drawingStyle) : null;
+            backend.getOutstanding().incrementAndGet();
+            if (styleOutstanding != null) {
+                styleOutstanding.incrementAndGet();
+            }
+            long start = System.nanoTime();
+
+            return call.apply(backend.getClient())
+                    .doOnSuccess(result -> {
+                        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        backend.recordLatency(elapsedMs);
+                        latencyWindow(drawingStyle).record(elapsedMs);
+                    })
+                    .doOnError(WebClientRequestException.class, e -> markUnhealthy(backend, e.getMessage()))
+                    .doFinally(signal -> {
+                        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        if (signal == SignalType.ON_ERROR) {
+                            limiter.onDropped();
+                            breaker.onFailure();
+                        } else if (signal == SignalType.CANCEL && elapsedMs >= limiter.getLatencyThresholdMs()) {
+                            // 바깥 타임아웃으로 취소된 경우 → 과부하로 봄
+                            limiter.onDropped();
+                            breaker.onFailure();
+                        } else if (signal == SignalType.CANCEL) {
+                            // 헤지에서 져서 취소된 경우 등 → 결과를 모르므로 반영하지 않음
+                            limiter.onIgnored();
+                            breaker.onIgnored();
+                        } else {
+                            limiter.onSuccess(elapsedMs);
+                            breaker.onSuccess();
+                        }
+                        backend.getOutstanding().decrementAndGet();
+                        if (styleOutstanding != null) {
+                            styleOutstanding.decrementAndGet();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * 고른 백엔드
+     * fresh : 이 요청 전까지 해당 백엔드에 게임 컨텍스트가 없었는지 (gameId 없음, 처음 고정, 장애로 재배정) → 헤지해도 되는지
+     */
+    record Selection(ImageBackend backend, boolean fresh) {
+    }
+
+    Selection select(String gameId, Integer drawingStyle) {
+        if (gameId == null) {
+            return new Selection(chooseFor(drawingStyle), true);
+        }
+
+        String key = PIN_PREFIX + gameId;
+        String pinnedUrl = stringRedisTemplate.opsForValue().get(key);
+        ImageBackend pinned = findByUrl(pinnedUrl);
+        if (pinned != null && pinned.isHealthy()) {
+            stringRedisTemplate.expire(key, PIN_TTL_MINUTES, TimeUnit.MINUTES);
+            return new Selection(pinned, false);
+        }
+
+        ImageBackend chosen = chooseFor(drawingStyle);
+        if (pinned == null) {
+            // 다른 인스턴스가 먼저 고정했으면 그 백엔드를 따름
+            Boolean set = stringRedisTemplate.opsForValue().setIfAbsent(key, chosen.getUrl(), PIN_TTL_MINUTES, TimeUnit.MINUTES);
+            if (!Boolean.TRUE.equals(set)) {
+                ImageBackend other = findByUrl(stringRedisTemplate.opsForValue().get(key));
+                return other != null ? new Selection(other, false) : new Selection(chosen, true);
+            }
+            return new Selection(chosen, true);
+        }
+
+        log.warn("[ImageBackendBalancer] 고정된 백엔드 장애로 재배정 (게임 컨텍스트 유실) - gameId: {}, {} -> {}",
+                gameId, pinned.getUrl(), chosen.getUrl());
+        stringRedisTemplate.opsForValue().set(key, chosen.getUrl(), PIN_TTL_MINUTES, TimeUnit.MINUTES);
+        return new Selection(chosen, true);
+    }
+
+    //그림체의 선호 백엔드부터 링 순서대로 여유 있는 백엔드를 고름 (그림체가 없으면 부하 기준)
+    ImageBackend chooseFor(Integer drawingStyle) {
+        if (drawingStyle == null) {
+            return leastLoaded();
+        }
+
+        List<ImageBackend> preferred = styleRing.preferenceList("style-" + drawingStyle);
+        ImageBackend chosen = null;
+        for (ImageBackend backend : preferred) {
+            if (backend.hasCapacity() && backend.getOutstanding().get() < spilloverOutstanding) {
+                chosen = backend;
+                break;
+            }
+        }
+        if (chosen == null) {
+            chosen = leastLoaded();
+        }
+
+        boolean spilled = !preferred.isEmpty() && chosen != preferred.get(0);
+        meterRegistry.counter("image.style.route", "style", String.valueOf(drawingStyle),
+                "result", spilled ? "spillover" : "preferred").increment();
+        if (spilled) {
+            log.info("[ImageBackendBalancer] 그림체 {} 선호 백엔드 {} 대신 {}로 전송", drawingStyle, preferred.get(0).getUrl(), chosen.getUrl());
+        }
+        return chosen;
+    }
+
+    private AtomicInteger styleOutstanding(int drawingStyle) {
+        return outstandingByStyle.computeIfAbsent(drawingStyle, style -> {
+            AtomicInteger outstanding = new AtomicInteger();
+            Gauge.builder("image.style.outstanding", outstanding, AtomicInteger::get)
+                    .tag("style", String.valueOf(style)).register(meterRegistry);
+            return outstanding;
+        });
+    }
+
+    //바로 받을 수 있는 백엔드 중 부하 점수가 가장 낮은 것 (없으면 정상 백엔드, 모두 비정상이면 전체 중에서 고름)
+    ImageBackend leastLoaded() {
+        ImageBackend best = null;
+        for (ImageBackend backend : backends) {
+            if (backend.hasCapacity() && (best == null || backend.score() < best.score())) {
+                best = backend;
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+
+        for (ImageBackend backend : backends) {
+            if (backend.isHealthy() && (best == null || backend.score() < best.score())) {
+                best = backend;
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+
+        for (ImageBackend backend : backends) {
+            if (best == null || backend.score() < best.score()) {
+                best = backend;
+            }
+        }
+        return best;
+    }
+
+    private ImageBackend findByUrl(String url) {
+        if (url == null) {
+            return null;
+        }
+        for (ImageBackend backend : backends) {
+            if (backend.getUrl().equals(url)) {
+                return backend;
+            }
+        }
+        return null;
+    }
+
+    //백엔드마다 /health 호출해서 라우팅 대상 여부 갱신
+    @Scheduled(fixedDelayString = "${image.backend.health-interval-ms:10000}")
+    public void probe() {
+        for (ImageBackend backend : backends) {
+            backend.getClient().get()
+                    .uri("/health")
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(PROBE_TIMEOUT)
+                    .subscribe(response -> markHealthy(backend), e -> markUnhealthy(backend, e.getMessage()));
+        }
+    }
+
+    private void markHealthy(ImageBackend backend) {
+        if (!backend.isHealthy()) {
+            log.info("[ImageBackendBalancer] 백엔드 복구 - {}", backend.getUrl());
+        }
+        backend.setHealthy(true);
+    }
+
+    private void markUnhealthy(ImageBackend backend, String reason) {
+        if (backend.isHealthy()) {
+            log.warn("[ImageBackendBalancer] 백엔드 제외 - {}, 사유: {}", backend.getUrl(), reason);
+        }
+        backend.setHealthy(false);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.b101.service;
+
+import lombok.Getter;
+
+/**
+ * 이미지 백엔드가 요청을 받을 수 없어서 바로 거절한 경우 (동시 요청 제한 초과, 서킷 열림)
+ * retryAfterSeconds : 다시 시도하기까지 예상 대기 시간 (응답의 Retry-After 헤더로 전달)
+ */
+@Getter
+public class ImageBackendBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ImageBackendBusyException(String message, long waitMs) {
+        super(message);
+        this.retryAfterSeconds = Math.max(1, (waitMs + 999) / 1000);
+    }
+
+    //래핑된 예외까지 따라가서 찾음 (없으면 null)
+    public static ImageBackendBusyException find(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ImageBackendBusyException busy) {
+                return busy;
+            }
+        }
+        return null;
+    }
+}
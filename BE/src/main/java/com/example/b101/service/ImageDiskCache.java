@@ -0,0 +1,344 @@
+package com.example.b101.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * S3 이미지 로컬 디스크 캐시 (object key 기준, 용량 제한 LRU)
+ *
+ *  - hit  : 캐시 파일을 FileChannel.transferTo로 응답에 바로 복사 (힙에 올리지 않음)
+ *  - miss : S3 본문을 읽으면서 응답과 임시 파일에 동시에 씀 → 다 받으면 캐시에 등록 (S3를 한 번만 읽음)
+ *  - 같은 key를 동시에 요청하면 첫 요청만 S3에서 받고 나머지는 그 결과를 캐시에서 읽음
+ *  - 전체 크기가 image.disk-cache.max-bytes를 넘으면 가장 오래 안 쓴 파일부터 삭제
+ *
+ * 목록(ETag 등 메타데이터)은 메모리에만 있으므로 시작할 때 이전 캐시 파일을 지움.
+ * 디렉터리에 다른 파일이 있을 수 있으므로 캐시가 만든 이름(해시.img, fill-*.tmp)의 파일만 지움.
+ */
+@Slf4j
+@Component
+public class ImageDiskCache {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long FILL_WAIT_SECONDS = 30;
+    private static final String FILE_SUFFIX = ".img";
+    private static final String TEMP_PREFIX = "fill-";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final Pattern CACHE_FILE = Pattern.compile("[0-9a-f]{64}" + Pattern.quote(FILE_SUFFIX));
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxBytes;
+
+    // accessOrder=true → 조회할 때마다 뒤로 이동하므로 맨 앞이 가장 오래 안 쓴 항목
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<Entry>> filling = new ConcurrentHashMap<>();
+    private long totalBytes;
+
+    private final Counter hits;
+    private final Counter collapsed;
+    private final Counter misses;
+    private final Counter bytesSaved;
+
+    public ImageDiskCache(MeterRegistry meterRegistry,
+                          @Value("${image.disk-cache.enabled:true}") boolean enabled,
+                          @Value("${image.disk-cache.dir:./image-cache}") Path directory,
+                          @Value("${image.disk-cache.max-bytes:1073741824}") long maxBytes) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+
+        this.hits = meterRegistry.counter("image.disk-cache.requests", "result", "hit");
+        this.collapsed = meterRegistry.counter("image.disk-cache.requests", "result", "collapsed");
+        this.misses = meterRegistry.counter("image.disk-cache.requests", "result", "miss");
+        this.bytesSaved = meterRegistry.counter("image.disk-cache.bytes-saved"); //S3 대신 디스크에서 보낸 bytes
+        Gauge.builder("image.disk-cache.size", this, cache -> cache.totalBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("image.disk-cache.hit-ratio", this, ImageDiskCache::hitRatio)
+                .register(meterRegistry);
+
+        if (enabled) {
+            clearDirectory();
+        }
+    }
+
+    //캐시에 등록된 파일 정보 (file은 key의 해시로 만든 이름)
+    public record Entry(Path file, long size, String eTag, Instant lastModified) {
+    }
+
+    //S3에서 받은 원본 (size는 Content-Length)
+    public record Source(InputStream body, long size, String eTag, Instant lastModified) {
+    }
+
+    public interface Fetcher {
+        Source fetch() throws IOException;
+    }
+
+    //캐시에서 연 파일 (조회 직후 삭제되어도 열린 채널로는 끝까지 읽을 수 있음)
+    public record Hit(Entry entry, FileChannel channel) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //캐시에 있으면 파일을 열어서 반환, 없으면 null
+    public Hit open(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            try {
+                return new Hit(entry, FileChannel.open(entry.file(), StandardOpenOption.READ));
+            } catch (IOException e) {
+                // 파일이 지워진 경우 목록에서도 뺌
+                log.warn("캐시 파일 열기 실패 - key: {}, {}", key, e.getMessage());
+                remove(key);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 캐시에 있으면 캐시에서, 없으면 S3에서 받아 응답과 캐시에 동시에 씀
+     * onHeaders는 본문을 쓰기 전에 한 번 호출됨 (응답 헤더 설정용)
+     */
+    public void readThrough(String key, Fetcher fetcher, Consumer<Entry> onHeaders, OutputStream out) throws IOException {
+        Hit hit = open(key);
+        if (hit != null) {
+            hits.increment();
+            serve(hit, onHeaders, out);
+            return;
+        }
+
+        CompletableFuture<Entry> fill = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = filling.putIfAbsent(key, fill);
+        if (existing != null && awaitFill(key, existing)) {
+            hit = open(key);
+            if (hit != null) {
+                collapsed.increment();
+                serve(hit, onHeaders, out);
+                return;
+            }
+        }
+        if (existing != null) {
+            // 먼저 받던 요청이 실패했거나 너무 오래 걸리면 캐시하지 않고 직접 받음
+            misses.increment();
+            Source source = fetcher.fetch();
+            try (InputStream body = source.body()) {
+                onHeaders.accept(new Entry(null, source.size(), source.eTag(), source.lastModified()));
+                body.transferTo(out);
+            }
+            return;
+        }
+
+        misses.increment();
+        try {
+            fill.complete(fill(key, fetcher, onHeaders, out));
+        } catch (IOException | RuntimeException e) {
+            fill.completeExceptionally(e);
+            throw e;
+        } finally {
+            filling.remove(key, fill);
+        }
+    }
+
+    //파일의 일부(Range)를 응답으로 복사
+    public void transfer(Hit hit, long position, long count, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        long sent = 0;
+        while (sent < count) {
+            long written = hit.channel().transferTo(position + sent, count - sent, target);
+            if (written <= 0) {
+                throw new IOException("캐시 파일이 예상보다 짧음: " + hit.entry().file());
+            }
+            sent += written;
+        }
+        bytesSaved.increment(sent);
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    private void serve(Hit hit, Consumer<Entry> onHeaders, OutputStream out) throws IOException {
+        try (hit) {
+            onHeaders.accept(hit.entry());
+            transfer(hit, 0, hit.entry().size(), out);
+        }
+    }
+
+    private boolean awaitFill(String key, CompletableFuture<Entry> fill) {
+        try {
+            return fill.get(FILL_WAIT_SECONDS, TimeUnit.SECONDS) != null;
+        } catch (Exception e) {
+            log.warn("캐시 채우기 대기 실패 - key: {}, {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    //S3 본문을 한 번 읽으면서 응답과 임시 파일에 같이 씀 (응답이 끊겨도 캐시 파일은 끝까지 받음)
+    //캐시할 수 없는 크기면 응답만 하고 null 반환
+    private Entry fill(String key, Fetcher fetcher, Consumer<Entry> onHeaders, OutputStream out) throws IOException {
+        Source source = fetcher.fetch();
+        boolean cacheable = source.size() >= 0 && source.size() <= maxBytes;
+        Path temp = cacheable ? Files.createTempFile(directory, TEMP_PREFIX, TEMP_SUFFIX) : null;
+
+        try (InputStream body = source.body();
+             OutputStream file = temp != null ? Files.newOutputStream(temp) : OutputStream.nullOutputStream()) {
+            onHeaders.accept(new Entry(null, source.size(), source.eTag(), source.lastModified()));
+
+            byte[] buffer = new byte[BUFFER_SIZE];
+            IOException clientError = null;
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                file.write(buffer, 0, read);
+                if (clientError == null) {
+                    try {
+                        out.write(buffer, 0, read);
+                    } catch (IOException e) {
+                        clientError = e;
+                        if (temp == null) {
+                            throw e;
+                        }
+                    }
+                }
+            }
+            file.close();
+
+            Entry entry = temp != null ? add(key, temp, source) : null;
+            temp = null;
+            if (clientError != null) {
+                throw clientError;
+            }
+            return entry;
+        } finally {
+            if (temp != null) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private Entry add(String key, Path temp, Source source) throws IOException {
+        long size = Files.size(temp);
+        if (source.size() != size) {
+            Files.deleteIfExists(temp);
+            throw new IOException("S3 본문 크기 불일치 - key: " + key + ", 예상: " + source.size() + ", 실제: " + size);
+        }
+
+        Path file = directory.resolve(fileName(key));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Entry entry = new Entry(file, size, source.eTag(), source.lastModified());
+
+        synchronized (entries) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                totalBytes -= previous.size();
+            }
+            totalBytes += size;
+            evict();
+        }
+        return entry;
+    }
+
+    //용량을 넘으면 가장 오래 안 쓴 항목부터 삭제 (entries 잠금 안에서 호출)
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            totalBytes -= eldest.size();
+            deleteQuietly(eldest.file());
+        }
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            totalBytes -= entry.size();
+            deleteQuietly(entry.file());
+        }
+    }
+
+    private double hitRatio() {
+        double served = hits.count() + collapsed.count();
+        double total = served + misses.count();
+        return total == 0 ? 0 : served / total;
+    }
+
+    //이전 실행에서 남은 캐시 파일만 삭제 (다른 파일, 하위 디렉터리는 그대로 둠)
+    private void clearDirectory() {
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, ImageDiskCache::isCacheFile)) {
+                for (Path file : files) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("이미지 캐시 디렉터리 준비 실패: " + directory, e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("캐시 파일 삭제 실패 - {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static boolean isCacheFile(Path file) {
+        if (!Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+            return false;
+        }
+        String name = file.getFileName().toString();
+        return CACHE_FILE.matcher(name).matches() || (name.startsWith(TEMP_PREFIX) && name.endsWith(TEMP_SUFFIX));
+    }
+
+    //key에 '/'가 들어가므로 해시를 파일 이름으로 사용
+    private static String fileName(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest) + FILE_SUFFIX;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,53 +1,167 @@
 package com.example.b101.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import kr.co.shineware.nlp.komoran.constant.DEFAULT_MODEL;
 import kr.co.shineware.nlp.komoran.core.Komoran;
 import kr.co.shineware.nlp.komoran.model.KomoranResult;
 import kr.co.shineware.nlp.komoran.model.Token;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * KOMORAN 형태소 분석기 서비스
- * 싱글턴 패턴으로 성능 최적화
+ *
+ * Komoran 인스턴스를 스레드끼리 공유하지 않도록 고정 크기 풀에서 빌려 쓰고 반납함.
+ * 풀 크기가 동시에 분석할 수 있는 최대 요청 수가 됨.
+ * 투표 반대 후 거의 같은 문장을 다시 보내는 경우가 많아서 분석 결과는 LRU 캐시에 보관함.
+ *
+ * 지표 (actuator /metrics)
+ *  - komoran.analyze      : 분석 소요시간 (캐시 miss만)
+ *  - komoran.pool.wait    : 풀에서 분석기를 빌릴 때까지 대기시간
+ *  - komoran.pool.available : 남은 분석기 수
+ *  - komoran.cache (result=hit|miss), komoran.cache.size
+ *  - komoran.unavailable (reason=timeout|interrupted|error) : 분석하지 못하고 예외를 던진 횟수
  */
 @Slf4j
 @Service
 public class KomoranService {
-    
-    private Komoran komoran;
-    
+
+    private final MeterRegistry meterRegistry;
+    private final int poolSize;
+    private final long acquireTimeoutMs;
+    private final int cacheSize;
+
+    private BlockingQueue<Komoran> pool;
+    private Map<String, List<Token>> cache;
+
+    private Timer analyzeTimer;
+    private Timer waitTimer;
+    private Counter cacheHit;
+    private Counter cacheMiss;
+    private Counter unavailableTimeout;
+    private Counter unavailableInterrupted;
+    private Counter unavailableError;
+
+    public KomoranService(MeterRegistry meterRegistry,
+                          @Value("${komoran.pool.size:2}") int poolSize,
+                          @Value("${komoran.pool.acquire-timeout-ms:3000}") long acquireTimeoutMs,
+                          @Value("${komoran.cache.size:1000}") int cacheSize) {
+        this.meterRegistry = meterRegistry;
+        this.poolSize = poolSize;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.cacheSize = cacheSize;
+    }
+
     @PostConstruct
     public void init() {
-        log.info("KOMORAN 형태소 분석기 초기화 시작");
+        log.info("KOMORAN 형태소 분석기 초기화 시작 - 풀 크기: {}", poolSize);
         long startTime = System.currentTimeMillis();
-        
-        this.komoran = new Komoran(DEFAULT_MODEL.LIGHT);
-        
+
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            pool.add(new Komoran(DEFAULT_MODEL.LIGHT));
+        }
+
+        // 접근 순서 LinkedHashMap으로 LRU 구현
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<Token>> eldest) {
+                return size() > cacheSize;
+            }
+        });
+
+        this.analyzeTimer = Timer.builder("komoran.analyze").register(meterRegistry);
+        this.waitTimer = Timer.builder("komoran.pool.wait").register(meterRegistry);
+        this.cacheHit = Counter.builder("komoran.cache").tag("result", "hit").register(meterRegistry);
+        this.cacheMiss = Counter.builder("komoran.cache").tag("result", "miss").register(meterRegistry);
+        this.unavailableTimeout = Counter.builder("komoran.unavailable").tag("reason", "timeout").register(meterRegistry);
+        this.unavailableInterrupted = Counter.builder("komoran.unavailable").tag("reason", "interrupted").register(meterRegistry);
+        this.unavailableError = Counter.builder("komoran.unavailable").tag("reason", "error").register(meterRegistry);
+        Gauge.builder("komoran.pool.available", pool, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("komoran.cache.size", cache, Map::size).register(meterRegistry);
+
         long endTime = System.currentTimeMillis();
         log.info("KOMORAN 형태소 분석기 초기화 완료 - 소요시간: {}ms", endTime - startTime);
     }
-    
+
     /**
-     * 텍스트를 형태소 분석하여 토큰 리스트 반환
+     * 텍스트를 형태소 분석하여 토큰 리스트 반환 (읽기 전용, 캐시된 결과일 수 있음)
+     * 분석하지 못하면 KomoranUnavailableException (빈 리스트는 빈 입력일 때만 반환)
      */
     public List<Token> analyze(String text) {
+        return analyze(text, true);
+    }
+
+    /**
+     * cacheable이 false면 결과를 LRU 캐시에 넣지 않음 (카드 변형어처럼 한 번만 분석하는 텍스트용)
+     */
+    public List<Token> analyze(String text, boolean cacheable) {
         if (text == null || text.trim().isEmpty()) {
             return List.of();
         }
-        
+
+        // 앞뒤 공백, 연속 공백만 다른 문장은 같은 결과를 사용
+        String normalized = text.trim().replaceAll("\\s+", " ");
+
+        if (cacheable) {
+            List<Token> cached = cache.get(normalized);
+            if (cached != null) {
+                cacheHit.increment();
+                return cached;
+            }
+            cacheMiss.increment();
+        }
+
+        Komoran komoran = null;
         try {
-            KomoranResult result = komoran.analyze(text);
-            return result.getTokenList();
+            long waitStart = System.nanoTime();
+            komoran = pool.poll(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            waitTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+
+            if (komoran == null) {
+                unavailableTimeout.increment();
+                log.warn("형태소 분석기 대기 시간 초과 ({}ms)", acquireTimeoutMs);
+                throw new KomoranUnavailableException("형태소 분석기 대기 시간 초과 (" + acquireTimeoutMs + "ms)");
+            }
+
+            Komoran analyzer = komoran;
+            KomoranResult result = analyzeTimer.record(() -> analyzer.analyze(normalized));
+            List<Token> tokens = List.copyOf(result.getTokenList());
+
+            if (cacheable) {
+                cache.put(normalized, tokens);
+            }
+            return tokens;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unavailableInterrupted.increment();
+            throw new KomoranUnavailableException("형태소 분석기 대기 중 인터럽트", e);
+        } catch (KomoranUnavailableException e) {
+            throw e;
         } catch (Exception e) {
+            unavailableError.increment();
             log.error("형태소 분석 중 오류 발생: {}", e.getMessage(), e);
-            return List.of();
+            throw new KomoranUnavailableException("형태소 분석 중 오류 발생", e);
+        } finally {
+            if (komoran != null) {
+                pool.offer(komoran);
+            }
         }
     }
-    
+
     /**
      * 텍스트에서 명사, 형용사, 동사만 추출
      */
@@ -63,4 +177,4 @@ public class KomoranService {
                 .distinct()
                 .toList();
     }
-}
\ No newline at end of file
+}
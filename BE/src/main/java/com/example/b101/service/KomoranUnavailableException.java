@@ -0,0 +1,16 @@
+package com.example.b101.service;
+
+/**
+ * 형태소 분석을 하지 못한 경우 (분석기 풀 대기 시간 초과, 인터럽트, 분석 중 오류)
+ * 빈 결과를 돌려주면 "형태소 없음"과 구분할 수 없으므로 호출한 쪽에서 처리하도록 던짐
+ */
+public class KomoranUnavailableException extends RuntimeException {
+
+    public KomoranUnavailableException(String message) {
+        super(message);
+    }
+
+    public KomoranUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
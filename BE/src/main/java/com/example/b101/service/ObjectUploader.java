@@ -0,0 +1,101 @@
+package com.example.b101.service;
+
+import com.example.b101.dto.UploadManifest;
+import com.example.b101.repository.ObjectStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 책 이미지 업로드
+ *  - 동시에 storage.upload.concurrency개까지 업로드 (스레드를 잡지 않는 비동기 저장소 사용)
+ *  - 페이지마다 storage.upload.max-attempts번까지 지수 백오프(지터 포함)로 재시도
+ *  - 결과는 페이지별 manifest로 돌려주고, 일부 실패해도 나머지 페이지는 끝까지 진행
+ */
+@Slf4j
+@Component
+public class ObjectUploader {
+
+    private static final String CONTENT_TYPE = "image/png";
+
+    private final ObjectStorage objectStorage;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final Duration backoff;
+
+    public ObjectUploader(ObjectStorage objectStorage,
+                          @Value("${storage.upload.concurrency:8}") int concurrency,
+                          @Value("${storage.upload.max-attempts:3}") int maxAttempts,
+                          @Value("${storage.upload.backoff-ms:200}") long backoffMs) {
+        this.objectStorage = objectStorage;
+        this.concurrency = concurrency;
+        this.maxAttempts = maxAttempts;
+        this.backoff = Duration.ofMillis(backoffMs);
+    }
+
+    /**
+     * 업로드할 페이지 하나
+     * copySourceKey가 있으면 저장소 안에서 복사, 없으면 source에서 읽은 bytes를 업로드 (source가 null을 주면 MISSING)
+     */
+    public record Task(int page, String key, String copySourceKey, Callable<byte[]> source) {
+
+        public static Task copy(int page, String key, String sourceKey) {
+            return new Task(page, key, sourceKey, null);
+        }
+
+        public static Task put(int page, String key, Callable<byte[]> source) {
+            return new Task(page, key, null, source);
+        }
+    }
+
+    public Mono<UploadManifest> upload(List<Task> tasks) {
+        return Flux.fromIterable(tasks)
+                .flatMap(this::uploadOne, concurrency)
+                .sort(Comparator.comparingInt(UploadManifest.Page::getPage))
+                .collectList()
+                .map(UploadManifest::new);
+    }
+
+    private Mono<UploadManifest.Page> uploadOne(Task task) {
+        AtomicInteger attempts = new AtomicInteger();
+
+        return Mono.defer(() -> {
+                    attempts.incrementAndGet();
+                    return transfer(task);
+                })
+                .retryWhen(Retry.backoff(maxAttempts - 1, backoff)
+                        .jitter(0.5)
+                        .doBeforeRetry(signal -> log.warn("이미지 업로드 재시도 - key: {}, 사유: {}", task.key(), signal.failure().getMessage()))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .map(status -> new UploadManifest.Page(task.page(), task.key(), status, attempts.get(), null))
+                .onErrorResume(e -> {
+                    log.error("이미지 업로드 실패 - key: {}, 시도: {}회, 에러: {}", task.key(), attempts.get(), e.getMessage());
+                    return Mono.just(new UploadManifest.Page(task.page(), task.key(), UploadManifest.Status.FAILED,
+                            attempts.get(), e.getMessage()));
+                });
+    }
+
+    private Mono<UploadManifest.Status> transfer(Task task) {
+        if (task.copySourceKey() != null) {
+            return Mono.fromFuture(() -> objectStorage.copy(task.copySourceKey(), task.key()))
+                    .thenReturn(UploadManifest.Status.STORED);
+        }
+
+        // 원본 읽기(Redis)는 블로킹 호출이므로 별도 스레드에서 처리
+        return Mono.fromCallable(task.source())
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(data -> Mono.fromFuture(() -> objectStorage.put(task.key(), data, CONTENT_TYPE))
+                        .thenReturn(UploadManifest.Status.STORED))
+                .defaultIfEmpty(UploadManifest.Status.MISSING);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.b101.service;
 import com.example.b101.dto.RetryNotificationRequest;
 import com.example.b101.common.ApiResponseUtil;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,12 +14,15 @@ import java.util.Map;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class RetryNotificationService {
 
+    private final GameEventPublisher gameEventPublisher;
+
     /**
      * AI 서버로부터 재시도 알림을 받아서 처리
-     * 현재는 단순히 로깅만 하고 성공 응답을 반환
-     * 향후 WebSocket이나 Server-Sent Events를 통해 실시간으로 프론트엔드에 전달할 수 있음
+     * 해당 게임의 SSE 구독자 전체에 "retry" 이벤트로 전달 (Redis pub/sub으로 다른 인스턴스의 구독자까지)
+     * gameId가 없는 이전 형식의 알림은 로깅만 함
      */
     public ResponseEntity<?> handleRetryNotification(
             RetryNotificationRequest request,
@@ -30,15 +34,17 @@ public class RetryNotificationService {
             log.info("진행 상황: {}/{} 재시도", request.getAttempt(), request.getMaxAttempts());
             log.info("타임스탬프: {}", request.getTimestamp());
 
-            // 현재는 로깅만 수행
-            // 향후 개선점:
-            // 1. WebSocket을 통해 실시간으로 프론트엔드에 전달
-            // 2. Redis에 임시 저장하여 프론트엔드가 폴링으로 확인
-            // 3. Server-Sent Events (SSE) 활용
+            boolean delivered = request.getGameId() != null && !request.getGameId().isBlank();
+            if (delivered) {
+                gameEventPublisher.publish(request.getGameId(), "retry", request);
+            } else {
+                log.warn("gameId가 없는 재시도 알림 - 전달하지 않음");
+            }
 
             // 응답 데이터 구성
             Map<String, Object> responseData = new HashMap<>();
             responseData.put("received", true);
+            responseData.put("delivered", delivered);
             responseData.put("message", "재시도 알림 수신 완료");
             responseData.put("timestamp", System.currentTimeMillis());
 
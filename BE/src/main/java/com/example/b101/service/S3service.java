@@ -3,35 +3,47 @@ package com.example.b101.service;
 import com.example.b101.cache.SceneRedis;
 import com.example.b101.common.ApiResponseUtil;
 import com.example.b101.config.AwsConfig;
+import com.example.b101.dto.UploadManifest;
+import com.example.b101.repository.ObjectStorage;
 import com.example.b101.repository.RedisSceneRepository;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.exception.SdkClientException;
-import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,8 +54,17 @@ public class S3service {
     private final S3Presigner s3Presigner;
     private final S3Client s3Client;
     private final AwsConfig awsConfig;
-    private final ExecutorService executorService = Executors.newFixedThreadPool(2); // 병렬 처리 스레드 풀
     private final RedisSceneRepository redisSceneRepository;
+    private final ObjectUploader objectUploader;
+    private final ImageDiskCache imageDiskCache;
+    private final ObjectStorage objectStorage;
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    private static final String STAGING_PREFIX = "staging/";
+    private static final long STAGING_WAIT_SECONDS = 30;
+    // 진행 중인 게임의 scene 키(30분 TTL)가 모두 만료된 뒤에도 이 시간이 지난 staging 객체만 정리 대상
+    private static final Duration STAGING_MAX_AGE = Duration.ofHours(2);
+    private final Map<String, List<CompletableFuture<Void>>> pendingStaging = new ConcurrentHashMap<>();
 
     ////////////////////////////////////
     // #1. presignedURL 생성 + 예외 처리 //
@@ -93,107 +114,399 @@ public class S3service {
     ////////////////////////////
     // #2. 파일 업로드 + 예외 처리 //
     ////////////////////////////
-    public boolean uploadToS3(String gameId,String bookId) {
+    // 책 표지(0번)를 뺀 scene 이미지 업로드 (표지는 생성되는 대로 uploadCover로 따로 올림)
+    // storedPages : 이전 시도에서 이미 저장된 scene 번호 (다시 올리지 않고 STORED로 manifest에 포함)
+    // scene이 하나도 없으면 빈 manifest 반환
+    public UploadManifest uploadScenes(String gameId, String bookId, Set<Integer> storedPages) {
 
         log.info("s3에 이미지 저장 로직 실행");
         // 1) Redis에서 gameId와 같은 Scene 다 가져오기
-        List<SceneRedis> sceneRedisList = redisSceneRepository.findAllByGameId(gameId);
+        List<SceneRedis> sceneRedisList = redisSceneRepository.findAllByGameId(gameId).stream()
+                .filter(scene -> scene.getSceneOrder() != 0)
+                .toList();
 
         log.info("Redis에 저장된 scene 데이터들 : {}", sceneRedisList.size());
 
-        for (int i = 0; i < sceneRedisList.size(); i++) {
-            SceneRedis scene = sceneRedisList.get(i);
-            byte[] image = scene.getImage();  // 이미지 데이터
-            int imageSize = image != null ? image.length : 0;  // 이미지 크기 계산 (이미지가 null일 경우 0으로 설정)
-
-            // 로그 출력
-            log.info("Index: {}, SceneOrder: {}, Image Size: {} bytes", i, scene.getSceneOrder(), imageSize);
-        }
-
         // 책이 비어 있으면 예외처리 (사용자들이 게임을 안 했을 때)
         if (sceneRedisList.isEmpty()) {
             log.info("해당 gameId에 대한 데이터가 레디스에 없음.");
-            return false;
+            return new UploadManifest(List.of());
         }
-        // 업로드 성공 여부 플래그 ( 동시성 문제로 사용)
-        AtomicBoolean isUploaded = new AtomicBoolean(false);
-
-        // 2) 병렬로 S3 업로드
-        List<CompletableFuture<Void>> uploadFutures = sceneRedisList.stream()
-                .filter(scene -> scene.getImage() != null)
-                .map(scene -> CompletableFuture.runAsync(() -> {
-                    try {
-                        uploadFileToS3(scene,bookId);
-                        log.info( "파일 업로드 성공 - SceneOrder: {}, Image Size: {} bytes", scene.getSceneOrder(), scene.getImage().length);
-                        isUploaded.set(true);
-                    } catch (Exception e) {
-                        log.error( "파일 업로드 실패 - SceneOrder: {} 에러: {}", scene.getSceneOrder(), e.getMessage());
-                    }
-                }, executorService))
-                .toList();
 
-        // 3) 모든 업로드 끝날 까지 대기 (각각의 병렬 처리 예외 처리)
-        CompletableFuture.allOf(uploadFutures.toArray(new CompletableFuture[0])).join();
+        // 게임 중에 staging 영역으로 올라간 scene은 S3 내부 복사만 하면 됨
+        awaitStaging(gameId);
+        Set<String> stagedIds = redisSceneRepository.findStagedIds(gameId);
+        log.info("staging 완료된 scene 수 : {}, 이미 저장된 scene 수 : {}", stagedIds.size(), storedPages.size());
+
+        // 2) 아직 저장되지 않은 scene만 업로드 (이미지 bytes는 업로드 직전에 scene별로 읽어옴)
+        List<UploadManifest.Page> skipped = new ArrayList<>();
+        List<ObjectUploader.Task> tasks = new ArrayList<>();
+        for (SceneRedis scene : sceneRedisList) {
+            String key = bookKey(bookId, scene.getSceneOrder());
+            if (storedPages.contains(scene.getSceneOrder())) {
+                skipped.add(new UploadManifest.Page(scene.getSceneOrder(), key, UploadManifest.Status.STORED, 0, null));
+            } else if (stagedIds.contains(scene.getId())) {
+                tasks.add(ObjectUploader.Task.copy(scene.getSceneOrder(), key, stagingKey(gameId, scene.getId())));
+            } else {
+                tasks.add(ObjectUploader.Task.put(scene.getSceneOrder(), key, () -> redisSceneRepository.findImage(scene)));
+            }
+        }
+
+        // 3) 모든 업로드가 끝날 때까지 대기 (실패한 페이지는 manifest에 남음)
+        UploadManifest manifest = objectUploader.upload(tasks).block();
+        manifest.getPages().addAll(skipped);
+        manifest.getPages().sort(Comparator.comparingInt(UploadManifest.Page::getPage));
+
+        if (!manifest.isComplete()) {
+            log.warn("scene 업로드 일부 실패 - gameId: {}, 실패: {}, 이미지 없음: {}", gameId,
+                    manifest.pagesWith(UploadManifest.Status.FAILED), manifest.pagesWith(UploadManifest.Status.MISSING));
+            return manifest;
+        }
+        log.info("scene {}개 업로드 완료 - gameId: {}", manifest.getPages().size(), gameId);
+
+        // 책 경로로 복사가 끝난 staging 객체는 백그라운드에서 정리
+        deleteStagedObjects(gameId, stagedIds);
+        return manifest;
+    }
 
-        if (!isUploaded.get()) {
-            log.info("사진 하나도 저장 안 됨");
+    // 책 표지 업로드 (0.png)
+    public boolean uploadCover(String bookId, byte[] image) {
+        if (image == null || image.length == 0) {
+            log.info("표지 이미지 없음 - 업로드 건너뜀");
             return false;
         }
-        log.info("아무튼 업로드 됨");
-        return true;
+
+        UploadManifest manifest = objectUploader.upload(List.of(
+                ObjectUploader.Task.put(0, bookKey(bookId, 0), () -> image))).block();
+        if (manifest.isComplete()) {
+            log.info("표지 업로드 성공 - Image Size: {} bytes", image.length);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 투표로 승인된 scene 이미지를 게임 도중 미리 S3 staging 영역에 업로드 (write-behind)
+     * 게임 종료 시에는 staging -> 책 경로로 S3 내부 복사만 하면 되므로 종료 대기 시간이 턴 수에 비례해 늘어나지 않음.
+     * 업로드는 비동기 저장소(ObjectStorage)로 보내므로 업로드 중에 스레드를 잡지 않음.
+     */
+    public void stageSceneAsync(SceneRedis scene) {
+        String key = stagingKey(scene.getGameId(), scene.getId());
+
+        CompletableFuture<Void> future = Mono.fromCallable(() -> redisSceneRepository.findImage(scene))
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(Mono.fromRunnable(() ->
+                        log.warn("staging할 이미지가 없음 - gameId: {}, sceneId: {}", scene.getGameId(), scene.getId())))
+                .flatMap(image -> Mono.fromFuture(() -> objectStorage.put(key, image, MediaType.IMAGE_PNG_VALUE))
+                        .then(Mono.fromRunnable(() -> {
+                            redisSceneRepository.markStaged(scene.getGameId(), scene.getId());
+                            log.info("scene staging 업로드 성공 - gameId: {}, SceneOrder: {}", scene.getGameId(), scene.getSceneOrder());
+                        })))
+                // 실패해도 종료 시점에 Redis의 이미지로 직접 업로드하므로 로그만 남김
+                .onErrorResume(e -> {
+                    log.error("scene staging 업로드 실패 - gameId: {}, SceneOrder: {} 에러: {}", scene.getGameId(), scene.getSceneOrder(), e.getMessage());
+                    return Mono.empty();
+                })
+                .then()
+                .toFuture();
+
+        pendingStaging.computeIfAbsent(scene.getGameId(), gameId -> new CopyOnWriteArrayList<>()).add(future);
+        future.whenComplete((result, e) -> pendingStaging.computeIfPresent(scene.getGameId(), (gameId, futures) -> {
+            futures.remove(future);
+            return futures.isEmpty() ? null : futures;
+        }));
     }
 
-    // S3 업로드 메서드 (바이너리 데이터를 바로 업로드)
-    private void uploadFileToS3(SceneRedis scene,String bookId) {
-        log.info("image 데이터가 있나요? : {} bytes", scene.getImage() != null ? scene.getImage().length : 0);
+    // 책으로 남지 않는 게임(강제 종료, 업로드 실패)의 staging 객체 삭제
+    public void discardStaged(String gameId) {
+        awaitStaging(gameId);
+        deleteStagedObjects(gameId, redisSceneRepository.findStagedIds(gameId));
+    }
 
-        // 해당 이름의 객체로 S3에 저장
-        String objectKey = bookId + "/" + scene.getSceneOrder() + ".png";
+    /**
+     * 삭제되지 못한 staging 객체 정리 (인스턴스가 종료/장애로 discardStaged를 하지 못한 게임, 삭제 요청 실패)
+     * Redis에 scene이 남아 있지 않고 STAGING_MAX_AGE보다 오래된 staging/{gameId}/ 객체만 삭제
+     * 버킷에 staging/ prefix 수명 주기 규칙(예: 1일 후 만료)을 함께 두면 이 작업이 멈춰도 객체가 쌓이지 않음
+     */
+    @Scheduled(fixedDelayString = "${s3.staging.sweep-interval-ms:3600000}", initialDelayString = "${s3.staging.sweep-interval-ms:3600000}")
+    public void sweepStaging() {
+        Instant cutoff = Instant.now().minus(STAGING_MAX_AGE);
 
-        // S3 업로드 객체 빌드
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(awsConfig.getBucketName())
-                .key(objectKey)
-                .build();
+        try {
+            Map<String, List<String>> expired = objectStorage.list(STAGING_PREFIX).join().stream()
+                    .filter(object -> object.lastModified() != null && object.lastModified().isBefore(cutoff))
+                    .map(ObjectStorage.StoredObject::key)
+                    .filter(key -> key.indexOf('/', STAGING_PREFIX.length()) > 0)
+                    .collect(Collectors.groupingBy(key -> key.substring(STAGING_PREFIX.length(), key.indexOf('/', STAGING_PREFIX.length()))));
+
+            expired.forEach((gameId, keys) -> {
+                if (pendingStaging.containsKey(gameId) || redisSceneRepository.countByGameId(gameId) > 0) {
+                    return; // 아직 진행 중인 게임
+                }
+                objectStorage.delete(keys).join();
+                log.info("남아 있던 staging 객체 {}개 삭제 - gameId: {}", keys.size(), gameId);
+            });
+        } catch (Exception e) {
+            log.error("staging 객체 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    // 이 인스턴스에서 아직 진행 중인 staging 업로드가 끝날 때까지 대기
+    private void awaitStaging(String gameId) {
+        List<CompletableFuture<Void>> futures = pendingStaging.remove(gameId);
+        if (futures == null || futures.isEmpty()) {
+            return;
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(STAGING_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            // 시간 안에 끝나지 않은 scene은 staged 표시가 없으므로 직접 업로드로 처리됨
+            log.warn("staging 업로드 대기 시간 초과 - gameId: {}", gameId);
+        }
+    }
+
+    private void deleteStagedObjects(String gameId, Set<String> stagedIds) {
+        if (stagedIds.isEmpty()) {
+            return;
+        }
+
+        List<String> keys = stagedIds.stream().map(sceneId -> stagingKey(gameId, sceneId)).toList();
+        objectStorage.delete(keys).whenComplete((result, e) -> {
+            if (e != null) {
+                // 지우지 못한 객체는 sweepStaging이 나중에 정리
+                log.error("staging 객체 삭제 실패 - gameId: {} 에러: {}", gameId, e.getMessage());
+            } else {
+                log.info("staging 객체 {}개 삭제 - gameId: {}", keys.size(), gameId);
+            }
+        });
+    }
+
+    private static String stagingKey(String gameId, String sceneId) {
+        return STAGING_PREFIX + gameId + "/" + sceneId + ".png";
+    }
 
-        // S3에 파일 업로드 (바이너리 데이터(scene.getImage()를 업로드)
-        s3Client.putObject(putObjectRequest, RequestBody.fromBytes(scene.getImage()));
+    private static String bookKey(String bookId, int sceneOrder) {
+        return bookId + "/" + sceneOrder + ".png";
     }
 
     ///////////////////////////////////////
     // #3.  파일 다운로드 + 예외 처리(정상 작동)  //
     ///////////////////////////////////////
-    public ResponseEntity<?> downloadFromS3(String objectKey, HttpServletRequest request) {
+    // 책 이미지는 한 번 저장되면 바뀌지 않으므로 브라우저가 오래 캐시하도록 immutable 지정
+    // S3 본문은 메모리에 모으지 않고 응답 스트림으로 바로 복사 (파일 크기와 상관없이 버퍼 하나만 사용)
+    // If-None-Match / If-Modified-Since (304)와 단일 Range (206)는 S3 요청으로 그대로 넘김
+    public ResponseEntity<?> downloadFromS3(String objectKey, HttpServletRequest request, HttpServletResponse response) {
+        ResponseInputStream<GetObjectResponse> object = null;
         try {
 
             log.info("현재 위치 S3service.downloadFromS3");
 
-            // S3 업로드 객체 생성
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+            String range = singleRange(request.getHeader(HttpHeaders.RANGE));
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+
+            if (imageDiskCache.isEnabled()) {
+                if (range == null && request.getHeader(HttpHeaders.IF_NONE_MATCH) == null && ifModifiedSince <= 0) {
+                    // 일반 요청은 디스크 캐시를 거침 (없으면 S3에서 받으면서 캐시에 저장)
+                    imageDiskCache.readThrough(objectKey,
+                            () -> cacheSource(objectKey),
+                            entry -> {
+                                response.setStatus(HttpStatus.OK.value());
+                                writeImageHeaders(response, objectKey, entry.size(), entry.eTag(), entry.lastModified());
+                            },
+                            response.getOutputStream());
+                    return null;
+                }
+
+                // 조건부/Range 요청은 캐시에 있을 때만 캐시에서 처리, 없으면 S3로 넘김
+                try (ImageDiskCache.Hit hit = imageDiskCache.open(objectKey)) {
+                    if (hit != null) {
+                        imageDiskCache.recordHit();
+                        return serveCached(hit, objectKey, range, ifModifiedSince, request, response);
+                    }
+                }
+            }
+
+            // S3 다운로드 요청 객체 생성
+            GetObjectRequest.Builder getObjectRequest = GetObjectRequest.builder()
                     .bucket(awsConfig.getBucketName())
                     .key(objectKey)
-                    .build();
+                    .ifNoneMatch(request.getHeader(HttpHeaders.IF_NONE_MATCH))
+                    .range(range);
+            if (ifModifiedSince > 0) {
+                getObjectRequest.ifModifiedSince(Instant.ofEpochMilli(ifModifiedSince));
+            }
 
-            byte[] fileBytes = s3Client.getObject(getObjectRequest).readAllBytes();
+            object = s3Client.getObject(getObjectRequest.build());
 
-            // 파일 확장자에 따라 Content-Type 자동 설정
-            MediaType contentType = getContentType(objectKey);
+            // 본문을 직접 응답으로 복사하므로 헤더도 직접 설정 (반환값 null → Spring이 추가로 쓰지 않음)
+            // S3가 범위를 적용한 경우에만 Content-Range가 옴 (형식이 잘못된 Range는 S3가 무시하고 전체 파일을 줌)
+            GetObjectResponse objectResponse = object.response();
+            boolean partial = objectResponse.contentRange() != null;
+            response.setStatus(partial ? HttpStatus.PARTIAL_CONTENT.value() : HttpStatus.OK.value());
+            writeImageHeaders(response, objectKey, objectResponse.contentLength(), objectResponse.eTag(), objectResponse.lastModified());
+            if (partial) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, objectResponse.contentRange());
+            }
 
-            return ResponseEntity.ok()
-                    .contentType(contentType)
-                    .body(fileBytes);
+            try (ResponseInputStream<GetObjectResponse> body = object) {
+                body.transferTo(response.getOutputStream());
+            }
+            return null;
 
-        } catch (NoSuchKeyException e) {
-            return ApiResponseUtil.failure("파일을 찾을 수 없습니다: " + objectKey, HttpStatus.NOT_FOUND, request.getRequestURI());
         } catch (S3Exception e) {
+            closeQuietly(object);
+            if (e.statusCode() == HttpStatus.NOT_MODIFIED.value()) {
+                ResponseEntity.HeadersBuilder<?> notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(IMMUTABLE);
+                String eTag = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+                if (eTag != null && !eTag.contains(",")) {
+                    notModified.eTag(eTag);
+                }
+                return notModified.build();
+            }
+            if (e.statusCode() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+                return ApiResponseUtil.failure("요청한 범위가 파일 크기를 벗어났습니다.", HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, request.getRequestURI());
+            }
+            if (e instanceof NoSuchKeyException) {
+                return ApiResponseUtil.failure("파일을 찾을 수 없습니다: " + objectKey, HttpStatus.NOT_FOUND, request.getRequestURI());
+            }
             return ApiResponseUtil.failure("S3 접근 중 오류 발생: " + e.awsErrorDetails().errorMessage(), HttpStatus.FORBIDDEN, request.getRequestURI());
         } catch (SdkClientException e) {
+            closeQuietly(object);
+            if (response.isCommitted()) {
+                log.warn("파일 전송 중단 - objectKey: {}, {}", objectKey, e.getMessage());
+                return null;
+            }
             return ApiResponseUtil.failure("AWS 네트워크 오류 발생", HttpStatus.SERVICE_UNAVAILABLE, request.getRequestURI());
         } catch (Exception e) {
+            closeQuietly(object);
+            if (response.isCommitted()) {
+                // 본문 전송 중 끊긴 경우 (클라이언트가 페이지를 떠남 등) 응답을 바꿀 수 없음
+                log.warn("파일 전송 중단 - objectKey: {}, {}", objectKey, e.getMessage());
+                return null;
+            }
             return ApiResponseUtil.failure("파일 다운로드 중 오류 발생", HttpStatus.INTERNAL_SERVER_ERROR, request.getRequestURI());
         }
     }
 
+    // 디스크 캐시에 있는 파일로 조건부/Range 요청 처리
+    private ResponseEntity<?> serveCached(ImageDiskCache.Hit hit, String objectKey, String range, long ifModifiedSince,
+                                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ImageDiskCache.Entry entry = hit.entry();
+
+        if (notModified(entry, request.getHeader(HttpHeaders.IF_NONE_MATCH), ifModifiedSince)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(IMMUTABLE)
+                    .eTag(entry.eTag())
+                    .build();
+        }
+
+        long[] bytes = parseRange(range, entry.size());
+        if (bytes != null && bytes[0] >= entry.size()) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + entry.size());
+            return ApiResponseUtil.failure("요청한 범위가 파일 크기를 벗어났습니다.", HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, request.getRequestURI());
+        }
+
+        long start = bytes != null ? bytes[0] : 0;
+        long length = bytes != null ? bytes[1] - bytes[0] + 1 : entry.size();
+        response.setStatus(bytes != null ? HttpStatus.PARTIAL_CONTENT.value() : HttpStatus.OK.value());
+        writeImageHeaders(response, objectKey, length, entry.eTag(), entry.lastModified());
+        if (bytes != null) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + bytes[0] + "-" + bytes[1] + "/" + entry.size());
+        }
+
+        imageDiskCache.transfer(hit, start, length, response.getOutputStream());
+        return null;
+    }
+
+    // 캐시를 채울 때는 항상 전체 파일을 받음
+    private ImageDiskCache.Source cacheSource(String objectKey) {
+        ResponseInputStream<GetObjectResponse> object = s3Client.getObject(GetObjectRequest.builder()
+                .bucket(awsConfig.getBucketName())
+                .key(objectKey)
+                .build());
+        GetObjectResponse response = object.response();
+        return new ImageDiskCache.Source(object, response.contentLength(), response.eTag(), response.lastModified());
+    }
+
+    private void writeImageHeaders(HttpServletResponse response, String objectKey, long contentLength, String eTag, Instant lastModified) {
+        response.setContentType(getContentType(objectKey).toString()); // 파일 확장자에 따라 Content-Type 자동 설정
+        response.setContentLengthLong(contentLength);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (eTag != null) {
+            response.setHeader(HttpHeaders.ETAG, eTag);
+        }
+        if (lastModified != null) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified.toEpochMilli());
+        }
+    }
+
+    // If-None-Match가 있으면 그것만 보고, 없으면 If-Modified-Since로 판단 (초 단위 비교)
+    private static boolean notModified(ImageDiskCache.Entry entry, String ifNoneMatch, long ifModifiedSince) {
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim().replaceFirst("^W/", "");
+                if (candidate.equals("*") || candidate.equals(entry.eTag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return ifModifiedSince > 0 && entry.lastModified() != null
+                && entry.lastModified().getEpochSecond() <= ifModifiedSince / 1000;
+    }
+
+    // bytes=a-b, bytes=a-, bytes=-n 해석 → {시작, 끝} (형식이 틀리면 null → 전체 파일, 시작 >= size면 범위 초과)
+    private static long[] parseRange(String range, long size) {
+        if (range == null) {
+            return null;
+        }
+
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                return suffix > 0 ? new long[]{Math.max(0, size - suffix), size - 1} : new long[]{size, size};
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start < size && end < start) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // S3는 범위 하나만 지원하므로 여러 범위 요청(bytes=0-1,5-9)은 전체 파일로 응답
+    private static String singleRange(String range) {
+        if (range == null || !range.startsWith("bytes=") || range.contains(",")) {
+            return null;
+        }
+        return range;
+    }
+
+    private static void closeQuietly(ResponseInputStream<GetObjectResponse> object) {
+        if (object == null) {
+            return;
+        }
+        try {
+            object.abort(); // 남은 본문을 읽지 않고 연결 정리
+            object.close();
+        } catch (Exception ignored) {
+        }
+    }
+
     // 파일 확장자에 따른 Content-Type 반환 ( 다운로드에서 사용 )
     private MediaType getContentType(String objectKey) {
         if (objectKey.endsWith(".png")) {
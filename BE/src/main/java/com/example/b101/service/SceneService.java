@@ -1,17 +1,19 @@
 package com.example.b101.service;
 
 import com.example.b101.cache.Game;
+import com.example.b101.cache.SceneJob;
 import com.example.b101.cache.SceneRedis;
+import com.example.b101.cache.VoteNotification;
 import com.example.b101.common.ApiResponseUtil;
 import com.example.b101.config.WebClientConfig;
-import com.example.b101.domain.PlayerStatus;
+import com.example.b101.dto.CardOperationResult;
 import com.example.b101.dto.DeleteSceneRequest;
 import com.example.b101.dto.GenerateSceneRequest;
 import com.example.b101.dto.SceneRequest;
 import com.example.b101.dto.VoteResult;
 import com.example.b101.repository.GameRepository;
 import com.example.b101.repository.RedisSceneRepository;
-import com.example.b101.repository.StoryCardRepository;
+import com.example.b101.repository.SceneJobRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,9 +24,16 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
 import java.util.Base64;
 import java.util.HashMap;
@@ -38,7 +47,16 @@ import java.time.Duration;
 @AllArgsConstructor
 public class SceneService {
 
+    private static final int SCENE_JOB_MAX_ATTEMPTS = 2; // 작업 모드에서 이미지 생성 시도 횟수 (재시도 1회, 재시작 후 재개 포함)
+    private static final int SCENE_SAVE_MAX_ATTEMPTS = 3; // 작업 모드에서 scene 저장(Redis) 시도 횟수
+    private static final Duration SCENE_SAVE_BACKOFF = Duration.ofMillis(200);
+    private static final Duration SCENE_JOB_LEASE = Duration.ofMinutes(1);
+    private static final Duration SCENE_JOB_LEASE_RENEW_INTERVAL = Duration.ofSeconds(20);
+
     private final RedisSceneRepository redisSceneRepository;
+    private final SceneJobRepository sceneJobRepository;
+    private final GameEventPublisher gameEventPublisher;
+    private final SceneSingleFlight sceneSingleFlight;
     private final GameRepository gameRepository;
     @Qualifier("runpodWebClient")
     private final WebClient runpodWebClient;
@@ -48,25 +66,228 @@ public class SceneService {
     private final WebClient openaiWebClient;
     @Qualifier("geminiWebClient")
     private final WebClient geminiWebClient;
-    @Qualifier("pythonImageServiceClient")
-    private final WebClient pythonImageServiceClient;
-    private final StoryCardRepository storyCardRepository;
+    private final ImageBackendBalancer imageBackendBalancer;
+    private final VoteOutbox voteOutbox;
     private final WebClientConfig webClientConfig;
+    private final S3service s3service;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String instanceId = UUID.randomUUID().toString();
+
+
+    /**
+     * 이미지 생성은 요청 스레드를 잡지 않고 비동기로 처리
+     * 유효성 검사만 요청 스레드에서 하고, 이미지 수신 후 Redis 저장과 응답은 완료 시점에 처리함
+     */
+    public Mono<ResponseEntity<?>> createScene(SceneRequest sceneRequest, HttpServletRequest request) {
+        // 비동기 완료 시점에는 request를 쓰지 않도록 URI를 미리 꺼내 둠
+        String requestUri = request.getRequestURI();
+
+        Game game = gameRepository.findById(sceneRequest.getGameId());
+        ResponseEntity<?> invalid = validateSceneRequest(sceneRequest, game, requestUri);
+        if (invalid != null) {
+            return Mono.just(invalid);
+        }
+
+        // 같은 턴의 중복 요청은 진행 중인 생성에 붙거나 이미 저장된 결과를 받음
+        return sceneSingleFlight.run(sceneRequest, () -> generateScene(sceneRequest, game, null))
+                // 이미지 바이너리 데이터를 PNG 미디어 타입으로 반환
+                .<ResponseEntity<?>>map(scene -> ResponseEntity.status(HttpStatus.CREATED)
+                        .contentType(MediaType.IMAGE_PNG)
+                        .body(scene.getImage()))
+                .onErrorResume(e -> Mono.just(sceneFailure(e, requestUri)));
+    }
+
+    //503 응답, 백엔드가 바빠서 바로 거절된 경우 예상 대기 시간을 Retry-After 헤더로 알려 줌
+    private ResponseEntity<?> sceneFailure(Throwable e, String requestUri) {
+        ResponseEntity<?> failure = ApiResponseUtil.failure(sceneFailureMessage(e),
+                HttpStatus.SERVICE_UNAVAILABLE, // 503
+                requestUri);
+
+        ImageBackendBusyException busy = ImageBackendBusyException.find(e);
+        if (busy == null) {
+            return failure;
+        }
+        return ResponseEntity.status(failure.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(busy.getRetryAfterSeconds()))
+                .body(failure.getBody());
+    }
+
+    /**
+     * 이미지 생성 작업 등록 (Prefer: respond-async)
+     * 작업 id를 바로 돌려주고, 진행/완료는 작업 조회나 게임별 SSE(scene-job 이벤트)로 알림
+     * 작업 상태와 요청 내용은 Redis에 저장하고, 진행하던 인스턴스가 재시작되면 다른 인스턴스(또는 재시작한 인스턴스)가 이어서 진행
+     */
+    public ResponseEntity<?> enqueueScene(SceneRequest sceneRequest, HttpServletRequest request) {
+        Game game = gameRepository.findById(sceneRequest.getGameId());
+        ResponseEntity<?> invalid = validateSceneRequest(sceneRequest, game, request.getRequestURI());
+        if (invalid != null) {
+            return invalid;
+        }
 
+        long now = System.currentTimeMillis();
+        SceneJob job = SceneJob.builder()
+                .id(UUID.randomUUID().toString())
+                .gameId(sceneRequest.getGameId())
+                .userId(sceneRequest.getUserId())
+                .turn(sceneRequest.getTurn())
+                .userPrompt(sceneRequest.getUserPrompt())
+                .isEnding(sceneRequest.getIsEnding())
+                .state(SceneJob.State.QUEUED)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
 
-    public ResponseEntity<?> createScene(SceneRequest sceneRequest, HttpServletRequest request) {
+        updateSceneJob(job);
+        runSceneJob(job.getId());
+
+        log.info("이미지 생성 작업 등록 - jobId: {}, gameId: {}", job.getId(), job.getGameId());
+        return ApiResponseUtil.success(job, "이미지 생성 작업이 등록되었습니다.", HttpStatus.ACCEPTED, request.getRequestURI());
+    }
+
+    public ResponseEntity<?> getSceneJob(String jobId, HttpServletRequest request) {
+        SceneJob job = sceneJobRepository.findById(jobId);
+        if (job == null) {
+            return ApiResponseUtil.failure("존재하지 않는 작업입니다.", HttpStatus.NOT_FOUND, request.getRequestURI());
+        }
+        return ApiResponseUtil.success(job, "작업 조회 성공", HttpStatus.OK, request.getRequestURI());
+    }
+
+    //작업 완료 이벤트의 imageUrl로 이미지 조회
+    public ResponseEntity<?> getSceneImage(String sceneId, HttpServletRequest request) {
+        SceneRedis scene = redisSceneRepository.findById(sceneId);
+        byte[] image = scene != null ? redisSceneRepository.findImage(scene) : null;
+        if (image == null) {
+            return ApiResponseUtil.failure("존재하지 않는 scene입니다.", HttpStatus.NOT_FOUND, request.getRequestURI());
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_PNG)
+                .body(image);
+    }
+
+    //재시작 등으로 멈춘 이미지 생성 작업을 이어서 진행 (진행 중인 인스턴스의 lease가 만료된 것만 잡힘)
+    @Scheduled(fixedDelayString = "${scene.job.resume-interval-ms:30000}")
+    public void resumeSceneJobs() {
+        for (String jobId : sceneJobRepository.findActiveIds()) {
+            runSceneJob(jobId);
+        }
+    }
+
+    //lease를 잡은 인스턴스만 진행하고, 진행하는 동안 lease를 주기적으로 연장 (연장에 실패하면 진행 중단)
+    private void runSceneJob(String jobId) {
+        if (!sceneJobRepository.acquireLease(jobId, instanceId, SCENE_JOB_LEASE)) {
+            return;
+        }
+
+        Sinks.Empty<Void> leaseLost = Sinks.empty();
+        Disposable renewal = Flux.interval(SCENE_JOB_LEASE_RENEW_INTERVAL)
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(tick -> {
+                    if (!sceneJobRepository.renewLease(jobId, instanceId, SCENE_JOB_LEASE)) {
+                        log.warn("이미지 생성 작업 lease 만료 - 진행 중단 - jobId: {}", jobId);
+                        leaseLost.tryEmitEmpty();
+                    }
+                }, e -> log.warn("이미지 생성 작업 lease 연장 실패 - jobId: {}, {}", jobId, e.getMessage()));
+
+        // 작업 조회(Redis)가 블로킹 호출이므로 별도 스레드에서 시작
+        Mono.fromCallable(() -> sceneJobRepository.findById(jobId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(Mono.fromRunnable(() -> sceneJobRepository.removeActive(jobId)))
+                .flatMap(this::executeSceneJob)
+                .takeUntilOther(leaseLost.asMono())
+                .doFinally(signal -> {
+                    renewal.dispose();
+                    sceneJobRepository.releaseLease(jobId, instanceId);
+                })
+                .subscribe(null, e -> log.error("이미지 생성 작업 처리 중 오류 - jobId: {}", jobId, e));
+    }
+
+    private Mono<Void> executeSceneJob(SceneJob job) {
+        if (job.isDone()) {
+            return Mono.empty();
+        }
+
+        Game game = gameRepository.findById(job.getGameId());
+        if (game == null) {
+            failSceneJob(job, "게임이 종료되어 이미지를 생성할 수 없습니다.", 0);
+            return Mono.empty();
+        }
+        if (job.getAttempts() >= SCENE_JOB_MAX_ATTEMPTS) {
+            // 마지막 시도 중에 인스턴스가 내려간 경우
+            failSceneJob(job, "이미지 생성이 중단되었습니다. 다시 시도해주세요.", 0);
+            return Mono.empty();
+        }
+
+        SceneRequest sceneRequest = SceneRequest.builder()
+                .gameId(job.getGameId())
+                .userId(job.getUserId())
+                .userPrompt(job.getUserPrompt())
+                .turn(job.getTurn())
+                .isEnding(job.getIsEnding())
+                .build();
+
+        return sceneSingleFlight.run(sceneRequest, () -> generateScene(sceneRequest, game, job))
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(scene -> {
+                    job.setState(SceneJob.State.SUCCEEDED);
+                    job.setSceneId(scene.getId());
+                    job.setImageUrl("/scene/" + scene.getId() + "/image");
+                    updateSceneJob(job);
+                    log.info("이미지 생성 작업 완료 - jobId: {}, sceneId: {}", job.getId(), scene.getId());
+                })
+                .onErrorResume(e -> {
+                    ImageBackendBusyException busy = ImageBackendBusyException.find(e);
+                    failSceneJob(job, sceneFailureMessage(e), busy != null ? busy.getRetryAfterSeconds() : 0);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void failSceneJob(SceneJob job, String error, long retryAfterSeconds) {
+        job.setState(SceneJob.State.FAILED);
+        job.setError(error);
+        job.setRetryAfterSeconds(retryAfterSeconds);
+        updateSceneJob(job);
+        log.error("이미지 생성 작업 실패 - jobId: {}, 시도 횟수: {}, {}", job.getId(), job.getAttempts(), error);
+    }
+
+    //이미지 생성 시도 시작 기록 (시도 횟수는 재시작 후 재개까지 합쳐서 셈)
+    private void startSceneJobAttempt(SceneJob job) {
+        job.setState(SceneJob.State.RUNNING);
+        job.setAttempts(job.getAttempts() + 1);
+        updateSceneJob(job);
+    }
+
+    //백엔드가 바빠서 거절된 경우에는 예상 대기 시간만큼 기다렸다가 재시도
+    private static Retry sceneImageRetry(SceneJob job) {
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            if (job.getAttempts() >= SCENE_JOB_MAX_ATTEMPTS) {
+                return Mono.<Long>error(signal.failure());
+            }
+            ImageBackendBusyException busy = ImageBackendBusyException.find(signal.failure());
+            return Mono.delay(Duration.ofSeconds(busy != null ? busy.getRetryAfterSeconds() : 0));
+        }));
+    }
+
+    //작업 상태 저장 후 같은 게임 구독자에게 알림
+    private void updateSceneJob(SceneJob job) {
+        job.setUpdatedAt(System.currentTimeMillis());
+        sceneJobRepository.save(job);
+        gameEventPublisher.publish(job.getGameId(), "scene-job", job);
+    }
+
+    //게임과 플레이어가 존재하는지 확인, 문제 없으면 null
+    private ResponseEntity<?> validateSceneRequest(SceneRequest sceneRequest, Game game, String requestUri) {
         log.info("=== 이미지 생성 요청 시작 ===");
         log.info("게임ID: {}, 사용자ID: {}, 턴: {}", sceneRequest.getGameId(), sceneRequest.getUserId(), sceneRequest.getTurn());
         log.info("사용자 입력: [{}] (길이: {}자)", sceneRequest.getUserPrompt(), sceneRequest.getUserPrompt().length());
 
         // 게임 데이터 조회 및 유효성 검사
-        Game game = gameRepository.findById(sceneRequest.getGameId());
         if (game == null) {
             log.error("존재하지 않는 게임ID: {}", sceneRequest.getGameId());
             return ApiResponseUtil.failure("존재하지 않는 gameId입니다.",
                     HttpStatus.BAD_REQUEST,
-                    request.getRequestURI());
+                    requestUri);
         }
 
         boolean userExists = game.getPlayerStatuses()
@@ -76,100 +297,122 @@ public class SceneService {
             log.error("게임 {}에 존재하지 않는 사용자ID: {}", sceneRequest.getGameId(), sceneRequest.getUserId());
             return ApiResponseUtil.failure("해당 게임에 존재하지 않는 userId입니다.",
                     HttpStatus.BAD_REQUEST,
-                    request.getRequestURI());
+                    requestUri);
         }
 
         log.info("게임 유효성 검사 통과. 그림체 모드: {}", game.getDrawingStyle());
+        return null;
+    }
 
-        // Python 통합 이미지 생성 서비스 호출
-        byte[] generateImage = null;
-        try {
-            // 프론트엔드에서 전달받은 isEnding 값 사용 (실제 게임 로직에 기반)
-            // Boolean으로 변경되었으므로 null 체크 추가
-            Boolean isEndingValue = sceneRequest.getIsEnding();
-            boolean isEndingCard = isEndingValue != null ? isEndingValue : false;
-            
-            log.info("=== 결말카드 판정 결과 ===");
-            log.info("프론트엔드에서 전달받은 isEnding (원본): {}", isEndingValue);
-            log.info("프론트엔드에서 전달받은 isEnding (처리): {}", isEndingCard);
-            log.info("최종 판정: {} 카드", isEndingCard ? "결말" : "일반");
-            
-            log.info("=== Python 이미지 생성 서비스 호출 시작 ===");
-            
-            generateImage = callPythonImageService(sceneRequest, game.getDrawingStyle(), isEndingCard);
-            log.info("=== Python 이미지 생성 성공 ===");
-            log.info("생성된 이미지 크기: {} bytes", generateImage.length);
-            
-        } catch (WebClientException e) {
-            log.error("=== API 서버 통신 에러 ===");
-            log.error("WebClientException 발생: {}", e.getMessage());
-            log.error("에러 상세:", e);
-            return ApiResponseUtil.failure("AI 이미지 생성 서비스 일시 장애. 잠시 후 다시 시도해주세요.",
-                    HttpStatus.SERVICE_UNAVAILABLE, // 503
-                    request.getRequestURI());
-        } catch (RuntimeException e) {
-            log.error("=== Runtime 에러 ===");
-            log.error("RuntimeException 발생: {}", e.getMessage());
-            log.error("에러 상세:", e);
-            
-            // Gemini API 최종 실패의 경우 재시도 안내
-            if (e.getMessage() != null && e.getMessage().contains("이미지 생성 최종 실패")) {
-                return ApiResponseUtil.failure("AI 이미지 생성이 일시적으로 불안정합니다. 잠시 후 다시 시도해주세요.",
-                        HttpStatus.SERVICE_UNAVAILABLE, // 503
-                        request.getRequestURI());
-            }
-            
-            return ApiResponseUtil.failure("이미지 생성 처리 중 오류가 발생했습니다. 잠시 후 다시 시도해주세요.",
-                    HttpStatus.SERVICE_UNAVAILABLE, // 503
-                    request.getRequestURI());
-        } catch (Exception e) {
-            log.error("=== 일반 에러 ===");
-            log.error("Exception 발생: {}", e.getMessage());
-            log.error("에러 상세:", e);
-            return ApiResponseUtil.failure("예상치 못한 오류가 발생했습니다. 잠시 후 다시 시도해주세요.",
-                    HttpStatus.SERVICE_UNAVAILABLE, // 503
-                    request.getRequestURI());
-        }
-
-        if (generateImage == null || generateImage.length == 0) {
-            log.error("=== 이미지 생성 실패 ===");
-            log.error("생성된 이미지가 null이거나 크기가 0입니다. generateImage: {}", 
-                    generateImage == null ? "null" : "empty(" + generateImage.length + " bytes)");
-            return ApiResponseUtil.failure("이미지 생성이 완료되지 않았습니다. 다시 시도해주세요.",
-                    HttpStatus.SERVICE_UNAVAILABLE, // 503
-                    request.getRequestURI());
+    /**
+     * Python 서비스로 이미지를 만들고 Redis에 scene 저장
+     * job이 있으면(작업 모드) 실패한 단계만 재시도 - 이미지 생성 실패는 이미지만, 저장 실패는 같은 scene 저장만 다시 함
+     */
+    private Mono<SceneRedis> generateScene(SceneRequest sceneRequest, Game game, SceneJob job) {
+        // 프론트엔드에서 전달받은 isEnding 값 사용 (실제 게임 로직에 기반)
+        // Boolean으로 변경되었으므로 null 체크 추가
+        Boolean isEndingValue = sceneRequest.getIsEnding();
+        boolean isEndingCard = isEndingValue != null ? isEndingValue : false;
+
+        log.info("=== 결말카드 판정 결과 ===");
+        log.info("프론트엔드에서 전달받은 isEnding (원본): {}", isEndingValue);
+        log.info("프론트엔드에서 전달받은 isEnding (처리): {}", isEndingCard);
+        log.info("최종 판정: {} 카드", isEndingCard ? "결말" : "일반");
+
+        log.info("=== Python 이미지 생성 서비스 호출 시작 ===");
+
+        Mono<byte[]> image = Mono.defer(() -> callPythonImageService(sceneRequest, game.getDrawingStyle(), isEndingCard));
+        if (job != null) {
+            // 시도 기록(Redis)이 블로킹 호출이므로 재시도할 때도 별도 스레드에서 시작
+            image = Mono.fromRunnable(() -> startSceneJobAttempt(job))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .then(image)
+                    .retryWhen(sceneImageRetry(job));
         }
 
-        log.info("=== Redis 저장 시작 ===");
+        // 직전 투표 결과가 게임 컨텍스트에 반영된 뒤 Python 통합 이미지 생성 서비스 호출
+        return voteOutbox.awaitDelivered(sceneRequest.getGameId())
+                .then(image)
+                .flatMap(generateImage -> {
+                    log.info("=== Python 이미지 생성 성공 ===");
+                    log.info("생성된 이미지 크기: {} bytes", generateImage.length);
+
+                    // scene id를 먼저 정해서 저장을 다시 해도 같은 scene을 덮어씀
+                    SceneRedis scene = newScene(sceneRequest, generateImage);
+                    // Redis 저장은 블로킹 호출이므로 Netty 이벤트 루프가 아닌 별도 스레드에서 처리
+                    Mono<SceneRedis> save = Mono.fromCallable(() -> saveScene(scene))
+                            .subscribeOn(Schedulers.boundedElastic());
+                    if (job == null) {
+                        return save;
+                    }
+                    return save.retryWhen(Retry.backoff(SCENE_SAVE_MAX_ATTEMPTS - 1, SCENE_SAVE_BACKOFF)
+                            .doBeforeRetry(signal -> log.warn("scene 저장 재시도 - jobId: {}, {}", job.getId(), signal.failure().getMessage()))
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+                });
+    }
 
-        // Redis 등 저장소에 이미지 데이터와 함께 Scene 정보 저장
-        String id = UUID.randomUUID().toString();
-        SceneRedis scene = SceneRedis.builder()
-                .id(id)
+    private SceneRedis newScene(SceneRequest sceneRequest, byte[] generateImage) {
+        return SceneRedis.builder()
+                .id(UUID.randomUUID().toString())
                 .gameId(sceneRequest.getGameId())
                 .prompt(sceneRequest.getUserPrompt())
                 .image(generateImage)  // 바이너리 이미지 데이터 저장
                 .sceneOrder(sceneRequest.getTurn())
                 .userId(sceneRequest.getUserId())
                 .build();
+    }
 
+    private SceneRedis saveScene(SceneRedis scene) {
+        log.info("=== Redis 저장 시작 ===");
+
+        // Redis 등 저장소에 이미지 데이터와 함께 Scene 정보 저장
         redisSceneRepository.save(scene);
 
-        log.info("Redis에 저장된 scene 개수 : {}", redisSceneRepository.findAllByGameId(sceneRequest.getGameId()).size());
-        log.info("새로운 API에서 생성된 이미지 크기 : {}", generateImage.length);
-        log.info("Redis에 저장된 이미지 크기 : {}", redisSceneRepository.findById(id).getImage().length);
+        log.info("Redis에 저장된 scene 개수 : {}", redisSceneRepository.countByGameId(scene.getGameId()));
+        log.info("새로운 API에서 생성된 이미지 크기 : {}", scene.getImage().length);
+        return scene;
+    }
 
-        // 이미지 바이너리 데이터를 PNG 미디어 타입으로 반환
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .contentType(MediaType.IMAGE_PNG)
-                .body(generateImage);
+    //이미지 생성 실패 원인별 안내 메시지 (동기 응답은 503과 함께, 작업은 error 필드로 전달)
+    private String sceneFailureMessage(Throwable e) {
+        // 동시 요청 제한 초과/서킷 열림으로 바로 거절된 경우
+        ImageBackendBusyException busy = ImageBackendBusyException.find(e);
+        if (busy != null) {
+            log.warn("이미지 백엔드 과부하로 요청 거절: {}, 예상 대기 {}초", busy.getMessage(), busy.getRetryAfterSeconds());
+            return "AI 이미지 생성 서비스 일시 장애. 잠시 후 다시 시도해주세요.";
+        }
+
+        if (e instanceof WebClientException) {
+            log.error("=== API 서버 통신 에러 ===");
+            log.error("WebClientException 발생: {}", e.getMessage());
+            log.error("에러 상세:", e);
+            return "AI 이미지 생성 서비스 일시 장애. 잠시 후 다시 시도해주세요.";
+        }
+
+        if (e instanceof RuntimeException) {
+            log.error("=== Runtime 에러 ===");
+            log.error("RuntimeException 발생: {}", e.getMessage());
+            log.error("에러 상세:", e);
+
+            // Gemini API 최종 실패의 경우 재시도 안내
+            if (e.getMessage() != null && e.getMessage().contains("이미지 생성 최종 실패")) {
+                return "AI 이미지 생성이 일시적으로 불안정합니다. 잠시 후 다시 시도해주세요.";
+            }
+
+            return "이미지 생성 처리 중 오류가 발생했습니다. 잠시 후 다시 시도해주세요.";
+        }
+
+        log.error("=== 일반 에러 ===");
+        log.error("Exception 발생: {}", e.getMessage());
+        log.error("에러 상세:", e);
+        return "예상치 못한 오류가 발생했습니다. 잠시 후 다시 시도해주세요.";
     }
 
 
     public ResponseEntity<?> deleteScene(DeleteSceneRequest deleteSceneRequest, HttpServletRequest request) {
         log.info("투표 요청 왔습니다.");
-        List<SceneRedis> scenes = redisSceneRepository.findAllByGameId(deleteSceneRequest.getGameId());
-        if(scenes.isEmpty()) {
+        SceneRedis lastScene = redisSceneRepository.findLastByGameId(deleteSceneRequest.getGameId());
+        if(lastScene == null) {
             log.error("저장된 scene이 없습니다.");
             return ApiResponseUtil.failure("아직 저장된 scene이 없습니다.",
                     HttpStatus.BAD_REQUEST,
@@ -181,14 +424,15 @@ public class SceneService {
 
         log.info("투표 결과 : {}, 결말 여부: {}", deleteSceneRequest.isAccepted(), isEnding);
 
-        // AI 서비스에 투표 결과 전달
+        // AI 서비스에 투표 결과 전달 (outbox에 쌓고 백그라운드로 전달)
         try {
-            SceneRedis lastScene = scenes.get(scenes.size() - 1);
-            notifyVoteResultToAI(deleteSceneRequest.getGameId(),
-                               deleteSceneRequest.getUserId(),
-                               lastScene.getPrompt(),
-                               lastScene.getSceneOrder(),
-                               deleteSceneRequest.isAccepted());
+            voteOutbox.enqueue(VoteNotification.builder()
+                    .gameId(deleteSceneRequest.getGameId())
+                    .userId(deleteSceneRequest.getUserId())
+                    .userPrompt(lastScene.getPrompt())
+                    .turn(lastScene.getSceneOrder())
+                    .accepted(deleteSceneRequest.isAccepted())
+                    .build());
         } catch (Exception e) {
             log.error("AI 서비스에 투표 결과 전달 실패: {}", e.getMessage());
             // AI 서비스 호출 실패는 게임 진행에 영향을 주지 않도록 로그만 남김
@@ -197,8 +441,9 @@ public class SceneService {
         if(!deleteSceneRequest.isAccepted()){
             log.info("투표 결과 반대");
             //scene 데이터 삭제
-            SceneRedis lastScene = scenes.get(scenes.size() - 1);
             redisSceneRepository.delete(lastScene);
+            //같은 턴을 다시 생성할 수 있도록 중복 방지 결과도 삭제
+            sceneSingleFlight.forget(lastScene.getGameId(), lastScene.getSceneOrder(), lastScene.getUserId());
 
             // 결말 투표 실패 시 -1점
             int scoreChange = isEnding ? -1 : 0;
@@ -216,20 +461,11 @@ public class SceneService {
             return ApiResponseUtil.success(voteResult, voteResult.getMessage(), HttpStatus.OK, request.getRequestURI());
         }
 
-        //사용한 카드 삭제해야함
-        PlayerStatus playerStatus = gameRepository.getPlayerStatus(deleteSceneRequest.getGameId(), deleteSceneRequest.getUserId());
-
-        storyCardRepository.findById(deleteSceneRequest.getCardId())
-                .ifPresent(playerStatus.getStoryCards()::remove);
+        //사용한 카드 삭제 (플레이어 손패에서만 빼면 되므로 Redis 스크립트로 한 번에 처리)
+        consumeStoryCard(deleteSceneRequest);
 
-        Game game = gameRepository.findById(deleteSceneRequest.getGameId());
-        
-        game.getPlayerStatuses().stream()
-                .filter(ps -> ps.getUserId().equals(playerStatus.getUserId()))
-                .findFirst()
-                .ifPresent(ps -> ps.setStoryCards(playerStatus.getStoryCards()));
-
-        gameRepository.update(game);
+        // 승인된 scene은 게임 종료를 기다리지 않고 바로 S3 staging 영역에 업로드 (반대된 scene은 위에서 Redis에서 삭제됨)
+        s3service.stageSceneAsync(lastScene);
 
         log.info("투표 결과 찬성");
 
@@ -260,21 +496,20 @@ public class SceneService {
 
         log.info("투표 찬성이 나오면 카드 사용됨");
         //사용한 카드 삭제해야함
-        PlayerStatus playerStatus = gameRepository.getPlayerStatus(deleteSceneRequest.getGameId(), deleteSceneRequest.getUserId());
-
-        storyCardRepository.findById(deleteSceneRequest.getCardId())
-                .ifPresent(playerStatus.getStoryCards()::remove);
-
-        Game game = gameRepository.findById(deleteSceneRequest.getGameId());
+        consumeStoryCard(deleteSceneRequest);
 
-        game.getPlayerStatuses().stream()
-                .filter(ps -> ps.getUserId().equals(playerStatus.getUserId()))
-                .findFirst()
-                .ifPresent(ps -> ps.setStoryCards(playerStatus.getStoryCards()));
+        return ApiResponseUtil.success(null, "투표 결과 찬성으로 장면이 승인됨", HttpStatus.OK, request.getRequestURI());
+    }
 
-        gameRepository.update(game);
+    private void consumeStoryCard(DeleteSceneRequest deleteSceneRequest) {
+        CardOperationResult result = gameRepository.consumeStoryCard(deleteSceneRequest.getGameId(),
+                deleteSceneRequest.getUserId(), deleteSceneRequest.getCardId());
 
-        return ApiResponseUtil.success(null, "투표 결과 찬성으로 장면이 승인됨", HttpStatus.OK, request.getRequestURI());
+        // 카드가 이미 없더라도 투표 결과 처리는 그대로 진행
+        if (!result.isSuccess()) {
+            log.warn("사용한 카드 삭제 실패 - gameId: {}, userId: {}, cardId: {}, 사유: {}",
+                    deleteSceneRequest.getGameId(), deleteSceneRequest.getUserId(), deleteSceneRequest.getCardId(), result.getStatus());
+        }
     }
 
     /**
@@ -674,81 +909,44 @@ public class SceneService {
     }
     
     /**
-     * AI 서비스에 투표 결과 전달
-     */
-    private void notifyVoteResultToAI(String gameId, String userId, String userPrompt, int turn, boolean accepted) {
-        try {
-            // Python 서비스 요청 데이터 구성
-            HashMap<String, Object> requestBody = new HashMap<>();
-            requestBody.put("gameId", gameId);
-            requestBody.put("userId", userId);
-            requestBody.put("userPrompt", userPrompt);
-            requestBody.put("turn", turn);
-            requestBody.put("accepted", accepted);
-            requestBody.put("selectedKeywords", null); // 필요시 추가 가능
-
-            log.info("AI 서비스에 투표 결과 전달: gameId={}, turn={}, accepted={}", gameId, turn, accepted);
-
-            // Python 서비스 호출 (비동기로 처리하여 게임 진행에 영향 없도록)
-            String response = pythonImageServiceClient
-                .post()
-                .uri("/vote-result")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(String.class)
-                .timeout(Duration.ofSeconds(5))  // 짧은 타임아웃
-                .block();
-
-            log.info("AI 서비스 투표 결과 전달 성공: {}", response);
-
-        } catch (Exception e) {
-            log.error("AI 서비스 투표 결과 전달 실패: {}", e.getMessage());
-            // 예외를 다시 던지지 않음 - 게임 진행에 영향을 주지 않기 위해
-        }
-    }
-
-    /**
-     * Python 통합 이미지 생성 서비스 호출 - 바이너리 이미지 데이터 반환
+     * Python 통합 이미지 생성 서비스 호출 - 바이너리 이미지 데이터를 비동기로 반환
      */
-    private byte[] callPythonImageService(SceneRequest sceneRequest, int drawingStyle, boolean isEnding) {
-        try {
-            // Python 서비스 요청 데이터 구성
-            HashMap<String, Object> requestBody = new HashMap<>();
-            requestBody.put("gameId", sceneRequest.getGameId());
-            requestBody.put("userId", sceneRequest.getUserId());
-            requestBody.put("userPrompt", sceneRequest.getUserPrompt());
-            requestBody.put("turn", sceneRequest.getTurn());
-            requestBody.put("drawingStyle", drawingStyle);
-            requestBody.put("isEnding", isEnding);
-            
-            log.info("Python 서비스 호출 요청: {}", requestBody);
-            
-            // Python 서비스 호출 (재시도 로직 포함) - 바이너리 이미지 데이터 반환
-            byte[] imageData = pythonImageServiceClient
-                .post()
-                .uri("/generate-scene")
-                .bodyValue(requestBody)
-                .retrieve()
-                .onStatus(
-                    status -> status.is4xxClientError() || status.is5xxServerError(),
-                    clientResponse -> clientResponse.bodyToMono(String.class)
-                        .map(errorBody -> new RuntimeException("Python 서비스 에러: " + errorBody))
-                )
-                .bodyToMono(byte[].class)  // 바이너리 데이터로 수신
-                .timeout(Duration.ofMinutes(5))  // 5분 타임아웃
-                .block();
-            
-            if (imageData == null || imageData.length == 0) {
+    private Mono<byte[]> callPythonImageService(SceneRequest sceneRequest, int drawingStyle, boolean isEnding) {
+        // Python 서비스 요청 데이터 구성
+        HashMap<String, Object> requestBody = new HashMap<>();
+        requestBody.put("gameId", sceneRequest.getGameId());
+        requestBody.put("userId", sceneRequest.getUserId());
+        requestBody.put("userPrompt", sceneRequest.getUserPrompt());
+        requestBody.put("turn", sceneRequest.getTurn());
+        requestBody.put("drawingStyle", drawingStyle);
+        requestBody.put("isEnding", isEnding);
+
+        log.info("Python 서비스 호출 요청: {}", requestBody);
+
+        // Python 서비스 호출 - 바이너리 이미지 데이터 반환
+        // 게임 컨텍스트를 가진 백엔드(처음엔 그림체 선호 백엔드)로 전송
+        // 아직 컨텍스트가 없는 첫 장면은 p90까지 응답이 없으면 다른 백엔드로 헤지 (image.hedge.enabled)
+        return imageBackendBalancer.exchangeHedged(sceneRequest.getGameId(), drawingStyle, client -> client
+            .post()
+            .uri("/generate-scene")
+            .bodyValue(requestBody)
+            .retrieve()
+            .onStatus(
+                status -> status.is4xxClientError() || status.is5xxServerError(),
+                clientResponse -> clientResponse.bodyToMono(String.class)
+                    .map(errorBody -> new RuntimeException("Python 서비스 에러: " + errorBody))
+            )
+            .bodyToMono(byte[].class))  // 바이너리 데이터로 수신
+            .timeout(Duration.ofMinutes(5))  // 5분 타임아웃
+            .filter(imageData -> imageData.length > 0)
+            .switchIfEmpty(Mono.defer(() -> {
                 log.error("Python 서비스에서 빈 이미지 데이터 수신");
-                throw new RuntimeException("빈 이미지 데이터 수신");
-            }
-            
-            log.info("Python 이미지 생성 성공. 이미지 크기: {} bytes", imageData.length);
-            return imageData;
-            
-        } catch (Exception e) {
-            log.error("Python 이미지 서비스 호출 실패: {}", e.getMessage());
-            throw new RuntimeException("이미지 생성 서비스 호출 실패: " + e.getMessage(), e);
-        }
+                return Mono.error(new RuntimeException("빈 이미지 데이터 수신"));
+            }))
+            .doOnNext(imageData -> log.info("Python 이미지 생성 성공. 이미지 크기: {} bytes", imageData.length))
+            .onErrorMap(e -> {
+                log.error("Python 이미지 서비스 호출 실패: {}", e.getMessage());
+                return new RuntimeException("이미지 생성 서비스 호출 실패: " + e.getMessage(), e);
+            });
     }
 }
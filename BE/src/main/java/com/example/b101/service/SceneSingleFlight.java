@@ -0,0 +1,145 @@
+package com.example.b101.service;
+
+import com.example.b101.cache.SceneRedis;
+import com.example.b101.dto.SceneRequest;
+import com.example.b101.repository.RedisSceneRepository;
+import com.example.b101.repository.SceneLeaseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * (gameId, turn, userId)마다 이미지 생성을 한 번만 실행
+ *
+ * 타임아웃 후 재요청이나 중복 제출이 와도 이미지를 다시 만들지 않음.
+ *  - 같은 인스턴스에서 진행 중이면 그 생성 결과를 같이 기다림 (로컬 맵)
+ *  - 다른 인스턴스에서 진행 중이면 Redis lease가 완료 값으로 바뀔 때까지 주기적으로 확인
+ *  - 이미 끝났으면 저장된 scene을 그대로 돌려줌
+ * 생성이 실패하면 lease를 지워서 다음 요청이 다시 생성할 수 있게 함.
+ * 생성하는 동안 lease를 주기적으로 연장하고, 연장하지 못하면(다른 인스턴스가 가져감) 생성을 멈추고 그 결과를 기다림.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SceneSingleFlight {
+
+    private static final String RUNNING = "running:";
+    private static final String DONE = "done:";
+
+    // 생성 중에는 LEASE_RENEW_INTERVAL마다 연장하므로 인스턴스가 죽으면 LEASE 안에 다른 요청이 이어받음
+    private static final Duration LEASE = Duration.ofMinutes(1);
+    private static final Duration LEASE_RENEW_INTERVAL = Duration.ofSeconds(20);
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(1);
+
+    private final SceneLeaseRepository sceneLeaseRepository;
+    private final RedisSceneRepository redisSceneRepository;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, Mono<SceneRedis>> inFlight = new ConcurrentHashMap<>();
+
+    private record Flight(SceneRedis scene, String lease) {
+    }
+
+    //해당 턴의 scene 생성 결과, 필요할 때만 generator로 새로 생성
+    public Mono<SceneRedis> run(SceneRequest sceneRequest, Supplier<Mono<SceneRedis>> generator) {
+        String key = sceneRequest.getGameId() + ":" + sceneRequest.getTurn() + ":" + sceneRequest.getUserId();
+
+        // 요청이 취소되어도 생성은 끝까지 진행되고, 결과는 cache로 나중에 붙은 요청까지 공유
+        return inFlight.computeIfAbsent(key, k -> Mono.defer(() -> acquireOrAttach(sceneRequest, generator))
+                .doFinally(signal -> inFlight.remove(k))
+                .cache());
+    }
+
+    //투표 반대로 scene이 지워진 턴은 다시 생성할 수 있게 결과를 잊음
+    public void forget(String gameId, int turn, String userId) {
+        sceneLeaseRepository.delete(gameId, turn, userId);
+    }
+
+    private Mono<SceneRedis> acquireOrAttach(SceneRequest sceneRequest, Supplier<Mono<SceneRedis>> generator) {
+        // lease 확인은 블로킹 Redis 호출이므로 별도 스레드에서 처리
+        return Mono.fromCallable(() -> tryAcquire(sceneRequest))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(flight -> {
+                    if (flight.scene() != null) {
+                        log.info("[SceneSingleFlight] 이미 생성된 scene 반환 - sceneId: {}", flight.scene().getId());
+                        return Mono.just(flight.scene());
+                    }
+                    if (flight.lease() != null) {
+                        return generate(sceneRequest, flight.lease(), generator);
+                    }
+                    // 다른 인스턴스가 생성 중이면 잠시 후 다시 확인
+                    return Mono.delay(POLL_INTERVAL).then(Mono.defer(() -> acquireOrAttach(sceneRequest, generator)));
+                });
+    }
+
+    private Flight tryAcquire(SceneRequest sceneRequest) {
+        String gameId = sceneRequest.getGameId();
+        int turn = sceneRequest.getTurn();
+        String userId = sceneRequest.getUserId();
+
+        String current = sceneLeaseRepository.find(gameId, turn, userId);
+        if (current != null && current.startsWith(DONE)) {
+            SceneRedis scene = redisSceneRepository.findById(current.substring(DONE.length()));
+            byte[] image = scene != null ? redisSceneRepository.findImage(scene) : null;
+            if (image != null) {
+                scene.setImage(image);
+                return new Flight(scene, null);
+            }
+            // 결과 scene이 이미 지워졌으면 새로 생성
+            sceneLeaseRepository.release(gameId, turn, userId, current);
+        } else if (current != null) {
+            return new Flight(null, null);
+        }
+
+        String lease = RUNNING + instanceId + ":" + UUID.randomUUID();
+        if (sceneLeaseRepository.acquire(gameId, turn, userId, lease, LEASE)) {
+            return new Flight(null, lease);
+        }
+        return new Flight(null, null);
+    }
+
+    private Mono<SceneRedis> generate(SceneRequest sceneRequest, String lease, Supplier<Mono<SceneRedis>> generator) {
+        String gameId = sceneRequest.getGameId();
+        int turn = sceneRequest.getTurn();
+        String userId = sceneRequest.getUserId();
+
+        AtomicBoolean lost = new AtomicBoolean();
+        Sinks.Empty<Void> leaseLost = Sinks.empty();
+        Disposable renewal = Flux.interval(LEASE_RENEW_INTERVAL)
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(tick -> {
+                    if (!sceneLeaseRepository.renew(gameId, turn, userId, lease, LEASE)) {
+                        log.warn("[SceneSingleFlight] lease 만료 - 생성 중단 - gameId: {}, turn: {}, userId: {}", gameId, turn, userId);
+                        lost.set(true);
+                        leaseLost.tryEmitEmpty();
+                    }
+                }, e -> log.warn("[SceneSingleFlight] lease 연장 실패 - gameId: {}, turn: {}, userId: {}, {}", gameId, turn, userId, e.getMessage()));
+
+        return generator.get()
+                .takeUntilOther(leaseLost.asMono())
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(scene -> {
+                    if (!sceneLeaseRepository.complete(gameId, turn, userId, lease, DONE + scene.getId())) {
+                        log.warn("[SceneSingleFlight] lease 만료 후 생성 완료 - gameId: {}, turn: {}, userId: {}", gameId, turn, userId);
+                    }
+                })
+                .doFinally(signal -> renewal.dispose())
+                // lease를 가져간 쪽의 결과를 기다림
+                .switchIfEmpty(Mono.defer(() -> lost.get() ? acquireOrAttach(sceneRequest, generator) : Mono.empty()))
+                .onErrorResume(e -> Mono.fromRunnable(() -> sceneLeaseRepository.release(gameId, turn, userId, lease))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .then(Mono.<SceneRedis>error(e)));
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.b101.service;
+
+import com.example.b101.cache.VoteNotification;
+import com.example.b101.repository.VoteOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 투표 결과를 AI 서비스(/vote-result)에 비동기로 전달
+ *
+ * 투표 요청은 Redis Stream(outbox)에 쌓기만 하고 바로 응답함. 전달은 담당 인스턴스 하나가 주기적으로 처리.
+ *  - 보낼 수 있는 레코드를 BATCH_SIZE개까지 모아서 게임별로 묶고, 게임끼리는 동시에 / 같은 게임 안에서는 쌓인 순서대로 보냄
+ *    백오프 중인 게임의 레코드는 건너뛰고 다음 페이지를 읽으므로 앞쪽에 밀린 게임이 있어도 다른 게임은 계속 전달됨
+ *  - 실패하면 그 게임은 뒤 레코드도 보내지 않고 지터를 준 지수 백오프 후 실패한 레코드부터 다시 보냄
+ *  - MAX_ATTEMPTS번 실패하면 해당 레코드는 포기하고 다음 레코드로 넘어감
+ *  - 레코드를 보내기 전마다 담당 lease를 연장하고, 다른 인스턴스가 가져갔으면 남은 레코드는 보내지 않음 (새 담당이 이어서 보냄)
+ * 다음 장면 생성은 직전 투표 결과가 반영된 컨텍스트가 필요하므로 awaitDelivered로 해당 게임이 비워질 때까지 잠시 기다림.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VoteOutbox {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int GAME_CONCURRENCY = 16;
+    private static final int MAX_ATTEMPTS = 8;
+    private static final Duration SENDER_LEASE = Duration.ofSeconds(10);
+    private static final Duration SEND_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration BACKOFF_BASE = Duration.ofMillis(500);
+    private static final Duration BACKOFF_MAX = Duration.ofSeconds(30);
+    private static final Duration DRAIN_POLL_INTERVAL = Duration.ofMillis(100);
+    // 예전 동기 전달의 타임아웃과 같음, 넘으면 기다리지 않고 진행
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(5);
+
+    private final VoteOutboxRepository voteOutboxRepository;
+    private final ImageBackendBalancer imageBackendBalancer;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private final Map<String, Backoff> backoffs = new ConcurrentHashMap<>();
+
+    private record Backoff(int attempts, long nextAttemptAt) {
+    }
+
+    //전달 도중 담당 lease를 다른 인스턴스가 가져간 경우 (전달 실패로 세지 않음)
+    private static final class SenderLeaseLostException extends RuntimeException {
+        private SenderLeaseLostException() {
+            super("전달 담당 lease 만료");
+        }
+    }
+
+    //outbox에 쌓기만 함 (Redis 호출 한 번)
+    public void enqueue(VoteNotification notification) {
+        String id = voteOutboxRepository.append(notification);
+        log.info("투표 결과 전달 예약: gameId={}, turn={}, accepted={}, id={}",
+                notification.getGameId(), notification.getTurn(), notification.isAccepted(), id);
+    }
+
+    //해당 게임의 미전달 투표 결과가 없어질 때까지 대기 (최대 DRAIN_TIMEOUT)
+    public Mono<Void> awaitDelivered(String gameId) {
+        return Flux.interval(Duration.ZERO, DRAIN_POLL_INTERVAL)
+                .publishOn(Schedulers.boundedElastic())
+                .map(tick -> voteOutboxRepository.countPending(gameId))
+                .takeUntil(count -> count == 0)
+                .then()
+                .timeout(DRAIN_TIMEOUT, Mono.fromRunnable(() ->
+                        log.warn("투표 결과 전달 대기 시간 초과, 그대로 진행 - gameId: {}", gameId)));
+    }
+
+    @Scheduled(fixedDelayString = "${vote.outbox.poll-interval-ms:200}")
+    public void poll() {
+        // 이전 전달이 아직 끝나지 않았으면 건너뜀
+        if (!sending.compareAndSet(false, true)) {
+            return;
+        }
+
+        Map<String, List<VoteNotification>> byGame;
+        try {
+            if (!voteOutboxRepository.acquireSender(instanceId, SENDER_LEASE)) {
+                sending.set(false);
+                return;
+            }
+            voteOutboxRepository.claimNew(BATCH_SIZE);
+            byGame = findReady();
+        } catch (Exception e) {
+            log.error("[VoteOutbox] outbox 조회 실패: {}", e.getMessage());
+            sending.set(false);
+            return;
+        }
+
+        if (byGame.isEmpty()) {
+            sending.set(false);
+            return;
+        }
+
+        Flux.fromIterable(byGame.entrySet())
+                .flatMap(entry -> deliver(entry.getKey(), entry.getValue()), GAME_CONCURRENCY)
+                .doFinally(signal -> sending.set(false))
+                .subscribe(null, e -> log.error("[VoteOutbox] 전달 중 오류: {}", e.getMessage()));
+    }
+
+    //백오프 중인 게임은 빼고 게임별로 쌓인 순서대로 묶음 (보낼 레코드가 BATCH_SIZE개 모이거나 대기 목록 끝까지 페이지를 넘겨 가며 읽음)
+    private Map<String, List<VoteNotification>> findReady() {
+        long now = System.currentTimeMillis();
+        Map<String, List<VoteNotification>> byGame = new LinkedHashMap<>();
+        int ready = 0;
+        String afterId = "0";
+
+        while (ready < BATCH_SIZE) {
+            List<VoteNotification> page = voteOutboxRepository.findPending(afterId, BATCH_SIZE);
+            for (VoteNotification notification : page) {
+                if (ready == BATCH_SIZE) {
+                    break;
+                }
+                Backoff backoff = backoffs.get(notification.getGameId());
+                if (backoff != null && backoff.nextAttemptAt() > now) {
+                    continue;
+                }
+                byGame.computeIfAbsent(notification.getGameId(), gameId -> new ArrayList<>()).add(notification);
+                ready++;
+            }
+
+            if (page.size() < BATCH_SIZE) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        return byGame;
+    }
+
+    //한 게임의 투표 결과를 순서대로 보내고, 보낸 것까지 한 번에 삭제
+    private Mono<Void> deliver(String gameId, List<VoteNotification> notifications) {
+        List<String> done = new ArrayList<>();
+
+        return Flux.fromIterable(notifications)
+                .concatMap(notification -> holdSender()
+                        .then(Mono.defer(() -> send(notification)))
+                        .doOnSuccess(response -> done.add(notification.getId())))
+                .then()
+                .doOnSuccess(v -> backoffs.remove(gameId))
+                .onErrorResume(e -> {
+                    if (e instanceof SenderLeaseLostException) {
+                        // 보낸 것까지만 지우고 나머지는 새 담당 인스턴스가 보냄
+                        log.warn("[VoteOutbox] 전달 담당 lease 만료로 중단 - gameId: {}, 남은 레코드: {}개",
+                                gameId, notifications.size() - done.size());
+                        return Mono.empty();
+                    }
+                    VoteNotification failed = notifications.get(done.size());
+                    if (onFailure(failed, e)) {
+                        done.add(failed.getId());
+                    }
+                    return Mono.empty();
+                })
+                .publishOn(Schedulers.boundedElastic())
+                .then(Mono.fromRunnable(() -> voteOutboxRepository.ack(gameId, done)));
+    }
+
+    //레코드마다 보내기 직전에 담당 lease 연장 (배치가 lease보다 오래 걸려도 다른 인스턴스가 같은 레코드를 보내지 않음)
+    private Mono<Void> holdSender() {
+        return Mono.fromCallable(() -> voteOutboxRepository.acquireSender(instanceId, SENDER_LEASE))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(held -> held ? Mono.<Void>empty() : Mono.error(new SenderLeaseLostException()));
+    }
+
+    private Mono<String> send(VoteNotification notification) {
+        HashMap<String, Object> requestBody = new HashMap<>();
+        requestBody.put("gameId", notification.getGameId());
+        requestBody.put("userId", notification.getUserId());
+        requestBody.put("userPrompt", notification.getUserPrompt());
+        requestBody.put("turn", notification.getTurn());
+        requestBody.put("accepted", notification.isAccepted());
+        requestBody.put("selectedKeywords", null); // 필요시 추가 가능
+
+        // 이미지 생성 동시 요청 자리를 쓰지 않는 백그라운드 요청으로 보냄 (백엔드가 바쁘면 실패 → 백오프 후 재시도)
+        return imageBackendBalancer.exchangeBackground(notification.getGameId(), client -> client
+                        .post()
+                        .uri("/vote-result")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToMono(String.class))
+                .timeout(SEND_TIMEOUT)
+                .doOnNext(response -> log.info("AI 서비스 투표 결과 전달 성공: gameId={}, turn={}",
+                        notification.getGameId(), notification.getTurn()));
+    }
+
+    //실패 기록 후 재시도 시점 예약, 최대 횟수를 넘겼으면 true (포기)
+    private boolean onFailure(VoteNotification failed, Throwable e) {
+        String gameId = failed.getGameId();
+        Backoff previous = backoffs.get(gameId);
+        int attempts = previous != null ? previous.attempts() + 1 : 1;
+
+        if (attempts >= MAX_ATTEMPTS) {
+            log.error("AI 서비스 투표 결과 전달 포기: gameId={}, turn={}, 시도 {}회, 사유: {}",
+                    gameId, failed.getTurn(), attempts, e.getMessage());
+            backoffs.remove(gameId);
+            return true;
+        }
+
+        // full jitter: 0 ~ min(최대, 기본 * 2^(시도-1)) 사이에서 무작위로 기다림
+        long ceiling = Math.min(BACKOFF_MAX.toMillis(), BACKOFF_BASE.toMillis() << (attempts - 1));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        backoffs.put(gameId, new Backoff(attempts, System.currentTimeMillis() + delay));
+        log.warn("AI 서비스 투표 결과 전달 실패, {}ms 후 재시도: gameId={}, turn={}, 시도 {}회, 사유: {}",
+                delay, gameId, failed.getTurn(), attempts, e.getMessage());
+        return false;
+    }
+}
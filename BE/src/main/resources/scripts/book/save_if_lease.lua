@@ -0,0 +1,20 @@
+-- 책 만들기 진행 상태 저장, 아직 내 lease일 때만 (lease를 잃은 인스턴스가 이어받은 인스턴스의 상태를 덮어쓰지 않게)
+-- KEYS[1] book-build:lease:{bookId}, KEYS[2] book-build:{bookId}, KEYS[3] book-build:building
+-- ARGV[1] 내 lease 값, ARGV[2] ttl(초), ARGV[3] bookId, ARGV[4] 진행 중이면 1 / 아니면 0, ARGV[5..] field, value 쌍
+-- 반환 1(저장) / 0(lease가 없거나 다른 인스턴스의 lease)
+
+if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+    return 0
+end
+
+for i = 5, #ARGV, 2 do
+    redis.call('HSET', KEYS[2], ARGV[i], ARGV[i + 1])
+end
+redis.call('EXPIRE', KEYS[2], tonumber(ARGV[2]))
+
+if ARGV[4] == '1' then
+    redis.call('SADD', KEYS[3], ARGV[3])
+else
+    redis.call('SREM', KEYS[3], ARGV[3])
+end
+return 1
@@ -0,0 +1,34 @@
+-- 투표 찬성으로 사용된 이야기카드를 플레이어 손패에서 제거
+-- KEYS[1] game:{gameId}
+-- ARGV[1] ttl(초), ARGV[2] userId, ARGV[3] cardId
+-- 반환 {상태코드}
+
+local function split(value)
+    local ids = {}
+    for id in string.gmatch(value, '[^,]+') do
+        ids[#ids + 1] = id
+    end
+    return ids
+end
+
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return {1}
+end
+
+local field = 'p:' .. ARGV[2] .. ':cards'
+local cards = redis.call('HGET', KEYS[1], field)
+if not cards then
+    return {2}
+end
+
+local ids = split(cards)
+for i, id in ipairs(ids) do
+    if id == ARGV[3] then
+        table.remove(ids, i)
+        redis.call('HSET', KEYS[1], field, table.concat(ids, ','))
+        redis.call('EXPIRE', KEYS[1], ARGV[1])
+        return {0}
+    end
+end
+
+return {4}
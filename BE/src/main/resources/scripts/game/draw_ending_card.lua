@@ -0,0 +1,51 @@
+-- 결말카드 리롤: 게임 시작 때 저장해 둔 덱에서 커서 위치의 카드를 뽑아 플레이어의 결말카드로 지정
+-- KEYS[1] game:{gameId}
+-- ARGV[1] ttl(초), ARGV[2] userId
+-- 반환 {상태코드, 뽑은 결말카드 id} (6 = 덱이 저장되지 않은 게임 → 덱을 저장한 뒤 다시 호출)
+
+local function split(value)
+    local ids = {}
+    for id in string.gmatch(value, '[^,]+') do
+        ids[#ids + 1] = id
+    end
+    return ids
+end
+
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return {1}
+end
+
+local field = 'p:' .. ARGV[2] .. ':ending'
+local state = redis.call('HMGET', KEYS[1], 'endingDeck', 'endingCursor', 'players', field)
+if not state[4] then
+    return {2}
+end
+if not state[1] then
+    return {6}
+end
+
+local deck = split(state[1])
+
+-- 다른 플레이어가 들고 있는 결말카드는 건너뜀
+local held = {}
+for _, userId in ipairs(split(state[3])) do
+    local ending = redis.call('HGET', KEYS[1], 'p:' .. userId .. ':ending')
+    if ending then
+        held[ending] = true
+    end
+end
+
+local cursor = tonumber(state[2])
+while cursor < #deck do
+    local cardId = deck[cursor + 1]
+    cursor = cursor + 1
+
+    if not held[cardId] then
+        redis.call('HSET', KEYS[1], field, cardId, 'endingCursor', cursor)
+        redis.call('EXPIRE', KEYS[1], ARGV[1])
+        return {0, tonumber(cardId)}
+    end
+end
+
+redis.call('HSET', KEYS[1], 'endingCursor', cursor)
+return {5}
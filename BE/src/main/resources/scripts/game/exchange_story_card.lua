@@ -0,0 +1,62 @@
+-- 이야기카드 교환: 두 플레이어의 카드와 교환 횟수를 한 번에 변경
+-- KEYS[1] game:{gameId}
+-- ARGV[1] ttl(초), ARGV[2] fromUserId, ARGV[3] fromCardId, ARGV[4] toUserId, ARGV[5] toCardId
+-- 반환 {상태코드, 교환받은 카드 id, 신청자의 남은 교환 횟수} (상태코드는 CardOperationResult.Status 순서)
+
+local function split(value)
+    local ids = {}
+    for id in string.gmatch(value, '[^,]+') do
+        ids[#ids + 1] = id
+    end
+    return ids
+end
+
+local function indexOf(ids, target)
+    for i, id in ipairs(ids) do
+        if id == target then
+            return i
+        end
+    end
+    return nil
+end
+
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return {1}
+end
+
+local fromPrefix = 'p:' .. ARGV[2] .. ':'
+local toPrefix = 'p:' .. ARGV[4] .. ':'
+local state = redis.call('HMGET', KEYS[1], fromPrefix .. 'cards', fromPrefix .. 'exchange', toPrefix .. 'cards', toPrefix .. 'exchange')
+
+if not state[1] or not state[3] or ARGV[2] == ARGV[4] then
+    return {2}
+end
+
+local fromCount = tonumber(state[2])
+local toCount = tonumber(state[4])
+if fromCount <= 0 or toCount <= 0 then
+    return {3}
+end
+
+local fromIds = split(state[1])
+local toIds = split(state[3])
+local fromIndex = indexOf(fromIds, ARGV[3])
+local toIndex = indexOf(toIds, ARGV[5])
+if not fromIndex or not toIndex then
+    return {4}
+end
+
+-- 기존과 같이 내준 카드는 빼고 받은 카드는 맨 뒤에 추가
+table.remove(fromIds, fromIndex)
+table.insert(fromIds, ARGV[5])
+table.remove(toIds, toIndex)
+table.insert(toIds, ARGV[3])
+
+redis.call('HSET', KEYS[1],
+        fromPrefix .. 'cards', table.concat(fromIds, ','),
+        fromPrefix .. 'exchange', fromCount - 1,
+        toPrefix .. 'cards', table.concat(toIds, ','),
+        toPrefix .. 'exchange', toCount - 1)
+redis.call('EXPIRE', KEYS[1], ARGV[1])
+
+return {0, tonumber(ARGV[5]), fromCount - 1}
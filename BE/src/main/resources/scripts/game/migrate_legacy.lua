@@ -0,0 +1,22 @@
+-- 이전 "game" hash에 통째로 저장된 게임을 새 구조(game:{gameId})로 옮김
+-- 새 key를 먼저 쓴 뒤 이전 값을 지우므로, 동시에 들어온 요청도 둘 중 하나는 항상 찾을 수 있음
+-- KEYS[1] game (이전 hash), KEYS[2] game:{gameId}
+-- ARGV[1] gameId, ARGV[2] ttl(초), ARGV[3..] 새 hash의 field, value 쌍
+-- 반환 1 = 옮김, 0 = 이미 다른 요청이 옮겼거나 이전 값이 없음
+
+if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 0 then
+    return 0
+end
+
+-- 이미 옮겨진 게임이면 새 key의 변경을 덮어쓰지 않고 이전 값만 정리
+if redis.call('EXISTS', KEYS[2]) == 1 then
+    redis.call('HDEL', KEYS[1], ARGV[1])
+    return 0
+end
+
+for i = 3, #ARGV, 2 do
+    redis.call('HSET', KEYS[2], ARGV[i], ARGV[i + 1])
+end
+redis.call('EXPIRE', KEYS[2], tonumber(ARGV[2]))
+redis.call('HDEL', KEYS[1], ARGV[1])
+return 1
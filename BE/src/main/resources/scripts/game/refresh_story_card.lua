@@ -0,0 +1,68 @@
+-- 이야기카드 새로고침: 같은 속성의 후보 중 이 게임에서 아무도 들고 있지 않은 첫 카드로 교체
+-- KEYS[1] game:{gameId}
+-- ARGV[1] ttl(초), ARGV[2] userId, ARGV[3] 교체할 cardId, ARGV[4..] 후보 카드 id (Java에서 섞어서 전달)
+-- 반환 {상태코드, 새 카드 id, 남은 새로고침 횟수}
+
+local function split(value)
+    local ids = {}
+    for id in string.gmatch(value, '[^,]+') do
+        ids[#ids + 1] = id
+    end
+    return ids
+end
+
+local function indexOf(ids, target)
+    for i, id in ipairs(ids) do
+        if id == target then
+            return i
+        end
+    end
+    return nil
+end
+
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return {1}
+end
+
+local prefix = 'p:' .. ARGV[2] .. ':'
+local state = redis.call('HMGET', KEYS[1], prefix .. 'cards', prefix .. 'refresh', 'players')
+
+if not state[1] then
+    return {2}
+end
+
+local count = tonumber(state[2])
+if count <= 0 then
+    return {3}
+end
+
+local ids = split(state[1])
+local index = indexOf(ids, ARGV[3])
+if not index then
+    return {4}
+end
+
+-- 다른 플레이어가 들고 있는 카드는 후보에서 제외
+local held = {}
+for _, userId in ipairs(split(state[3])) do
+    local cards = redis.call('HGET', KEYS[1], 'p:' .. userId .. ':cards')
+    if cards then
+        for _, id in ipairs(split(cards)) do
+            held[id] = true
+        end
+    end
+end
+
+for i = 4, #ARGV do
+    if not held[ARGV[i]] then
+        table.remove(ids, index)
+        table.insert(ids, ARGV[i])
+
+        redis.call('HSET', KEYS[1], prefix .. 'cards', table.concat(ids, ','), prefix .. 'refresh', count - 1)
+        redis.call('EXPIRE', KEYS[1], ARGV[1])
+
+        return {0, tonumber(ARGV[i]), count - 1}
+    end
+end
+
+return {5}
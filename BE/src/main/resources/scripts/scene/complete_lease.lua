@@ -0,0 +1,11 @@
+-- 이미지 생성이 끝난 lease를 결과(sceneId)로 바꿈, lease가 아직 내 것일 때만
+-- KEYS[1] scene-lease:{gameId}:{turn}:{userId}
+-- ARGV[1] 내 lease 값, ARGV[2] 완료 값, ARGV[3] 완료 값 ttl(ms)
+-- 반환 1(성공) / 0(lease가 만료되어 다른 요청이 가져감)
+
+if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+    return 0
+end
+
+redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+return 1
@@ -0,0 +1,10 @@
+-- 이미지 생성 작업 lease 해제, 아직 내 lease일 때만
+-- KEYS[1] scene-job:lease:{jobId}
+-- ARGV[1] 내 lease 값
+-- 반환 1(삭제) / 0(다른 인스턴스의 lease라 그대로 둠)
+
+if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+    return 0
+end
+
+return redis.call('DEL', KEYS[1])
@@ -0,0 +1,10 @@
+-- 값이 그대로일 때만 lease 삭제 (이미지 생성 실패, 결과 scene이 사라진 경우)
+-- KEYS[1] scene-lease:{gameId}:{turn}:{userId}
+-- ARGV[1] 삭제할 값
+-- 반환 1(삭제) / 0(값이 바뀌어 그대로 둠)
+
+if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+    return 0
+end
+
+return redis.call('DEL', KEYS[1])
@@ -0,0 +1,10 @@
+-- 이미지 생성 작업 lease 연장, 아직 내 lease일 때만
+-- KEYS[1] scene-job:lease:{jobId}
+-- ARGV[1] 내 lease 값, ARGV[2] lease(ms)
+-- 반환 1(연장) / 0(만료되어 다른 인스턴스가 가져감)
+
+if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+    return 0
+end
+
+return redis.call('PEXPIRE', KEYS[1], ARGV[2])
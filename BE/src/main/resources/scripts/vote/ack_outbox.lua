@@ -0,0 +1,19 @@
+-- 전달이 끝난(또는 포기한) 레코드를 Stream에서 지우고 게임별 미전달 개수를 줄임
+-- KEYS[1] vote-outbox (Stream), KEYS[2] vote-outbox:pending:{gameId}
+-- ARGV[1] consumer group, ARGV[2..] 레코드 id
+-- 반환 남은 미전달 개수
+
+local ids = {}
+for i = 2, #ARGV do
+    ids[#ids + 1] = ARGV[i]
+end
+
+redis.call('XACK', KEYS[1], ARGV[1], unpack(ids))
+redis.call('XDEL', KEYS[1], unpack(ids))
+
+local remaining = redis.call('DECRBY', KEYS[2], #ids)
+if remaining <= 0 then
+    redis.call('DEL', KEYS[2])
+    return 0
+end
+return remaining
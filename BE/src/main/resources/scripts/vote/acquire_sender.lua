@@ -0,0 +1,16 @@
+-- outbox 전달 담당 인스턴스 lease 획득 또는 연장 (한 번에 한 인스턴스만 보내서 게임별 순서를 지킴)
+-- KEYS[1] vote-outbox:sender
+-- ARGV[1] 인스턴스 id, ARGV[2] lease(ms)
+-- 반환 1(내가 담당) / 0(다른 인스턴스가 담당 중)
+
+local current = redis.call('GET', KEYS[1])
+if current == false then
+    redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+    return 1
+end
+
+if current == ARGV[1] then
+    redis.call('PEXPIRE', KEYS[1], ARGV[2])
+    return 1
+end
+return 0
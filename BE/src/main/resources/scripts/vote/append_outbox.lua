@@ -0,0 +1,11 @@
+-- 투표 결과를 outbox Stream에 쌓고 게임별 미전달 개수를 늘림
+-- KEYS[1] vote-outbox (Stream), KEYS[2] vote-outbox:pending:{gameId}
+-- ARGV[1] gameId, ARGV[2] userId, ARGV[3] userPrompt, ARGV[4] turn, ARGV[5] accepted, ARGV[6] 미전달 개수 ttl(ms)
+-- 반환 레코드 id
+
+local id = redis.call('XADD', KEYS[1], '*',
+    'gameId', ARGV[1], 'userId', ARGV[2], 'userPrompt', ARGV[3], 'turn', ARGV[4], 'accepted', ARGV[5])
+
+redis.call('INCR', KEYS[2])
+redis.call('PEXPIRE', KEYS[2], ARGV[6])
+return id
@@ -0,0 +1,84 @@
+package com.example.b101.cache;
+
+import kr.co.shineware.nlp.komoran.model.Token;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 원형(lemma) 인덱스 매칭 확인 (토큰은 KOMORAN 분석 결과와 같은 형태로 직접 만듦)
+ * 활용형은 원형 키로 찾고, 글자가 겹쳐도 형태소/품사가 다르면 찾지 않는지
+ */
+class LemmaIndexTest {
+
+    private static final int BOAT = 3;     // "배"
+    private static final int LOST = 5;     // "길을 잃다"
+    private static final int SCARY = 8;    // "무섭다"
+
+    private final LemmaIndex index = LemmaIndex.builder()
+            .add(List.of(token("배", "NNG")), BOAT)
+            .add(List.of(token("길", "NNG"), token("을", "JKO"), token("잃", "VV"), token("다", "EC")), LOST)
+            .add(List.of(token("무섭", "VA"), token("다", "EC")), SCARY)
+            .build();
+
+    @Test
+    void keyOfKeepsOnlyMeaningfulMorphemes() {
+        assertEquals("용사/N", LemmaIndex.keyOf(token("용사", "NNG")));
+        assertEquals("서울/N", LemmaIndex.keyOf(token("서울", "NNP")));
+        assertEquals("달리/V", LemmaIndex.keyOf(token("달리", "VV")));
+        assertEquals("무섭/A", LemmaIndex.keyOf(token("무섭", "VA")));
+        assertEquals("깨끗/R", LemmaIndex.keyOf(token("깨끗", "XR")));
+        assertEquals("빨리/M", LemmaIndex.keyOf(token("빨리", "MAG")));
+
+        assertNull(LemmaIndex.keyOf(token("을", "JKO")));
+        assertNull(LemmaIndex.keyOf(token("었", "EP")));
+        assertNull(LemmaIndex.keyOf(token("버리", "VX")));
+    }
+
+    @Test
+    void matchesConjugatedPrompt() {
+        // "아이가 숲에서 길을 잃어버렸다"
+        BitSet lost = match(token("아이", "NNG"), token("가", "JKS"), token("숲", "NNG"), token("에서", "JKB"),
+                token("길", "NNG"), token("을", "JKO"), token("잃", "VV"), token("어", "EC"),
+                token("버리", "VX"), token("었", "EP"), token("다", "EF"));
+        assertTrue(lost.get(LOST));
+
+        // "동굴이 너무 무서웠다"
+        BitSet scary = match(token("동굴", "NNG"), token("이", "JKS"), token("너무", "MAG"),
+                token("무섭", "VA"), token("었", "EP"), token("다", "EF"));
+        assertTrue(scary.get(SCARY));
+    }
+
+    @Test
+    void ignoresPromptSharingStemWithDifferentMorpheme() {
+        // "피아노를 배웠다" - 글자로는 "배"가 들어 있지만 형태소는 동사 "배우"
+        BitSet learned = match(token("피아노", "NNG"), token("를", "JKO"), token("배우", "VV"),
+                token("었", "EP"), token("다", "EF"));
+        assertFalse(learned.get(BOAT));
+    }
+
+    @Test
+    void requiresEveryKeyOfVariant() {
+        // "길이 잘 보였다" - "길"만 있고 "잃"이 없음
+        BitSet road = match(token("길", "NNG"), token("이", "JKS"), token("잘", "MAG"),
+                token("보이", "VV"), token("었", "EP"), token("다", "EF"));
+        assertFalse(road.get(LOST));
+        assertTrue(road.isEmpty());
+    }
+
+    private BitSet match(Token... tokens) {
+        BitSet cardIds = new BitSet();
+        index.match(List.of(tokens), cardIds);
+        return cardIds;
+    }
+
+    private static Token token(String morph, String pos) {
+        return new Token(morph, pos, 0, morph.length());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.b101.cache;
+
+import com.example.b101.common.AhoCorasick;
+import com.example.b101.domain.StoryCard;
+import com.example.b101.domain.StoryCardVariants;
+import com.vane.badwordfiltering.BadWordFiltering;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 욕설/변형어 오토마톤 확인 (실제 욕설 사전 사용)
+ * 숫자가 들어간 욕설 때문에 일반 단어가 걸리지 않는지, 구분자를 끼워 넣은 욕설은 찾는지
+ */
+class PromptMatcherTest {
+
+    private static final Set<String> BAD_WORDS = Set.copyOf(new BadWordFiltering());
+
+    private final AhoCorasick matcher = CardCatalog.buildPromptMatcher(List.of(variant(7, "용사")), BAD_WORDS);
+
+    @Test
+    void ignoresOrdinaryWordsThatShareSyllablesWithBadWords() {
+        for (String prompt : List.of("소년이 길을 떠났다", "청년은 작년 겨울을 기억했다", "십자가를 들고 오십 걸음 걸었다",
+                "소년 8명이 십 분 동안 달렸다")) {
+            assertFalse(scan(prompt).hasBadWord(), prompt);
+        }
+    }
+
+    @Test
+    void findsBadWordsWithDigits() {
+        assertTrue(scan("이 18년아").hasBadWord());
+        assertTrue(scan("십8 진짜").hasBadWord());
+    }
+
+    @Test
+    void findsBadWordsSplitBySeparators() {
+        PromptScan scan = scan("야 시.발 뭐야");
+
+        assertTrue(scan.hasBadWord());
+        assertArrayEquals(new int[] {2, 5}, scan.getBadWordSpans().get(0));
+        assertEquals("야 *** 뭐야", scan.mask("야 시.발 뭐야"));
+    }
+
+    @Test
+    void findsSingleCharacterBadWords() {
+        assertTrue(scan("똥강아지가 짖었다").hasBadWord());
+    }
+
+    @Test
+    void findsVariantsSplitBySeparators() {
+        PromptScan scan = scan("용-사가 나타났다");
+
+        assertFalse(scan.hasBadWord());
+        assertTrue(scan.getCardIds().get(7));
+    }
+
+    private PromptScan scan(String prompt) {
+        PromptScan scan = new PromptScan(8);
+        CardCatalog.matchPrompt(matcher, prompt, scan);
+        return scan;
+    }
+
+    private static StoryCardVariants variant(int cardId, String variant) {
+        StoryCard storyCard = new StoryCard();
+        storyCard.setId(cardId);
+        return StoryCardVariants.builder().storyCard(storyCard).variant(variant).build();
+    }
+}
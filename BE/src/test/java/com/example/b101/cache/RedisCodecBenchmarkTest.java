@@ -0,0 +1,157 @@
+package com.example.b101.cache;
+
+import com.example.b101.domain.EndingCard;
+import com.example.b101.domain.PlayerStatus;
+import com.example.b101.domain.StoryCard;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 6인 게임 기준으로 이전 JSON(@class 포함) 직렬화와 버전 헤더 코덱(json, smile)의 크기/속도 비교
+ * 기본 test 작업에서는 제외되고 ./gradlew benchmark 로만 실행, 결과는 표준 출력으로 확인
+ */
+@Tag("benchmark")
+class RedisCodecBenchmarkTest {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 20_000;
+
+    @Test
+    void compareGameCodecs() {
+        compare(Game.class, sixPlayerGame());
+    }
+
+    @Test
+    void compareRoomCodecs() {
+        compare(Room.class, sixPlayerRoom());
+    }
+
+    @Test
+    void compareSceneCodecs() {
+        compare(SceneRedis.class, scene());
+    }
+
+    private static <T> void compare(Class<T> type, T value) {
+        Map<String, RedisSerializer<Object>> serializers = new LinkedHashMap<>();
+        serializers.put("legacy-json", new GenericJackson2JsonRedisSerializer());
+        serializers.put("json", cast(new VersionedRedisSerializer<>(type, 1, RedisCodecType.JSON)));
+        serializers.put("smile", cast(new VersionedRedisSerializer<>(type, 1, RedisCodecType.SMILE)));
+
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        System.out.printf("[%s]%n%-12s %8s %14s %14s%n", type.getSimpleName(), "codec", "bytes", "encode ns/op", "decode ns/op");
+
+        for (Map.Entry<String, RedisSerializer<Object>> entry : serializers.entrySet()) {
+            RedisSerializer<Object> serializer = entry.getValue();
+            byte[] payload = serializer.serialize(value);
+
+            // 왕복 후 데이터가 같은지 확인
+            assertEquals(value.toString(), serializer.deserialize(payload).toString());
+
+            long encodeNs = measure(() -> serializer.serialize(value));
+            long decodeNs = measure(() -> serializer.deserialize(payload));
+
+            sizes.put(entry.getKey(), payload.length);
+            System.out.printf("%-12s %8d %14d %14d%n", entry.getKey(), payload.length, encodeNs, decodeNs);
+        }
+
+        assertTrue(sizes.get("smile") < sizes.get("legacy-json"));
+    }
+
+    private static long measure(Runnable task) {
+        for (int i = 0; i < WARMUP; i++) {
+            task.run();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisSerializer<Object> cast(RedisSerializer<?> serializer) {
+        return (RedisSerializer<Object>) serializer;
+    }
+
+    private static Game sixPlayerGame() {
+        String[] attributes = {"인물", "사물", "장소", "상태"};
+        List<PlayerStatus> playerStatuses = new ArrayList<>();
+        int cardId = 1;
+
+        for (int i = 0; i < 6; i++) {
+            List<StoryCard> storyCards = new ArrayList<>();
+            for (String attribute : attributes) {
+                storyCards.add(storyCard(cardId++, attribute + "카드" + i, attribute));
+            }
+
+            playerStatuses.add(PlayerStatus.builder()
+                    .userId(UUID.randomUUID().toString())
+                    .storyCards(storyCards)
+                    .endingCard(endingCard(i + 1, "그리하여 마침내 그곳에는 평화가 찾아왔습니다."))
+                    .build());
+        }
+
+        return Game.builder()
+                .gameId(UUID.randomUUID().toString())
+                .endingDeck(List.of(9, 4, 12, 1, 17, 3, 8, 2, 15, 6, 11, 19, 5, 14, 7, 18, 10, 13, 16))
+                .endingCursor(playerStatuses.size())
+                .playerStatuses(playerStatuses)
+                .drawingStyle(3)
+                .build();
+    }
+
+    private static Room sixPlayerRoom() {
+        List<String> users = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            users.add(UUID.randomUUID().toString());
+        }
+
+        return Room.builder()
+                .id(UUID.randomUUID().toString())
+                .name("옛날 옛적 이야기 방")
+                .users(users)
+                .owner(users.get(0))
+                .maxCapacity(6)
+                .password("1234")
+                .link(UUID.randomUUID().toString())
+                .build();
+    }
+
+    // 이미지는 별도 key에 raw bytes로 저장되므로 메타데이터만 비교
+    private static SceneRedis scene() {
+        return SceneRedis.builder()
+                .id(UUID.randomUUID().toString())
+                .gameId(UUID.randomUUID().toString())
+                .userId(UUID.randomUUID().toString())
+                .sceneOrder(6)
+                .prompt("용사가 낡은 지도를 들고 안개 낀 숲으로 들어가자 오래된 성이 모습을 드러냈다")
+                .build();
+    }
+
+    private static StoryCard storyCard(int id, String keyword, String attribute) {
+        StoryCard storyCard = new StoryCard();
+        storyCard.setId(id);
+        storyCard.setKeyword(keyword);
+        storyCard.setAttribute(attribute);
+        return storyCard;
+    }
+
+    private static EndingCard endingCard(int id, String content) {
+        EndingCard endingCard = new EndingCard();
+        endingCard.setId(id);
+        endingCard.setContent(content);
+        return endingCard;
+    }
+}
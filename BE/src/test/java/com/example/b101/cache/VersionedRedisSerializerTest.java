@@ -0,0 +1,171 @@
+package com.example.b101.cache;
+
+import com.example.b101.domain.EndingCard;
+import com.example.b101.domain.PlayerStatus;
+import com.example.b101.domain.StoryCard;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 버전 헤더 직렬화 왕복, 이전 포맷 읽기, 스키마 버전 불일치 처리 확인
+ * (PlayerStatus에 equals가 없어서 toString으로 비교)
+ */
+class VersionedRedisSerializerTest {
+
+    @Test
+    void roundTripsWithEachCodec() {
+        Game game = sixPlayerGame();
+
+        for (RedisCodecType codec : RedisCodecType.values()) {
+            VersionedRedisSerializer<Game> serializer = new VersionedRedisSerializer<>(Game.class, 2, codec);
+            byte[] payload = serializer.serialize(game);
+
+            assertEquals(VersionedRedisSerializer.MAGIC, payload[0]);
+            assertEquals(2, payload[1]);
+            assertEquals(codec.getId(), payload[2]);
+            assertEquals(game.toString(), serializer.deserialize(payload).toString());
+        }
+    }
+
+    @Test
+    void readsPayloadWrittenByAnotherCodec() {
+        Game game = sixPlayerGame();
+        byte[] json = new VersionedRedisSerializer<>(Game.class, 2, RedisCodecType.JSON).serialize(game);
+
+        assertEquals(game.toString(), new VersionedRedisSerializer<>(Game.class, 2, RedisCodecType.SMILE).deserialize(json).toString());
+    }
+
+    //이전 배포의 "game" hash 값: GenericJackson2JsonRedisSerializer로 저장된 JSON (@class, 결말카드 목록 endingCardlist 포함)
+    @Test
+    void readsLegacyJsonPayload() {
+        Game game = sixPlayerGame();
+        byte[] legacy = new GenericJackson2JsonRedisSerializer().serialize(game);
+
+        VersionedRedisSerializer<Game> serializer = new VersionedRedisSerializer<>(Game.class, 1, RedisCodecType.SMILE);
+
+        assertEquals(game.toString(), serializer.deserialize(legacy).toString());
+
+        String baseline = "{\"@class\":\"com.example.b101.cache.Game\",\"gameId\":\"3f1c9a52-7d1e-4c0b-9a53-0d6f2b7e8c41\","
+                + "\"endingCardlist\":[\"java.util.ArrayList\",["
+                + "{\"@class\":\"com.example.b101.domain.EndingCard\",\"id\":7,\"content\":\"그날 이후, 아무도 그들을 본 사람이 없었습니다.\"},"
+                + "{\"@class\":\"com.example.b101.domain.EndingCard\",\"id\":8,\"content\":\"모두 행복하게 살았습니다.\"}]],"
+                + "\"playerStatuses\":[\"java.util.ArrayList\",["
+                + "{\"@class\":\"com.example.b101.domain.PlayerStatus\",\"userId\":\"user-1\","
+                + "\"storyCards\":[\"java.util.ArrayList\",["
+                + "{\"@class\":\"com.example.b101.domain.StoryCard\",\"id\":1,\"keyword\":\"용사\",\"attribute\":\"인물\"},"
+                + "{\"@class\":\"com.example.b101.domain.StoryCard\",\"id\":2,\"keyword\":\"지도\",\"attribute\":\"사물\"}]],"
+                + "\"endingCard\":{\"@class\":\"com.example.b101.domain.EndingCard\",\"id\":1,\"content\":\"그리하여 마침내 그곳에는 평화가 찾아왔습니다.\"},"
+                + "\"refreshCount\":2,\"exchangeCount\":3}]],"
+                + "\"drawingStyle\":3}";
+
+        Game baselineGame = serializer.deserialize(baseline.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("3f1c9a52-7d1e-4c0b-9a53-0d6f2b7e8c41", baselineGame.getGameId());
+        assertEquals(3, baselineGame.getDrawingStyle());
+        assertNull(baselineGame.getEndingDeck()); // 결말카드 덱은 GameRepoImpl이 옮길 때 새로 섞음
+
+        PlayerStatus player = baselineGame.getPlayerStatuses().get(0);
+        assertEquals("user-1", player.getUserId());
+        assertEquals(List.of("용사", "지도"), player.getStoryCards().stream().map(StoryCard::getKeyword).toList());
+        assertEquals(1, player.getEndingCard().getId());
+        assertEquals(2, player.getRefreshCount());
+        assertEquals(3, player.getExchangeCount());
+    }
+
+    @Test
+    void rejectsUnregisteredSchemaVersion() {
+        byte[] older = new VersionedRedisSerializer<>(Game.class, 1, RedisCodecType.SMILE).serialize(sixPlayerGame());
+        byte[] newer = new VersionedRedisSerializer<>(Game.class, 3, RedisCodecType.SMILE).serialize(sixPlayerGame());
+
+        VersionedRedisSerializer<Game> serializer = new VersionedRedisSerializer<>(Game.class, 2, RedisCodecType.SMILE);
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(older));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(newer));
+    }
+
+    @Test
+    void upgradesRegisteredLegacyVersion() {
+        Game game = sixPlayerGame();
+        byte[] older = new VersionedRedisSerializer<>(Game.class, 1, RedisCodecType.SMILE).serialize(game);
+
+        VersionedRedisSerializer<Game> serializer = new VersionedRedisSerializer<>(Game.class, 2, RedisCodecType.SMILE)
+                .withLegacyVersion(1, Game.class, legacy -> {
+                    legacy.setEndingCursor(0);
+                    return legacy;
+                });
+
+        Game upgraded = serializer.deserialize(older);
+        assertEquals(game.getPlayerStatuses().toString(), upgraded.getPlayerStatuses().toString());
+        assertEquals(0, upgraded.getEndingCursor());
+    }
+
+    @Test
+    void rejectsUnknownCodec() {
+        byte[] payload = new VersionedRedisSerializer<>(Game.class, 2, RedisCodecType.SMILE).serialize(sixPlayerGame());
+        payload[2] = 9;
+
+        VersionedRedisSerializer<Game> serializer = new VersionedRedisSerializer<>(Game.class, 2, RedisCodecType.SMILE);
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(payload));
+    }
+
+    @Test
+    void treatsEmptyPayloadAsNull() {
+        VersionedRedisSerializer<Game> serializer = new VersionedRedisSerializer<>(Game.class, 2, RedisCodecType.SMILE);
+
+        assertNull(serializer.deserialize(new byte[0]));
+        assertNull(serializer.deserialize(null));
+    }
+
+    private static Game sixPlayerGame() {
+        String[] attributes = {"인물", "사물", "장소", "상태"};
+        List<PlayerStatus> playerStatuses = new ArrayList<>();
+        int cardId = 1;
+
+        for (int i = 0; i < 6; i++) {
+            List<StoryCard> storyCards = new ArrayList<>();
+            for (String attribute : attributes) {
+                storyCards.add(storyCard(cardId++, attribute + "카드" + i, attribute));
+            }
+
+            playerStatuses.add(PlayerStatus.builder()
+                    .userId(UUID.randomUUID().toString())
+                    .storyCards(storyCards)
+                    .endingCard(endingCard(i + 1, "그리하여 마침내 그곳에는 평화가 찾아왔습니다."))
+                    .build());
+        }
+
+        return Game.builder()
+                .gameId(UUID.randomUUID().toString())
+                .endingDeck(List.of(4, 1, 3, 2))
+                .endingCursor(playerStatuses.size())
+                .playerStatuses(playerStatuses)
+                .drawingStyle(3)
+                .build();
+    }
+
+    private static StoryCard storyCard(int id, String keyword, String attribute) {
+        StoryCard storyCard = new StoryCard();
+        storyCard.setId(id);
+        storyCard.setKeyword(keyword);
+        storyCard.setAttribute(attribute);
+        return storyCard;
+    }
+
+    private static EndingCard endingCard(int id, String content) {
+        EndingCard endingCard = new EndingCard();
+        endingCard.setId(id);
+        endingCard.setContent(content);
+        return endingCard;
+    }
+}
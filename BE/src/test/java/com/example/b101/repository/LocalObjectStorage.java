@@ -0,0 +1,98 @@
+package com.example.b101.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * 테스트용 파일시스템 저장소 (key를 root 아래 경로로 그대로 사용)
+ * 다운로드는 S3service가 S3에 직접 하므로 애플리케이션 저장소로는 쓰지 않음
+ */
+public class LocalObjectStorage implements ObjectStorage {
+
+    private final Path root;
+
+    public LocalObjectStorage(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public CompletableFuture<Void> put(String key, byte[] data, String contentType) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                Path target = resolve(key);
+                Files.createDirectories(target.getParent());
+                // 임시 파일에 쓴 뒤 옮겨서 쓰다 만 파일이 보이지 않게 함
+                Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+                Files.write(temp, data);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> copy(String sourceKey, String targetKey) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                Path target = resolve(targetKey);
+                Files.createDirectories(target.getParent());
+                Files.copy(resolve(sourceKey), target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(Collection<String> keys) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                for (String key : keys) {
+                    Files.deleteIfExists(resolve(key));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<StoredObject>> list(String prefix) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (!Files.isDirectory(root)) {
+                return List.of();
+            }
+            try (Stream<Path> files = Files.walk(root)) {
+                return files.filter(Files::isRegularFile)
+                        .map(file -> root.relativize(file).toString().replace('\\', '/'))
+                        .filter(key -> key.startsWith(prefix))
+                        .map(key -> {
+                            try {
+                                return new StoredObject(key, Files.getLastModifiedTime(resolve(key)).toInstant());
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        })
+                        .toList();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root.normalize())) {
+            throw new IllegalArgumentException("저장소 밖의 key: " + key);
+        }
+        return path;
+    }
+}
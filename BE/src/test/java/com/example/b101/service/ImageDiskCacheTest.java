@@ -0,0 +1,178 @@
+package com.example.b101.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 임시 디렉터리와 가짜 Fetcher로 용량 초과 시 LRU 삭제, 동시 요청 합치기, 실패한 채우기 정리,
+ * 시작할 때 캐시 파일만 지우는지 확인
+ */
+class ImageDiskCacheTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void evictsLeastRecentlyUsedOverMaxBytes() throws IOException {
+        ImageDiskCache cache = cache(10);
+
+        read(cache, "book/1.png", fetcher(new byte[]{1, 1, 1, 1}));
+        read(cache, "book/2.png", fetcher(new byte[]{2, 2, 2, 2}));
+        assertTrue(isCached(cache, "book/1.png")); // 1번을 최근에 쓴 항목으로 만듦
+        read(cache, "book/3.png", fetcher(new byte[]{3, 3, 3, 3}));
+
+        assertTrue(isCached(cache, "book/1.png"));
+        assertFalse(isCached(cache, "book/2.png"));
+        assertTrue(isCached(cache, "book/3.png"));
+        assertEquals(2, files().size());
+    }
+
+    @Test
+    void fetchesOnceForConcurrentReadsOfSameKey() throws Exception {
+        ImageDiskCache cache = cache(1024);
+        byte[] image = {1, 2, 3, 4, 5};
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ImageDiskCache.Fetcher slow = () -> {
+            fetches.incrementAndGet();
+            fetching.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return source(new ByteArrayInputStream(image), image.length);
+        };
+
+        CompletableFuture<byte[]> first = CompletableFuture.supplyAsync(() -> readUnchecked(cache, "book/1.png", slow));
+        assertTrue(fetching.await(5, TimeUnit.SECONDS));
+        CompletableFuture<byte[]> second = CompletableFuture.supplyAsync(() -> readUnchecked(cache, "book/1.png", slow));
+        Thread.sleep(200); // 두 번째 요청이 먼저 받는 요청을 기다리도록 둠
+        release.countDown();
+
+        assertArrayEquals(image, first.get(5, TimeUnit.SECONDS));
+        assertArrayEquals(image, second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void failedFillLeavesNoEntryOrTempFile() throws IOException {
+        ImageDiskCache cache = cache(1024);
+
+        assertThrows(IOException.class, () -> read(cache, "book/1.png",
+                () -> source(failingAfter(new byte[]{1, 2}), 4)));
+
+        assertNull(cache.open("book/1.png"));
+        assertTrue(files().isEmpty());
+
+        // 실패한 뒤 다음 요청은 다시 받아서 캐시함
+        read(cache, "book/1.png", fetcher(new byte[]{1, 2, 3, 4}));
+        assertTrue(isCached(cache, "book/1.png"));
+    }
+
+    @Test
+    void shortFillLeavesNoEntryOrTempFile() {
+        ImageDiskCache cache = cache(1024);
+
+        // Content-Length보다 본문이 짧게 끝난 경우
+        assertThrows(IOException.class, () -> read(cache, "book/1.png",
+                () -> source(new ByteArrayInputStream(new byte[]{1, 2}), 4)));
+
+        assertNull(cache.open("book/1.png"));
+        assertTrue(files().isEmpty());
+    }
+
+    @Test
+    void clearsOnlyCacheFilesOnStart() throws IOException {
+        Files.write(root.resolve("a".repeat(64) + ".img"), new byte[]{1});
+        Files.write(root.resolve("fill-123.tmp"), new byte[]{1});
+        Files.write(root.resolve("notes.txt"), new byte[]{1});
+        Files.write(root.resolve("cover.img"), new byte[]{1});
+        Files.createDirectories(root.resolve("fill-dir.tmp"));
+
+        cache(1024);
+
+        assertEquals(List.of("cover.img", "fill-dir.tmp", "notes.txt"), files());
+    }
+
+    private ImageDiskCache cache(long maxBytes) {
+        return new ImageDiskCache(new SimpleMeterRegistry(), true, root, maxBytes);
+    }
+
+    private static byte[] read(ImageDiskCache cache, String key, ImageDiskCache.Fetcher fetcher) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.readThrough(key, fetcher, entry -> {
+        }, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] readUnchecked(ImageDiskCache cache, String key, ImageDiskCache.Fetcher fetcher) {
+        try {
+            return read(cache, key, fetcher);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isCached(ImageDiskCache cache, String key) throws IOException {
+        try (ImageDiskCache.Hit hit = cache.open(key)) {
+            return hit != null;
+        }
+    }
+
+    private List<String> files() {
+        try (Stream<Path> files = Files.list(root)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ImageDiskCache.Fetcher fetcher(byte[] image) {
+        return () -> source(new ByteArrayInputStream(image), image.length);
+    }
+
+    private static ImageDiskCache.Source source(InputStream body, long size) {
+        return new ImageDiskCache.Source(body, size, "\"etag\"", Instant.EPOCH);
+    }
+
+    //data를 다 읽은 뒤 연결이 끊긴 것처럼 실패하는 본문
+    private static InputStream failingAfter(byte[] data) {
+        return new InputStream() {
+            private int position;
+
+            @Override
+            public int read() throws IOException {
+                if (position < data.length) {
+                    return data[position++] & 0xff;
+                }
+                throw new IOException("연결 끊김");
+            }
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.b101.service;
+
+import com.example.b101.dto.UploadManifest;
+import com.example.b101.repository.LocalObjectStorage;
+import com.example.b101.repository.ObjectStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 파일시스템 저장소로 업로드 재시도, 동시 요청 제한, 페이지별 결과(manifest) 확인
+ */
+class ObjectUploaderTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void retriesUntilStored() throws IOException {
+        FlakyStorage storage = new FlakyStorage(new LocalObjectStorage(root), Map.of("book/1.png", 2));
+        ObjectUploader uploader = new ObjectUploader(storage, 4, 3, 1);
+
+        UploadManifest manifest = uploader.upload(List.of(
+                ObjectUploader.Task.put(1, "book/1.png", () -> new byte[]{1}),
+                ObjectUploader.Task.put(2, "book/2.png", () -> new byte[]{2}))).block();
+
+        assertTrue(manifest.isComplete());
+        assertEquals(3, manifest.getPages().get(0).getAttempts());
+        assertEquals(1, manifest.getPages().get(1).getAttempts());
+        assertArrayEquals(new byte[]{1}, Files.readAllBytes(root.resolve("book/1.png")));
+    }
+
+    @Test
+    void reportsFailedAndMissingPages() {
+        FlakyStorage storage = new FlakyStorage(new LocalObjectStorage(root), Map.of("book/2.png", 10));
+        ObjectUploader uploader = new ObjectUploader(storage, 4, 3, 1);
+
+        UploadManifest manifest = uploader.upload(List.of(
+                ObjectUploader.Task.put(1, "book/1.png", () -> new byte[]{1}),
+                ObjectUploader.Task.put(2, "book/2.png", () -> new byte[]{2}),
+                ObjectUploader.Task.put(3, "book/3.png", () -> null))).block();
+
+        assertFalse(manifest.isComplete());
+        assertTrue(manifest.hasMissing());
+        assertEquals(List.of(2), manifest.pagesWith(UploadManifest.Status.FAILED));
+        assertEquals(List.of(3), manifest.pagesWith(UploadManifest.Status.MISSING));
+        assertEquals(3, manifest.getPages().get(1).getAttempts());
+        assertTrue(Files.exists(root.resolve("book/1.png")));
+        assertFalse(Files.exists(root.resolve("book/2.png")));
+    }
+
+    @Test
+    void copiesWithinStorage() throws IOException {
+        LocalObjectStorage storage = new LocalObjectStorage(root);
+        storage.put("staging/game/scene.png", new byte[]{7}, "image/png").join();
+        ObjectUploader uploader = new ObjectUploader(storage, 4, 3, 1);
+
+        UploadManifest manifest = uploader.upload(List.of(
+                ObjectUploader.Task.copy(1, "book/1.png", "staging/game/scene.png"),
+                ObjectUploader.Task.copy(2, "book/2.png", "staging/game/none.png"))).block();
+
+        assertEquals(List.of(2), manifest.pagesWith(UploadManifest.Status.FAILED));
+        assertArrayEquals(new byte[]{7}, Files.readAllBytes(root.resolve("book/1.png")));
+    }
+
+    @Test
+    void boundsConcurrentUploads() {
+        FlakyStorage storage = new FlakyStorage(new LocalObjectStorage(root), Map.of());
+        ObjectUploader uploader = new ObjectUploader(storage, 2, 1, 1);
+
+        List<ObjectUploader.Task> tasks = IntStream.rangeClosed(1, 20)
+                .mapToObj(page -> ObjectUploader.Task.put(page, "book/" + page + ".png", () -> new byte[]{(byte) page}))
+                .toList();
+
+        assertTrue(uploader.upload(tasks).block().isComplete());
+        assertTrue(storage.maxInFlight.get() <= 2);
+    }
+
+    //key별로 정해진 횟수만큼 실패시키고 동시 요청 수를 기록하는 저장소
+    private static class FlakyStorage implements ObjectStorage {
+
+        private final ObjectStorage delegate;
+        private final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        FlakyStorage(ObjectStorage delegate, Map<String, Integer> failures) {
+            this.delegate = delegate;
+            failures.forEach((key, count) -> this.failures.put(key, new AtomicInteger(count)));
+        }
+
+        @Override
+        public CompletableFuture<Void> put(String key, byte[] data, String contentType) {
+            AtomicInteger remaining = failures.get(key);
+            if (remaining != null && remaining.getAndDecrement() > 0) {
+                return CompletableFuture.failedFuture(new IOException("업로드 실패 (테스트)"));
+            }
+
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return delegate.put(key, data, contentType)
+                    .whenComplete((result, e) -> inFlight.decrementAndGet());
+        }
+
+        @Override
+        public CompletableFuture<Void> copy(String sourceKey, String targetKey) {
+            return delegate.copy(sourceKey, targetKey);
+        }
+
+        @Override
+        public CompletableFuture<Void> delete(Collection<String> keys) {
+            return delegate.delete(keys);
+        }
+
+        @Override
+        public CompletableFuture<List<StoredObject>> list(String prefix) {
+            return delegate.list(prefix);
+        }
+    }
+}